@@ -0,0 +1,45 @@
+package ch.julien.query.benchmarks;
+
+import java.util.Arrays;
+
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.EqualityComparator;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.HashingEqualityComparator;
+import ch.julien.common.delegate.Predicate;
+
+/**
+ * Delegates shared by the benchmarks, created once so that their allocation is not measured.
+ */
+final class Delegates {
+	private Delegates() {
+	}
+
+	static final Predicate<Integer> EVEN = arg -> arg % 2 == 0;
+	static final Predicate<Integer> NOT_NEGATIVE = arg -> arg >= 0;
+	static final Predicate<Integer> NEGATIVE = arg -> arg < 0;
+
+	static final Func<Integer, Integer> SQUARE = arg -> arg * arg;
+	static final Func<Integer, Integer> MODULO_100 = arg -> arg % 100;
+	static final Func<Integer, Integer> IDENTITY = arg -> arg;
+	static final Func<Integer, String> TO_STRING = String::valueOf;
+	static final Func<Integer, Iterable<Integer>> TWICE = arg -> Arrays.asList(arg, arg);
+
+	static final Accumulator<Integer, Integer> SUM = (accumulate, element) -> accumulate + element;
+	static final Accumulator<Long, Integer> LONG_SUM = (accumulate, element) -> accumulate + element;
+	static final Func<Long, String> LONG_TO_STRING = String::valueOf;
+
+	static final EqualityComparator<Integer> EQUALS = (a, b) -> a.equals(b);
+
+	static final HashingEqualityComparator<Integer> HASHING_EQUALS = new HashingEqualityComparator<Integer>() {
+		@Override
+		public boolean equals(Integer a, Integer b) {
+			return a.equals(b);
+		}
+
+		@Override
+		public int hashCode(Integer value) {
+			return value.hashCode();
+		}
+	};
+}
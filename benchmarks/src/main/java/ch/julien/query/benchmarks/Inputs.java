@@ -0,0 +1,135 @@
+package ch.julien.query.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Input data shared by all benchmarks, parameterized by size and by the distribution of the values.
+ * <p/>
+ * Every source type holds the same values, so the results of an operation can be compared across sources. The data
+ * is generated from a fixed seed and does not change between iterations.
+ */
+@State(Scope.Benchmark)
+public class Inputs {
+	public enum Distribution {
+		/** Values drawn uniformly from {@code [0, size)}, mostly distinct. */
+		UNIFORM,
+		/** {@code 0, 1, 2, ...} */
+		SORTED,
+		/** {@code size - 1, size - 2, ...} */
+		REVERSED,
+		/** Values drawn from 16 distinct values, lots of duplicates. */
+		FEW_DISTINCT
+	}
+
+	/** Number of values of {@link #other}, {@code combine} builds {@code size * OTHER_SIZE} tuples. */
+	public static final int OTHER_SIZE = 16;
+
+	@Param({"100", "10000", "1000000"})
+	public int size;
+
+	@Param({"UNIFORM", "SORTED", "REVERSED", "FEW_DISTINCT"})
+	public Distribution distribution;
+
+	public int[] ints;
+	public long[] longs;
+	public double[] doubles;
+	public boolean[] booleans;
+	public byte[] bytes;
+	public char[] chars;
+	public float[] floats;
+	public short[] shorts;
+
+	public Integer[] array;
+	public ArrayList<Integer> list;
+	public LinkedList<Integer> linkedList;
+	public ArrayList<String> strings;
+
+	/** Values of the same distribution, half of them shifted out of the range of {@link #list}. */
+	public ArrayList<Integer> overlapping;
+	public Integer[] overlappingArray;
+
+	/** A few values for operations which are quadratic in their arguments. */
+	public List<Integer> other;
+
+	/** The values of {@link #list} split into {@link #OTHER_SIZE} overlapping chunks. */
+	public List<Iterable<Integer>> chunks;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+
+		this.ints = new int[this.size];
+		for (int i = 0; i < this.size; i++) {
+			this.ints[i] = value(random, i);
+		}
+
+		this.longs = new long[this.size];
+		this.doubles = new double[this.size];
+		this.booleans = new boolean[this.size];
+		this.bytes = new byte[this.size];
+		this.chars = new char[this.size];
+		this.floats = new float[this.size];
+		this.shorts = new short[this.size];
+		this.array = new Integer[this.size];
+		this.strings = new ArrayList<>(this.size);
+
+		for (int i = 0; i < this.size; i++) {
+			int value = this.ints[i];
+
+			this.longs[i] = value * 31L;
+			this.doubles[i] = value / 7.0;
+			this.booleans[i] = value % 2 == 0;
+			this.bytes[i] = (byte) value;
+			this.chars[i] = (char) ('a' + value % 26);
+			this.floats[i] = value / 7.0f;
+			this.shorts[i] = (short) value;
+			this.array[i] = value;
+			this.strings.add(" item-" + value + " ");
+		}
+
+		this.list = new ArrayList<>(Arrays.asList(this.array));
+		this.linkedList = new LinkedList<>(this.list);
+
+		this.overlapping = new ArrayList<>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			this.overlapping.add(i % 2 == 0 ? value(random, i) : value(random, i) + this.size);
+		}
+		this.overlappingArray = this.overlapping.toArray(new Integer[this.size]);
+
+		List<Integer> other = new ArrayList<>(OTHER_SIZE);
+		for (int i = 0; i < OTHER_SIZE; i++) {
+			other.add(i);
+		}
+		this.other = Collections.unmodifiableList(other);
+
+		this.chunks = new ArrayList<>(OTHER_SIZE);
+		int chunkSize = Math.max(1, this.size / OTHER_SIZE);
+		for (int i = 0; i < OTHER_SIZE; i++) {
+			int from = Math.min(this.size, i * chunkSize);
+			this.chunks.add(this.list.subList(from, Math.min(this.size, from + chunkSize * 2)));
+		}
+	}
+
+	private int value(Random random, int i) {
+		switch (this.distribution) {
+			case SORTED:
+				return i;
+			case REVERSED:
+				return this.size - 1 - i;
+			case FEW_DISTINCT:
+				return random.nextInt(16);
+			default:
+				return random.nextInt(this.size);
+		}
+	}
+}
@@ -0,0 +1,331 @@
+package ch.julien.query.benchmarks;
+
+import static ch.julien.query.benchmarks.Delegates.EVEN;
+import static ch.julien.query.benchmarks.Delegates.SQUARE;
+import static ch.julien.query.benchmarks.Delegates.TWICE;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.julien.common.datastructure.Tuple;
+import ch.julien.query.core.Query;
+
+/**
+ * Intermediate operations of {@link ch.julien.query.Traversable}, each against a hand-written loop and a stream.
+ * Every element of the result is consumed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntermediateBenchmark {
+
+	private static void consume(Iterable<?> iterable, Blackhole blackhole) {
+		for (Object element : iterable) {
+			blackhole.consume(element);
+		}
+	}
+
+	// concat
+
+	@Benchmark
+	public void concatQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).concat(inputs.overlapping), blackhole);
+	}
+
+	@Benchmark
+	public void concatArrayQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).concat(inputs.overlappingArray), blackhole);
+	}
+
+	@Benchmark
+	public void concatLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.list) {
+			blackhole.consume(element);
+		}
+		for (Integer element : inputs.overlapping) {
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public void concatStream(Inputs inputs, Blackhole blackhole) {
+		Stream.concat(inputs.list.stream(), inputs.overlapping.stream()).forEach(blackhole::consume);
+	}
+
+	// each
+
+	@Benchmark
+	public void eachQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).each(blackhole::consume), blackhole);
+	}
+
+	@Benchmark
+	public void eachLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.list) {
+			blackhole.consume(element);
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public void eachStream(Inputs inputs, Blackhole blackhole) {
+		inputs.list.stream().peek(blackhole::consume).forEach(blackhole::consume);
+	}
+
+	// flat
+
+	@Benchmark
+	public void flatQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).flat(TWICE), blackhole);
+	}
+
+	@Benchmark
+	public void flatLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.list) {
+			for (Integer inner : Arrays.asList(element, element)) {
+				blackhole.consume(inner);
+			}
+		}
+	}
+
+	@Benchmark
+	public void flatStream(Inputs inputs, Blackhole blackhole) {
+		inputs.list.stream().flatMap(element -> Stream.of(element, element)).forEach(blackhole::consume);
+	}
+
+	// map / select
+
+	@Benchmark
+	public void mapQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).map(SQUARE), blackhole);
+	}
+
+	@Benchmark
+	public void mapLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.list) {
+			blackhole.consume(element * element);
+		}
+	}
+
+	@Benchmark
+	public void mapStream(Inputs inputs, Blackhole blackhole) {
+		inputs.list.stream().map(element -> element * element).forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void selectQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).select(EVEN), blackhole);
+	}
+
+	@Benchmark
+	public void selectLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.list) {
+			if (element % 2 == 0) {
+				blackhole.consume(element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void selectStream(Inputs inputs, Blackhole blackhole) {
+		inputs.list.stream().filter(element -> element % 2 == 0).forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void selectMapQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.linkedList).select(EVEN).map(SQUARE), blackhole);
+	}
+
+	@Benchmark
+	public void selectMapLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.linkedList) {
+			if (element % 2 == 0) {
+				blackhole.consume(element * element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void selectMapStream(Inputs inputs, Blackhole blackhole) {
+		inputs.linkedList.stream().filter(element -> element % 2 == 0).map(element -> element * element).forEach(blackhole::consume);
+	}
+
+	// skip / skipWhile / take
+
+	@Benchmark
+	public void skipQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.linkedList).skip(inputs.size / 2), blackhole);
+	}
+
+	@Benchmark
+	public void skipLoop(Inputs inputs, Blackhole blackhole) {
+		int index = 0;
+		for (Integer element : inputs.linkedList) {
+			if (index++ >= inputs.size / 2) {
+				blackhole.consume(element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void skipStream(Inputs inputs, Blackhole blackhole) {
+		inputs.linkedList.stream().skip(inputs.size / 2).forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void skipWhileQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).skipWhile(EVEN), blackhole);
+	}
+
+	@Benchmark
+	public void skipWhileLoop(Inputs inputs, Blackhole blackhole) {
+		boolean skipping = true;
+		for (Integer element : inputs.list) {
+			if (skipping && element % 2 == 0) {
+				continue;
+			}
+			skipping = false;
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public void skipWhileStream(Inputs inputs, Blackhole blackhole) {
+		// dropWhile is not available before Java 9
+		boolean[] skipping = {true};
+		inputs.list.stream().filter(element -> !(skipping[0] &= element % 2 == 0)).forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void takeQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.linkedList).select(EVEN).take(inputs.size / 4), blackhole);
+	}
+
+	@Benchmark
+	public void takeLoop(Inputs inputs, Blackhole blackhole) {
+		int taken = 0;
+		for (Integer element : inputs.linkedList) {
+			if (taken == inputs.size / 4) {
+				break;
+			}
+			if (element % 2 == 0) {
+				taken++;
+				blackhole.consume(element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void takeStream(Inputs inputs, Blackhole blackhole) {
+		inputs.linkedList.stream().filter(element -> element % 2 == 0).limit(inputs.size / 4).forEach(blackhole::consume);
+	}
+
+	// reverse
+
+	@Benchmark
+	public void reverseQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).reverse(), blackhole);
+	}
+
+	@Benchmark
+	public void reverseLoop(Inputs inputs, Blackhole blackhole) {
+		for (int i = inputs.list.size() - 1; i >= 0; i--) {
+			blackhole.consume(inputs.list.get(i));
+		}
+	}
+
+	@Benchmark
+	public void reverseStream(Inputs inputs, Blackhole blackhole) {
+		List<Integer> list = inputs.list;
+		IntStream.range(0, list.size()).mapToObj(i -> list.get(list.size() - 1 - i)).forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void reverseLinkedListQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.linkedList).reverse(), blackhole);
+	}
+
+	@Benchmark
+	public void reverseLinkedListLoop(Inputs inputs, Blackhole blackhole) {
+		ListIterator<Integer> iterator = inputs.linkedList.listIterator(inputs.linkedList.size());
+		while (iterator.hasPrevious()) {
+			blackhole.consume(iterator.previous());
+		}
+	}
+
+	// zip / zipAll / combine
+
+	@Benchmark
+	public void zipQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).zip(inputs.overlapping), blackhole);
+	}
+
+	@Benchmark
+	public void zipAllQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).zipAll(inputs.other), blackhole);
+	}
+
+	@Benchmark
+	public void zipLoop(Inputs inputs, Blackhole blackhole) {
+		Iterator<Integer> other = inputs.overlapping.iterator();
+		for (Integer element : inputs.list) {
+			if (!other.hasNext()) {
+				break;
+			}
+			blackhole.consume(new Tuple<>(element, other.next()));
+		}
+	}
+
+	@Benchmark
+	public void zipStream(Inputs inputs, Blackhole blackhole) {
+		int size = Math.min(inputs.list.size(), inputs.overlapping.size());
+		IntStream.range(0, size).mapToObj(i -> new Tuple<>(inputs.list.get(i), inputs.overlapping.get(i))).forEach(blackhole::consume);
+	}
+
+	@Benchmark
+	public void combineQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).combine(inputs.other), blackhole);
+	}
+
+	@Benchmark
+	public void combineLoop(Inputs inputs, Blackhole blackhole) {
+		for (Integer element : inputs.list) {
+			for (Integer other : inputs.other) {
+				blackhole.consume(new Tuple<>(element, other));
+			}
+		}
+	}
+
+	@Benchmark
+	public void combineStream(Inputs inputs, Blackhole blackhole) {
+		inputs.list.stream().flatMap(element -> inputs.other.stream().map(other -> new Tuple<>(element, other))).forEach(blackhole::consume);
+	}
+
+	// parallel
+
+	@Benchmark
+	public long parallelQuery(Inputs inputs) {
+		return Query.from(inputs.list).parallel().map(SQUARE).select(EVEN).count();
+	}
+
+	@Benchmark
+	public long parallelStream(Inputs inputs) {
+		return inputs.list.parallelStream().map(element -> element * element).filter(element -> element % 2 == 0).count();
+	}
+}
@@ -0,0 +1,181 @@
+package ch.julien.query.benchmarks;
+
+import static ch.julien.query.benchmarks.Delegates.IDENTITY;
+import static ch.julien.query.benchmarks.Delegates.MODULO_100;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.julien.common.delegate.Func;
+import ch.julien.query.OrderedTraversable;
+import ch.julien.query.core.Query;
+import ch.julien.query.util.CachePolicies;
+
+/**
+ * {@code sortBy} and {@link OrderedTraversable}, against {@link Collections#sort(List, Comparator)} and sorted streams.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderedBenchmark {
+	private static final Comparator<Integer> REVERSED = Comparator.reverseOrder();
+
+	/** Key selector which is expensive enough for the number of invocations to matter. */
+	private static final Func<String, String> TRIMMED = String::trim;
+
+	// sortBy / sortByDescending
+
+	@Benchmark
+	public List<Integer> sortByQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(IDENTITY).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> sortByWithComparatorQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(IDENTITY, REVERSED).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> sortByLoop(Inputs inputs) {
+		List<Integer> result = new ArrayList<>(inputs.list);
+		Collections.sort(result);
+		return result;
+	}
+
+	@Benchmark
+	public List<Integer> sortByStream(Inputs inputs) {
+		return inputs.list.stream().sorted().collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<Integer> sortByDescendingQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortByDescending(IDENTITY).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> sortByDescendingWithComparatorQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortByDescending(IDENTITY, REVERSED).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> sortByDescendingLoop(Inputs inputs) {
+		List<Integer> result = new ArrayList<>(inputs.list);
+		Collections.sort(result, REVERSED);
+		return result;
+	}
+
+	@Benchmark
+	public List<Integer> sortByDescendingStream(Inputs inputs) {
+		return inputs.list.stream().sorted(REVERSED).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<String> sortByStringKeyQuery(Inputs inputs) {
+		return Query.from(inputs.strings).sortBy(TRIMMED).asArrayList();
+	}
+
+	@Benchmark
+	public List<String> sortByStringKeyLoop(Inputs inputs) {
+		List<String> result = new ArrayList<>(inputs.strings);
+		Collections.sort(result, Comparator.comparing(String::trim));
+		return result;
+	}
+
+	@Benchmark
+	public List<String> sortByStringKeyStream(Inputs inputs) {
+		return inputs.strings.stream().sorted(Comparator.comparing(String::trim)).collect(Collectors.toList());
+	}
+
+	// thenBy / thenByDescending
+
+	@Benchmark
+	public List<Integer> thenByQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(MODULO_100).thenBy(IDENTITY).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> thenByWithComparatorQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(MODULO_100).thenBy(IDENTITY, REVERSED).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> thenByDescendingQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(MODULO_100).thenByDescending(IDENTITY).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> thenByDescendingWithComparatorQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(MODULO_100).thenByDescending(IDENTITY, REVERSED).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> thenByLoop(Inputs inputs) {
+		List<Integer> result = new ArrayList<>(inputs.list);
+		Collections.sort(result, Comparator.<Integer, Integer>comparing(element -> element % 100).thenComparing(Comparator.naturalOrder()));
+		return result;
+	}
+
+	@Benchmark
+	public List<Integer> thenByStream(Inputs inputs) {
+		return inputs.list.stream()
+			.sorted(Comparator.<Integer, Integer>comparing(element -> element % 100).thenComparing(Comparator.naturalOrder()))
+			.collect(Collectors.toList());
+	}
+
+	// top / skip(...).take(...) / cached
+
+	@Benchmark
+	public List<Integer> topQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(IDENTITY).top(10).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> topLoop(Inputs inputs) {
+		List<Integer> result = new ArrayList<>(inputs.list);
+		Collections.sort(result);
+		return new ArrayList<>(result.subList(0, Math.min(10, result.size())));
+	}
+
+	@Benchmark
+	public List<Integer> topStream(Inputs inputs) {
+		return inputs.list.stream().sorted().limit(10).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<Integer> pageQuery(Inputs inputs) {
+		return Query.from(inputs.list).sortBy(IDENTITY).skip(inputs.size / 10).take(10).asArrayList();
+	}
+
+	@Benchmark
+	public List<Integer> pageStream(Inputs inputs) {
+		return inputs.list.stream().sorted().skip(inputs.size / 10).limit(10).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public long cachedQuery(Inputs inputs) {
+		OrderedTraversable<Integer, Integer> sorted = Query.from(inputs.list).sortBy(IDENTITY).cached(CachePolicies.never());
+
+		return sorted.first().get() + sorted.last().get() + sorted.count() + sorted.asArrayList().size();
+	}
+
+	@Benchmark
+	public long uncachedQuery(Inputs inputs) {
+		OrderedTraversable<Integer, Integer> sorted = Query.from(inputs.list).sortBy(IDENTITY);
+
+		return sorted.first().get() + sorted.last().get() + sorted.count() + sorted.asArrayList().size();
+	}
+}
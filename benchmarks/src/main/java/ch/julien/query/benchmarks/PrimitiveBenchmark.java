@@ -0,0 +1,292 @@
+package ch.julien.query.benchmarks;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.DoubleFunc;
+import ch.julien.common.delegate.DoublePredicate;
+import ch.julien.common.delegate.IntFunc;
+import ch.julien.common.delegate.IntPredicate;
+import ch.julien.common.delegate.LongFunc;
+import ch.julien.common.delegate.LongPredicate;
+import ch.julien.query.core.Query;
+
+/**
+ * The primitive {@code Query.from(...)} overloads of arrays and buffers, against loops over the array and primitive
+ * streams.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveBenchmark {
+	private static final IntFunc INT_SQUARE = arg -> arg * arg;
+	private static final IntPredicate INT_EVEN = arg -> arg % 2 == 0;
+	private static final LongFunc LONG_SQUARE = arg -> arg * arg;
+	private static final LongPredicate LONG_EVEN = arg -> arg % 2 == 0;
+	private static final DoubleFunc DOUBLE_HALF = arg -> arg / 2;
+	private static final DoublePredicate DOUBLE_POSITIVE = arg -> arg > 0;
+
+	// int[]
+
+	@Benchmark
+	public long intSumQuery(Inputs inputs) {
+		return Query.from(inputs.ints).sum();
+	}
+
+	@Benchmark
+	public long intSumLoop(Inputs inputs) {
+		long sum = 0;
+		for (int value : inputs.ints) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long intSumStream(Inputs inputs) {
+		return Arrays.stream(inputs.ints).asLongStream().sum();
+	}
+
+	@Benchmark
+	public int intMinMaxQuery(Inputs inputs) {
+		return Query.from(inputs.ints).min() + Query.from(inputs.ints).max();
+	}
+
+	@Benchmark
+	public int intMinMaxLoop(Inputs inputs) {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int value : inputs.ints) {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		return min + max;
+	}
+
+	@Benchmark
+	public int intMinMaxStream(Inputs inputs) {
+		return Arrays.stream(inputs.ints).min().getAsInt() + Arrays.stream(inputs.ints).max().getAsInt();
+	}
+
+	@Benchmark
+	public long intSelectMapSumQuery(Inputs inputs) {
+		return Query.from(inputs.ints).select(INT_EVEN).map(INT_SQUARE).sum();
+	}
+
+	@Benchmark
+	public long intSelectMapSumLoop(Inputs inputs) {
+		long sum = 0;
+		for (int value : inputs.ints) {
+			if (value % 2 == 0) {
+				sum += value * value;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long intSelectMapSumStream(Inputs inputs) {
+		return Arrays.stream(inputs.ints).filter(value -> value % 2 == 0).map(value -> value * value).asLongStream().sum();
+	}
+
+	@Benchmark
+	public int[] intDistinctQuery(Inputs inputs) {
+		return Query.from(inputs.ints).distinct().asArray();
+	}
+
+	@Benchmark
+	public int[] intDistinctStream(Inputs inputs) {
+		return Arrays.stream(inputs.ints).distinct().toArray();
+	}
+
+	@Benchmark
+	public int[] intSortQuery(Inputs inputs) {
+		return Query.from(inputs.ints).sort().asArray();
+	}
+
+	@Benchmark
+	public int[] intSortLoop(Inputs inputs) {
+		int[] result = inputs.ints.clone();
+		Arrays.sort(result);
+		return result;
+	}
+
+	@Benchmark
+	public int[] intSortStream(Inputs inputs) {
+		return Arrays.stream(inputs.ints).sorted().toArray();
+	}
+
+	@Benchmark
+	public long intBoxedCountQuery(Inputs inputs) {
+		return Query.from(inputs.ints).select(INT_EVEN).count();
+	}
+
+	@Benchmark
+	public long intBoxedCountStream(Inputs inputs) {
+		return IntStream.of(inputs.ints).filter(value -> value % 2 == 0).count();
+	}
+
+	// long[]
+
+	@Benchmark
+	public long longSumQuery(Inputs inputs) {
+		return Query.from(inputs.longs).select(LONG_EVEN).map(LONG_SQUARE).sum();
+	}
+
+	@Benchmark
+	public long longSumLoop(Inputs inputs) {
+		long sum = 0;
+		for (long value : inputs.longs) {
+			if (value % 2 == 0) {
+				sum += value * value;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long longSumStream(Inputs inputs) {
+		return Arrays.stream(inputs.longs).filter(value -> value % 2 == 0).map(value -> value * value).sum();
+	}
+
+	@Benchmark
+	public long longBufferSumQuery(Inputs inputs) {
+		return Query.from(LongBuffer.wrap(inputs.longs)).select(LONG_EVEN).map(LONG_SQUARE).sum();
+	}
+
+	@Benchmark
+	public long[] longSortQuery(Inputs inputs) {
+		return Query.from(inputs.longs).sort().asArray();
+	}
+
+	@Benchmark
+	public long[] longSortStream(Inputs inputs) {
+		return Arrays.stream(inputs.longs).sorted().toArray();
+	}
+
+	@Benchmark
+	public long longMinMaxQuery(Inputs inputs) {
+		return Query.from(inputs.longs).min() + Query.from(inputs.longs).max();
+	}
+
+	// double[]
+
+	@Benchmark
+	public double doubleSumQuery(Inputs inputs) {
+		return Query.from(inputs.doubles).select(DOUBLE_POSITIVE).map(DOUBLE_HALF).sum();
+	}
+
+	@Benchmark
+	public double doubleSumLoop(Inputs inputs) {
+		double sum = 0;
+		for (double value : inputs.doubles) {
+			if (value > 0) {
+				sum += value / 2;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double doubleSumStream(Inputs inputs) {
+		return Arrays.stream(inputs.doubles).filter(value -> value > 0).map(value -> value / 2).sum();
+	}
+
+	@Benchmark
+	public double[] doubleDistinctQuery(Inputs inputs) {
+		return Query.from(inputs.doubles).distinct().asArray();
+	}
+
+	@Benchmark
+	public double[] doubleDistinctStream(Inputs inputs) {
+		return Arrays.stream(inputs.doubles).distinct().toArray();
+	}
+
+	@Benchmark
+	public double doubleMinMaxQuery(Inputs inputs) {
+		return Query.from(inputs.doubles).min() + Query.from(inputs.doubles).max();
+	}
+
+	// boolean[], byte[], char[], float[], short[]: boxed sources only
+
+	@Benchmark
+	public long booleanCountQuery(Inputs inputs) {
+		return Query.from(inputs.booleans).select(arg -> arg).count();
+	}
+
+	@Benchmark
+	public long booleanCountLoop(Inputs inputs) {
+		long count = 0;
+		for (boolean value : inputs.booleans) {
+			if (value) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public Integer byteAggregateQuery(Inputs inputs) {
+		return Query.from(inputs.bytes).aggregate(0, (Accumulator<Integer, Byte>) (sum, value) -> sum + value);
+	}
+
+	@Benchmark
+	public int byteAggregateLoop(Inputs inputs) {
+		int sum = 0;
+		for (byte value : inputs.bytes) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long charCountQuery(Inputs inputs) {
+		return Query.from(inputs.chars).select(arg -> arg == 'a').count();
+	}
+
+	@Benchmark
+	public long charCountStream(Inputs inputs) {
+		return new String(inputs.chars).chars().filter(value -> value == 'a').count();
+	}
+
+	@Benchmark
+	public Double floatAggregateQuery(Inputs inputs) {
+		return Query.from(inputs.floats).aggregate(0.0, (Accumulator<Double, Float>) (sum, value) -> sum + value);
+	}
+
+	@Benchmark
+	public double floatAggregateLoop(Inputs inputs) {
+		double sum = 0;
+		for (float value : inputs.floats) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public Integer shortAggregateQuery(Inputs inputs) {
+		return Query.from(inputs.shorts).aggregate(0, (Accumulator<Integer, Short>) (sum, value) -> sum + value);
+	}
+
+	@Benchmark
+	public int shortAggregateLoop(Inputs inputs) {
+		int sum = 0;
+		for (short value : inputs.shorts) {
+			sum += value;
+		}
+		return sum;
+	}
+}
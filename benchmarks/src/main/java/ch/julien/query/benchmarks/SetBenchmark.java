@@ -0,0 +1,203 @@
+package ch.julien.query.benchmarks;
+
+import static ch.julien.query.benchmarks.Delegates.EQUALS;
+import static ch.julien.query.benchmarks.Delegates.HASHING_EQUALS;
+import static ch.julien.query.benchmarks.Delegates.IDENTITY;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.julien.query.core.Query;
+
+/**
+ * Set operations of {@link ch.julien.query.Traversable} with the default equality, a plain
+ * {@link ch.julien.common.delegate.EqualityComparator} and a hashing one, and the hash join, against hand-written
+ * loops and streams.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetBenchmark {
+
+	private static void consume(Iterable<?> iterable, Blackhole blackhole) {
+		for (Object element : iterable) {
+			blackhole.consume(element);
+		}
+	}
+
+	// difference
+
+	@Benchmark
+	public void differenceQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).difference(inputs.overlapping), blackhole);
+	}
+
+	@Benchmark
+	public void differenceWithComparatorQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).difference(inputs.overlapping, EQUALS), blackhole);
+	}
+
+	@Benchmark
+	public void differenceWithHashingComparatorQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).difference(inputs.overlapping, HASHING_EQUALS), blackhole);
+	}
+
+	@Benchmark
+	public void differenceLoop(Inputs inputs, Blackhole blackhole) {
+		Set<Integer> other = new HashSet<>(inputs.overlapping);
+		for (Integer element : inputs.list) {
+			if (!other.contains(element)) {
+				blackhole.consume(element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void differenceStream(Inputs inputs, Blackhole blackhole) {
+		Set<Integer> other = new HashSet<>(inputs.overlapping);
+		inputs.list.stream().filter(element -> !other.contains(element)).forEach(blackhole::consume);
+	}
+
+	// distinct
+
+	@Benchmark
+	public void distinctQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).distinct(), blackhole);
+	}
+
+	@Benchmark
+	public void distinctWithComparatorQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).distinct(EQUALS), blackhole);
+	}
+
+	@Benchmark
+	public void distinctWithHashingComparatorQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).distinct(HASHING_EQUALS), blackhole);
+	}
+
+	@Benchmark
+	public void distinctLoop(Inputs inputs, Blackhole blackhole) {
+		Set<Integer> seen = new HashSet<>();
+		for (Integer element : inputs.list) {
+			if (seen.add(element)) {
+				blackhole.consume(element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void distinctStream(Inputs inputs, Blackhole blackhole) {
+		inputs.list.stream().distinct().forEach(blackhole::consume);
+	}
+
+	// intersect
+
+	@Benchmark
+	public void intersectQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).intersect(inputs.overlapping), blackhole);
+	}
+
+	@Benchmark
+	public void intersectWithComparatorQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).intersect(inputs.overlapping, EQUALS), blackhole);
+	}
+
+	@Benchmark
+	public void intersectWithHashingComparatorQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).intersect(inputs.overlapping, HASHING_EQUALS), blackhole);
+	}
+
+	@Benchmark
+	public void intersectLoop(Inputs inputs, Blackhole blackhole) {
+		Set<Integer> other = new HashSet<>(inputs.overlapping);
+		Set<Integer> seen = new HashSet<>();
+		for (Integer element : inputs.list) {
+			if (other.contains(element) && seen.add(element)) {
+				blackhole.consume(element);
+			}
+		}
+	}
+
+	@Benchmark
+	public void intersectStream(Inputs inputs, Blackhole blackhole) {
+		Set<Integer> other = new HashSet<>(inputs.overlapping);
+		inputs.list.stream().distinct().filter(other::contains).forEach(blackhole::consume);
+	}
+
+	// join
+
+	@Benchmark
+	public void joinQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).join(inputs.overlapping, IDENTITY, IDENTITY, (outer, inner) -> outer + inner), blackhole);
+	}
+
+	@Benchmark
+	public void joinLoop(Inputs inputs, Blackhole blackhole) {
+		Map<Integer, List<Integer>> lookup = new HashMap<>();
+		for (Integer element : inputs.overlapping) {
+			lookup.computeIfAbsent(element, key -> new ArrayList<>()).add(element);
+		}
+		for (Integer outer : inputs.list) {
+			List<Integer> matches = lookup.get(outer);
+			if (matches != null) {
+				for (Integer inner : matches) {
+					blackhole.consume(outer + inner);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void joinStream(Inputs inputs, Blackhole blackhole) {
+		Map<Integer, List<Integer>> lookup = inputs.overlapping.stream().collect(Collectors.groupingBy(element -> element));
+		inputs.list.stream()
+			.flatMap(outer -> lookup.getOrDefault(outer, Collections.emptyList()).stream().map(inner -> outer + inner))
+			.forEach(blackhole::consume);
+	}
+
+	// union
+
+	@Benchmark
+	public void unionQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).union(inputs.overlapping), blackhole);
+	}
+
+	@Benchmark
+	public void unionArrayQuery(Inputs inputs, Blackhole blackhole) {
+		consume(Query.from(inputs.list).union(inputs.overlappingArray), blackhole);
+	}
+
+	@Benchmark
+	public void unionLoop(Inputs inputs, Blackhole blackhole) {
+		Set<Integer> union = new LinkedHashSet<>(inputs.list);
+		union.addAll(inputs.overlapping);
+		for (Integer element : union) {
+			blackhole.consume(element);
+		}
+	}
+
+	@Benchmark
+	public void unionStream(Inputs inputs, Blackhole blackhole) {
+		Stream.concat(inputs.list.stream(), inputs.overlapping.stream()).distinct().forEach(blackhole::consume);
+	}
+}
@@ -0,0 +1,467 @@
+package ch.julien.query.benchmarks;
+
+import static ch.julien.query.benchmarks.Delegates.EVEN;
+import static ch.julien.query.benchmarks.Delegates.IDENTITY;
+import static ch.julien.query.benchmarks.Delegates.LONG_SUM;
+import static ch.julien.query.benchmarks.Delegates.LONG_TO_STRING;
+import static ch.julien.query.benchmarks.Delegates.MODULO_100;
+import static ch.julien.query.benchmarks.Delegates.NEGATIVE;
+import static ch.julien.query.benchmarks.Delegates.NOT_NEGATIVE;
+import static ch.julien.query.benchmarks.Delegates.SQUARE;
+import static ch.julien.query.benchmarks.Delegates.SUM;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.julien.common.monad.Option;
+import ch.julien.query.core.Query;
+import ch.julien.query.util.Accumulators;
+import ch.julien.query.util.ArrayUtils;
+
+/**
+ * Terminal operations of {@link ch.julien.query.Traversable}, each against a hand-written loop and a stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminalBenchmark {
+
+	// aggregate
+
+	@Benchmark
+	public Integer aggregateQuery(Inputs inputs) {
+		return Query.from(inputs.list).aggregate(SUM);
+	}
+
+	@Benchmark
+	public Integer aggregateWithInitialQuery(Inputs inputs) {
+		return Query.from(inputs.list).aggregate(0, SUM);
+	}
+
+	@Benchmark
+	public String aggregateWithResultSelectorQuery(Inputs inputs) {
+		return Query.from(inputs.list).aggregate(0L, LONG_SUM, LONG_TO_STRING);
+	}
+
+	@Benchmark
+	public Long aggregateNumericQuery(Inputs inputs) {
+		return Query.from(inputs.list).aggregate(0L, Accumulators.sumLong());
+	}
+
+	@Benchmark
+	public Integer aggregateLoop(Inputs inputs) {
+		int sum = 0;
+		for (Integer element : inputs.list) {
+			sum += element;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public Integer aggregateStream(Inputs inputs) {
+		return inputs.list.stream().reduce(0, Integer::sum);
+	}
+
+	@Benchmark
+	public Long aggregateWhileQuery(Inputs inputs) {
+		return Query.from(inputs.list).map(SQUARE).aggregateWhile(0L, LONG_SUM, sum -> sum < inputs.size).getValue();
+	}
+
+	@Benchmark
+	public Long aggregateWhileLoop(Inputs inputs) {
+		long sum = 0;
+		for (Integer element : inputs.list) {
+			sum += element * element;
+			if (sum >= inputs.size) {
+				break;
+			}
+		}
+		return sum;
+	}
+
+	// all / any
+
+	@Benchmark
+	public boolean allQuery(Inputs inputs) {
+		return Query.from(inputs.list).all(NOT_NEGATIVE);
+	}
+
+	@Benchmark
+	public boolean allLoop(Inputs inputs) {
+		for (Integer element : inputs.list) {
+			if (element < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Benchmark
+	public boolean allStream(Inputs inputs) {
+		return inputs.list.stream().allMatch(element -> element >= 0);
+	}
+
+	@Benchmark
+	public boolean anyQuery(Inputs inputs) {
+		return Query.from(inputs.list).any();
+	}
+
+	@Benchmark
+	public boolean anyLoop(Inputs inputs) {
+		return !inputs.list.isEmpty();
+	}
+
+	@Benchmark
+	public boolean anyStream(Inputs inputs) {
+		return inputs.list.stream().findAny().isPresent();
+	}
+
+	@Benchmark
+	public boolean anyWithPredicateQuery(Inputs inputs) {
+		return Query.from(inputs.list).any(NEGATIVE);
+	}
+
+	@Benchmark
+	public boolean anyWithPredicateLoop(Inputs inputs) {
+		for (Integer element : inputs.list) {
+			if (element < 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Benchmark
+	public boolean anyWithPredicateStream(Inputs inputs) {
+		return inputs.list.stream().anyMatch(element -> element < 0);
+	}
+
+	// asArray
+
+	@Benchmark
+	public Integer[] asArrayQuery(Inputs inputs) {
+		return Query.from(inputs.list).asArray(Integer.class);
+	}
+
+	@Benchmark
+	public Integer[] asArrayWithAllocatorQuery(Inputs inputs) {
+		return Query.from(inputs.list).asArray(ArrayUtils.arrayFactory(Integer.class));
+	}
+
+	@Benchmark
+	public Integer[] asArrayLoop(Inputs inputs) {
+		Integer[] result = new Integer[inputs.list.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = inputs.list.get(i);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Integer[] asArrayStream(Inputs inputs) {
+		return inputs.list.stream().toArray(Integer[]::new);
+	}
+
+	// asArrayList / asCollection / asLinkedList
+
+	@Benchmark
+	public ArrayList<Integer> asArrayListQuery(Inputs inputs) {
+		return Query.from(inputs.linkedList).asArrayList();
+	}
+
+	@Benchmark
+	public ArrayList<Integer> asArrayListLoop(Inputs inputs) {
+		ArrayList<Integer> result = new ArrayList<>();
+		for (Integer element : inputs.linkedList) {
+			result.add(element);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public List<Integer> asArrayListStream(Inputs inputs) {
+		return inputs.linkedList.stream().collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	@Benchmark
+	public ArrayList<Integer> asCollectionQuery(Inputs inputs) {
+		return Query.from(inputs.list).asCollection(new ArrayList<Integer>());
+	}
+
+	@Benchmark
+	public LinkedList<Integer> asLinkedListQuery(Inputs inputs) {
+		return Query.from(inputs.list).asLinkedList();
+	}
+
+	@Benchmark
+	public LinkedList<Integer> asLinkedListLoop(Inputs inputs) {
+		return new LinkedList<>(inputs.list);
+	}
+
+	@Benchmark
+	public LinkedList<Integer> asLinkedListStream(Inputs inputs) {
+		return inputs.list.stream().collect(Collectors.toCollection(LinkedList::new));
+	}
+
+	// asHashMap / asLinkedHashMap
+
+	@Benchmark
+	public HashMap<Integer, Integer> asHashMapQuery(Inputs inputs) {
+		return Query.from(inputs.list).asHashMap(IDENTITY);
+	}
+
+	@Benchmark
+	public HashMap<Integer, Integer> asHashMapWithElementSelectorQuery(Inputs inputs) {
+		return Query.from(inputs.list).asHashMap(IDENTITY, SQUARE);
+	}
+
+	@Benchmark
+	public HashMap<Integer, Integer> asHashMapLoop(Inputs inputs) {
+		HashMap<Integer, Integer> result = new HashMap<>();
+		for (Integer element : inputs.list) {
+			result.put(element, element * element);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public HashMap<Integer, Integer> asHashMapStream(Inputs inputs) {
+		return inputs.list.stream().collect(
+			Collectors.toMap(Function.identity(), element -> element * element, (a, b) -> b, HashMap::new)
+		);
+	}
+
+	@Benchmark
+	public LinkedHashMap<Integer, Integer> asLinkedHashMapQuery(Inputs inputs) {
+		return Query.from(inputs.list).asLinkedHashMap(IDENTITY);
+	}
+
+	@Benchmark
+	public LinkedHashMap<Integer, Integer> asLinkedHashMapWithElementSelectorQuery(Inputs inputs) {
+		return Query.from(inputs.list).asLinkedHashMap(IDENTITY, SQUARE);
+	}
+
+	@Benchmark
+	public LinkedHashMap<Integer, Integer> asLinkedHashMapLoop(Inputs inputs) {
+		LinkedHashMap<Integer, Integer> result = new LinkedHashMap<>();
+		for (Integer element : inputs.list) {
+			result.put(element, element * element);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public LinkedHashMap<Integer, Integer> asLinkedHashMapStream(Inputs inputs) {
+		return inputs.list.stream().collect(
+			Collectors.toMap(Function.identity(), element -> element * element, (a, b) -> b, LinkedHashMap::new)
+		);
+	}
+
+	// asHashSet / asLinkedHashSet
+
+	@Benchmark
+	public HashSet<Integer> asHashSetQuery(Inputs inputs) {
+		return Query.from(inputs.list).asHashSet();
+	}
+
+	@Benchmark
+	public HashSet<Integer> asHashSetWithKeySelectorQuery(Inputs inputs) {
+		return Query.from(inputs.list).asHashSet(MODULO_100);
+	}
+
+	@Benchmark
+	public HashSet<Integer> asHashSetLoop(Inputs inputs) {
+		return new HashSet<>(inputs.list);
+	}
+
+	@Benchmark
+	public HashSet<Integer> asHashSetStream(Inputs inputs) {
+		return inputs.list.stream().collect(Collectors.toCollection(HashSet::new));
+	}
+
+	@Benchmark
+	public LinkedHashSet<Integer> asLinkedHashSetQuery(Inputs inputs) {
+		return Query.from(inputs.list).asLinkedHashSet();
+	}
+
+	@Benchmark
+	public LinkedHashSet<Integer> asLinkedHashSetWithKeySelectorQuery(Inputs inputs) {
+		return Query.from(inputs.list).asLinkedHashSet(MODULO_100);
+	}
+
+	@Benchmark
+	public LinkedHashSet<Integer> asLinkedHashSetLoop(Inputs inputs) {
+		return new LinkedHashSet<>(inputs.list);
+	}
+
+	@Benchmark
+	public LinkedHashSet<Integer> asLinkedHashSetStream(Inputs inputs) {
+		return inputs.list.stream().collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	// asString
+
+	@Benchmark
+	public String asStringQuery(Inputs inputs) {
+		return Query.from(inputs.strings).asString(", ");
+	}
+
+	@Benchmark
+	public String asStringAggregateQuery(Inputs inputs) {
+		return Query.from(inputs.strings).aggregate(Accumulators.joinOn(", "));
+	}
+
+	@Benchmark
+	public String asStringLoop(Inputs inputs) {
+		StringBuilder result = new StringBuilder();
+		for (String element : inputs.strings) {
+			if (result.length() > 0) {
+				result.append(", ");
+			}
+			result.append(element);
+		}
+		return result.toString();
+	}
+
+	@Benchmark
+	public String asStringStream(Inputs inputs) {
+		return inputs.strings.stream().collect(Collectors.joining(", "));
+	}
+
+	// collect
+
+	@Benchmark
+	public int[] collectQuery(Inputs inputs) {
+		return Query.from(inputs.list).collect(ch.julien.query.util.Collectors.toIntArray());
+	}
+
+	@Benchmark
+	public int[] collectLoop(Inputs inputs) {
+		int[] result = new int[inputs.list.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = inputs.list.get(i);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int[] collectStream(Inputs inputs) {
+		return inputs.list.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	// count
+
+	@Benchmark
+	public long countQuery(Inputs inputs) {
+		return Query.from(inputs.array).select(EVEN).count();
+	}
+
+	@Benchmark
+	public long countLoop(Inputs inputs) {
+		long count = 0;
+		for (Integer element : inputs.array) {
+			if (element % 2 == 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long countStream(Inputs inputs) {
+		return inputs.list.stream().filter(element -> element % 2 == 0).count();
+	}
+
+	// first / last / elementAt
+
+	@Benchmark
+	public Option<Integer> firstQuery(Inputs inputs) {
+		return Query.from(inputs.linkedList).first();
+	}
+
+	@Benchmark
+	public Option<Integer> firstWithPredicateQuery(Inputs inputs) {
+		return Query.from(inputs.list).first(NEGATIVE);
+	}
+
+	@Benchmark
+	public Integer firstWithPredicateLoop(Inputs inputs) {
+		for (Integer element : inputs.list) {
+			if (element < 0) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public Optional<Integer> firstWithPredicateStream(Inputs inputs) {
+		return inputs.list.stream().filter(element -> element < 0).findFirst();
+	}
+
+	@Benchmark
+	public Option<Integer> lastQuery(Inputs inputs) {
+		return Query.from(inputs.linkedList).last();
+	}
+
+	@Benchmark
+	public Option<Integer> lastWithPredicateQuery(Inputs inputs) {
+		return Query.from(inputs.list).last(EVEN);
+	}
+
+	@Benchmark
+	public Integer lastWithPredicateLoop(Inputs inputs) {
+		Integer last = null;
+		for (Integer element : inputs.list) {
+			if (element % 2 == 0) {
+				last = element;
+			}
+		}
+		return last;
+	}
+
+	@Benchmark
+	public Optional<Integer> lastWithPredicateStream(Inputs inputs) {
+		return inputs.list.stream().filter(element -> element % 2 == 0).reduce((a, b) -> b);
+	}
+
+	@Benchmark
+	public Option<Integer> elementAtQuery(Inputs inputs) {
+		return Query.from(inputs.list).map(SQUARE).elementAt(inputs.size / 2);
+	}
+
+	@Benchmark
+	public Integer elementAtLoop(Inputs inputs) {
+		int index = 0;
+		for (Integer element : inputs.list) {
+			if (index++ == inputs.size / 2) {
+				return element * element;
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public Optional<Integer> elementAtStream(Inputs inputs) {
+		return inputs.list.stream().map(element -> element * element).skip(inputs.size / 2).findFirst();
+	}
+}
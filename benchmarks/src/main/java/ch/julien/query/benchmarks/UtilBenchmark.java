@@ -0,0 +1,235 @@
+package ch.julien.query.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.julien.common.delegate.Predicate;
+import ch.julien.query.core.Query;
+import ch.julien.query.util.Accumulators;
+import ch.julien.query.util.ExpressionPredicate;
+import ch.julien.query.util.Funcs;
+import ch.julien.query.util.Predicates;
+
+/**
+ * The {@link Predicates}, {@link Funcs}, {@link Accumulators} and {@link ExpressionPredicate} helpers, against the
+ * same logic written inline in a loop and in a stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilBenchmark {
+	private static final Predicate<String> SHORT = arg -> arg.length() < 9;
+	private static final Predicate<String> CONTAINS_1 = arg -> arg.indexOf('1') >= 0;
+	private static final Predicate<String> CONTAINS_2 = arg -> arg.indexOf('2') >= 0;
+
+	private static void consume(Iterable<?> iterable, Blackhole blackhole) {
+		for (Object element : iterable) {
+			blackhole.consume(element);
+		}
+	}
+
+	// Predicates
+
+	@Benchmark
+	public long predicatesNotNullQuery(Inputs inputs) {
+		return Query.from(inputs.strings).select(Predicates.notNull()).count();
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public long predicatesCombinedQuery(Inputs inputs) {
+		return Query.from(inputs.strings).select(
+			Predicates.and(
+				Predicates.notEmptyString(),
+				Predicates.or(Predicates.stringStartingWith(" item-1"), Predicates.stringEndingWith("2 ")),
+				Predicates.not(Predicates.xor(CONTAINS_1, CONTAINS_2))
+			)
+		).count();
+	}
+
+	@Benchmark
+	public long predicatesCombinedLoop(Inputs inputs) {
+		long count = 0;
+		for (String element : inputs.strings) {
+			boolean contains1 = element.indexOf('1') >= 0;
+			boolean contains2 = element.indexOf('2') >= 0;
+
+			if (!element.trim().isEmpty() && (element.startsWith(" item-1") || element.endsWith("2 ")) && contains1 == contains2) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long predicatesCombinedStream(Inputs inputs) {
+		return inputs.strings.stream()
+			.filter(element -> !element.trim().isEmpty())
+			.filter(element -> element.startsWith(" item-1") || element.endsWith("2 "))
+			.filter(element -> (element.indexOf('1') >= 0) == (element.indexOf('2') >= 0))
+			.count();
+	}
+
+	@Benchmark
+	public long predicatesStringMatchingQuery(Inputs inputs) {
+		return Query.from(inputs.strings).select(Predicates.stringMatching(" item-\\d*7 ")).count();
+	}
+
+	@Benchmark
+	public long predicatesStringMatchingStream(Inputs inputs) {
+		return inputs.strings.stream().filter(element -> element.matches(" item-\\d*7 ")).count();
+	}
+
+	@Benchmark
+	public long predicatesElementOfInstanceQuery(Inputs inputs) {
+		return Query.from(inputs.list).select(Predicates.elementOfInstance(Number.class)).count();
+	}
+
+	// ExpressionPredicate
+
+	@Benchmark
+	public long expressionPredicateQuery(Inputs inputs) {
+		return Query.from(inputs.strings).select(Predicates.that(SHORT).and(CONTAINS_1).or(CONTAINS_2)).count();
+	}
+
+	@Benchmark
+	public long expressionPredicateLoop(Inputs inputs) {
+		long count = 0;
+		for (String element : inputs.strings) {
+			if (element.length() < 9 && element.indexOf('1') >= 0 || element.indexOf('2') >= 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long expressionPredicateStream(Inputs inputs) {
+		java.util.function.Predicate<String> isShort = element -> element.length() < 9;
+
+		return inputs.strings.stream()
+			.filter(isShort.and(element -> element.indexOf('1') >= 0).or(element -> element.indexOf('2') >= 0))
+			.count();
+	}
+
+	// Funcs
+
+	@Benchmark
+	public void funcsQuery(Inputs inputs, Blackhole blackhole) {
+		consume(
+			Query.from(inputs.strings)
+				.map(Funcs.trimString())
+				.map(Funcs.replaceAll("item-", ""))
+				.map(Funcs.parseInteger())
+				.map(Funcs.toStringRepresentation()),
+			blackhole
+		);
+	}
+
+	@Benchmark
+	public void funcsLoop(Inputs inputs, Blackhole blackhole) {
+		for (String element : inputs.strings) {
+			blackhole.consume(String.valueOf(Integer.parseInt(element.trim().replaceAll("item-", ""))));
+		}
+	}
+
+	@Benchmark
+	public void funcsStream(Inputs inputs, Blackhole blackhole) {
+		inputs.strings.stream()
+			.map(String::trim)
+			.map(element -> element.replaceAll("item-", ""))
+			.map(Integer::parseInt)
+			.map(String::valueOf)
+			.forEach(blackhole::consume);
+	}
+
+	// Accumulators
+
+	@Benchmark
+	public Integer accumulatorsSumQuery(Inputs inputs) {
+		return Query.from(inputs.list).aggregate(Accumulators.<Integer>sum());
+	}
+
+	@Benchmark
+	public Integer accumulatorsProductQuery(Inputs inputs) {
+		return Query.from(inputs.list).aggregate(Accumulators.<Integer>product());
+	}
+
+	@Benchmark
+	public Integer accumulatorsProductLoop(Inputs inputs) {
+		int product = 1;
+		for (Integer element : inputs.list) {
+			product *= element;
+		}
+		return product;
+	}
+
+	@Benchmark
+	public Integer accumulatorsProductStream(Inputs inputs) {
+		return inputs.list.stream().reduce(1, (a, b) -> a * b);
+	}
+
+	@Benchmark
+	public String accumulatorsJoinOnQuery(Inputs inputs) {
+		return Query.from(inputs.strings).aggregate(Accumulators.joinOn(", "));
+	}
+
+	@Benchmark
+	public String accumulatorsJoinOnLoop(Inputs inputs) {
+		StringBuilder builder = new StringBuilder();
+		for (String element : inputs.strings) {
+			if (builder.length() > 0) {
+				builder.append(", ");
+			}
+			builder.append(element);
+		}
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String accumulatorsJoinOnStream(Inputs inputs) {
+		return inputs.strings.stream().collect(Collectors.joining(", "));
+	}
+
+	@Benchmark
+	public Iterable<Integer> accumulatorsUnionQuery(Inputs inputs) {
+		return Query.from(inputs.chunks).aggregate(Accumulators.<Integer>union());
+	}
+
+	@Benchmark
+	public Iterable<Integer> accumulatorsIntersectionQuery(Inputs inputs) {
+		return Query.from(inputs.chunks).aggregate(Accumulators.<Integer>intersection());
+	}
+
+	@Benchmark
+	public Set<Integer> accumulatorsUnionLoop(Inputs inputs) {
+		Set<Integer> union = new LinkedHashSet<>();
+		for (Iterable<Integer> chunk : inputs.chunks) {
+			for (Integer element : chunk) {
+				union.add(element);
+			}
+		}
+		return union;
+	}
+
+	@Benchmark
+	public Set<Integer> accumulatorsUnionStream(Inputs inputs) {
+		return inputs.chunks.stream()
+			.flatMap(chunk -> StreamSupport.stream(chunk.spliterator(), false))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+}
@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Action} of two arguments.
+ */
+public interface Action2<T1, T2> {
+	void invoke(T1 first, T2 second);
+}
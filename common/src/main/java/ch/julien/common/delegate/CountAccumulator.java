@@ -0,0 +1,12 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Accumulator} counting elements of any type, whatever their value. Sequences recognize it and count in a
+ * {@code long} instead of boxing the count for every element.
+ */
+public final class CountAccumulator implements Accumulator<Long, Object> {
+	@Override
+	public Long accumulate(Long accumulate, Object source) {
+		return accumulate + 1;
+	}
+}
@@ -0,0 +1,14 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Accumulator} of {@code double} values. Sequences recognize it and keep the accumulated value as a {@code double}
+ * instead of boxing it for every element.
+ */
+public abstract class DoubleAccumulator implements Accumulator<Double, Number> {
+	public abstract double accumulate(double accumulate, double value);
+
+	@Override
+	public final Double accumulate(Double accumulate, Number source) {
+		return accumulate(accumulate.doubleValue(), source.doubleValue());
+	}
+}
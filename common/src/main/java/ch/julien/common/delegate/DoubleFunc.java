@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Func} from {@code double} to {@code double} which does not box its argument nor its result.
+ */
+public interface DoubleFunc {
+	double invoke(double arg);
+}
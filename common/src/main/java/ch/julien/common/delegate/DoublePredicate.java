@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Predicate} on {@code double} which does not box its argument.
+ */
+public interface DoublePredicate {
+	boolean invoke(double arg);
+}
@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Func} without arguments.
+ */
+public interface Func0<TResult> {
+	TResult invoke();
+}
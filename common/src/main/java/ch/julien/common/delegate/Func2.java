@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Func} of two arguments.
+ */
+public interface Func2<T1, T2, TResult> {
+	TResult invoke(T1 first, T2 second);
+}
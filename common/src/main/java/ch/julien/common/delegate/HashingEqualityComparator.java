@@ -0,0 +1,10 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link EqualityComparator} which is also able to hash the elements it compares.
+ * <p/>
+ * Elements which are equal according to {@link #equals(Object, Object)} must return the same hash code.
+ */
+public interface HashingEqualityComparator<T> extends EqualityComparator<T> {
+	int hashCode(T value);
+}
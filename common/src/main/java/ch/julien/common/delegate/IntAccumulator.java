@@ -0,0 +1,14 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Accumulator} of {@code int} values. Sequences recognize it and keep the accumulated value as a {@code int}
+ * instead of boxing it for every element.
+ */
+public abstract class IntAccumulator implements Accumulator<Integer, Number> {
+	public abstract int accumulate(int accumulate, int value);
+
+	@Override
+	public final Integer accumulate(Integer accumulate, Number source) {
+		return accumulate(accumulate.intValue(), source.intValue());
+	}
+}
@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Func} from {@code int} to {@code int} which does not box its argument nor its result.
+ */
+public interface IntFunc {
+	int invoke(int arg);
+}
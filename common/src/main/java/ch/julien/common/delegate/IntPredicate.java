@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Predicate} on {@code int} which does not box its argument.
+ */
+public interface IntPredicate {
+	boolean invoke(int arg);
+}
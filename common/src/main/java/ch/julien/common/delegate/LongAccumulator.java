@@ -0,0 +1,14 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Accumulator} of {@code long} values. Sequences recognize it and keep the accumulated value as a {@code long}
+ * instead of boxing it for every element.
+ */
+public abstract class LongAccumulator implements Accumulator<Long, Number> {
+	public abstract long accumulate(long accumulate, long value);
+
+	@Override
+	public final Long accumulate(Long accumulate, Number source) {
+		return accumulate(accumulate.longValue(), source.longValue());
+	}
+}
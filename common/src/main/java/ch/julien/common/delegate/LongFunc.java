@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Func} from {@code long} to {@code long} which does not box its argument nor its result.
+ */
+public interface LongFunc {
+	long invoke(long arg);
+}
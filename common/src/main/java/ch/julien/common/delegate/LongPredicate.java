@@ -0,0 +1,8 @@
+package ch.julien.common.delegate;
+
+/**
+ * {@link Predicate} on {@code long} which does not box its argument.
+ */
+public interface LongPredicate {
+	boolean invoke(long arg);
+}
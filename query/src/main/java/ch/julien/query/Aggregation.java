@@ -0,0 +1,15 @@
+package ch.julien.query;
+
+/**
+ * Result of {@link Traversable#aggregateWhile(Object, ch.julien.common.delegate.Accumulator, ch.julien.common.delegate.Predicate)}.
+ */
+public interface Aggregation<TAccumulate> {
+	/** @return The accumulate after the last element which was accumulated. */
+	TAccumulate getValue();
+
+	/**
+	 * @return {@code true} if the predicate stopped the aggregation, {@code false} if all elements were accumulated.
+	 * The aggregation may have been stopped by the last element, whether further elements followed is not checked.
+	 */
+	boolean isStopped();
+}
@@ -0,0 +1,15 @@
+package ch.julien.query;
+
+/**
+ * Decides whether the sort order an {@link OrderedTraversable} cached is still valid.
+ *
+ * @see OrderedTraversable#cached(CachePolicy)
+ * @see ch.julien.query.util.CachePolicies
+ */
+public interface CachePolicy {
+	/**
+	 * @param createdAt The {@link System#nanoTime()} at which the cached order started to read its source.
+	 * @return {@code true} if the order must be computed again.
+	 */
+	boolean isStale(long createdAt);
+}
@@ -0,0 +1,25 @@
+package ch.julien.query;
+
+/**
+ * Mutable reduction for {@link Traversable#collect(Collector)} and {@link ParallelTraversable#collect(Collector)}:
+ * the elements are accumulated into a container in place, containers of different partitions are combined and
+ * the final container is turned into the result. See {@link ch.julien.query.util.Collectors} for common ones.
+ */
+public interface Collector<T, TContainer, TResult> {
+	/**
+	 * @param sizeHint The number of elements which will be accumulated if it is known, {@code -1} otherwise.
+	 * @return A new empty container.
+	 */
+	TContainer supply(long sizeHint);
+
+	void accumulate(TContainer container, T element);
+
+	/**
+	 * Combines the containers of two adjacent partitions, the left one being the first argument.
+	 *
+	 * @return The combined container, usually {@code left} after adding {@code right} to it.
+	 */
+	TContainer combine(TContainer left, TContainer right);
+
+	TResult finish(TContainer container);
+}
@@ -0,0 +1,32 @@
+package ch.julien.query;
+
+import java.util.NoSuchElementException;
+
+import ch.julien.common.delegate.DoubleFunc;
+import ch.julien.common.delegate.DoublePredicate;
+
+/**
+ * {@link Traversable} of {@code double} values whose primitive operations do not box the elements.
+ */
+public interface DoubleTraversable extends Traversable<Double> {
+	DoubleTraversable map(DoubleFunc selector);
+
+	DoubleTraversable select(DoublePredicate predicate);
+
+	double sum();
+
+	/** @throws NoSuchElementException if there are no elements */
+	double average();
+
+	/** @throws NoSuchElementException if there are no elements */
+	double min();
+	/** @throws NoSuchElementException if there are no elements */
+	double max();
+
+	DoubleTraversable distinct();
+
+	/** @return The elements in ascending order. */
+	DoubleTraversable sort();
+
+	double[] asArray();
+}
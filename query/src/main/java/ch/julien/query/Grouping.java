@@ -0,0 +1,8 @@
+package ch.julien.query;
+
+/**
+ * The elements of a sequence which share the same key, see {@link Traversable#groupBy(ch.julien.common.delegate.Func)}.
+ */
+public interface Grouping<TKey, T> extends Traversable<T> {
+	TKey getKey();
+}
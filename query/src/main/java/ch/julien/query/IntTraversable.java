@@ -0,0 +1,33 @@
+package ch.julien.query;
+
+import java.util.NoSuchElementException;
+
+import ch.julien.common.delegate.IntFunc;
+import ch.julien.common.delegate.IntPredicate;
+
+/**
+ * {@link Traversable} of {@code int} values whose primitive operations do not box the elements.
+ */
+public interface IntTraversable extends Traversable<Integer> {
+	IntTraversable map(IntFunc selector);
+
+	IntTraversable select(IntPredicate predicate);
+
+	/** @return The sum of all elements, widened to {@code long} so it can not overflow. */
+	long sum();
+
+	/** @throws NoSuchElementException if there are no elements */
+	double average();
+
+	/** @throws NoSuchElementException if there are no elements */
+	int min();
+	/** @throws NoSuchElementException if there are no elements */
+	int max();
+
+	IntTraversable distinct();
+
+	/** @return The elements in ascending order. */
+	IntTraversable sort();
+
+	int[] asArray();
+}
@@ -0,0 +1,32 @@
+package ch.julien.query;
+
+import java.util.NoSuchElementException;
+
+import ch.julien.common.delegate.LongFunc;
+import ch.julien.common.delegate.LongPredicate;
+
+/**
+ * {@link Traversable} of {@code long} values whose primitive operations do not box the elements.
+ */
+public interface LongTraversable extends Traversable<Long> {
+	LongTraversable map(LongFunc selector);
+
+	LongTraversable select(LongPredicate predicate);
+
+	long sum();
+
+	/** @throws NoSuchElementException if there are no elements */
+	double average();
+
+	/** @throws NoSuchElementException if there are no elements */
+	long min();
+	/** @throws NoSuchElementException if there are no elements */
+	long max();
+
+	LongTraversable distinct();
+
+	/** @return The elements in ascending order. */
+	LongTraversable sort();
+
+	long[] asArray();
+}
@@ -4,10 +4,32 @@ import ch.julien.common.delegate.Func;
 
 import java.util.Comparator;
 
+/**
+ * A sequence sorted by one or more keys.
+ * <p/>
+ * {@code distinct}, and {@code intersect} and {@code difference} with another ordered sequence sorted by the same
+ * key selectors, comparators and directions, merge the sorted elements instead of hashing them: only the current
+ * runs of equal keys are buffered. Merging requires equal elements to have equal keys. {@code join} and
+ * {@code leftJoin} merge if each side is sorted by nothing but its own join key selector, with the same comparator
+ * and direction; keys comparing equal only match if they are equal, as in a hash join. The matches of a merged join
+ * are in the order of the inner sequence.
+ */
 public interface OrderedTraversable<T, TKey> extends Traversable<T> {
 	OrderedTraversable<T, TKey> thenBy(Func<? super T, TKey> keySelector);
 	OrderedTraversable<T, TKey> thenBy(Func<? super T, TKey> keySelector, Comparator<TKey> comparator);
 
 	OrderedTraversable<T, TKey> thenByDescending(Func<? super T, TKey> keySelector);
 	OrderedTraversable<T, TKey> thenByDescending(Func<? super T, TKey> keySelector, Comparator<TKey> comparator);
+
+	/**
+	 * Returns the same order, which is computed once and then reused by further iterations until the
+	 * {@code policy} considers it stale. Orders derived with {@code thenBy} are cached the same way.
+	 */
+	OrderedTraversable<T, TKey> cached(CachePolicy policy);
+
+	/**
+	 * Returns the first {@code count} elements in sort order. Only these elements are selected instead of
+	 * sorting the whole sequence, the same applies to {@code take} and {@code skip(...).take(...)}.
+	 */
+	Traversable<T> top(long count);
 }
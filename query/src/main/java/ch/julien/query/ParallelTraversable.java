@@ -0,0 +1,57 @@
+package ch.julien.query;
+
+import java.util.ArrayList;
+
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Action2;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.common.delegate.Predicate;
+
+/**
+ * {@link Traversable} counterpart which splits its source and runs the operations on a fork-join pool.
+ * <p/>
+ * The delegates passed to a parallel traversable are invoked concurrently and must therefore be thread-safe.
+ * {@link #asArrayList()} and {@link #sequential()} keep the order of the source, all other operations don't
+ * guarantee any order in which the delegates are invoked.
+ */
+public interface ParallelTraversable<T> {
+	/**
+	 * @param initial Initial value of each partition, it must therefore be neutral for {@code combiner}.
+	 * @param combiner Combines the accumulates of two adjacent partitions, the left one being the first argument.
+	 */
+	<TAccumulate> TAccumulate aggregate(TAccumulate initial, Accumulator<TAccumulate, ? super T> accumulator,
+		Accumulator<TAccumulate, TAccumulate> combiner);
+
+	boolean all(Predicate<? super T> predicate);
+
+	boolean any();
+	boolean any(Predicate<? super T> predicate);
+
+	ArrayList<T> asArrayList();
+
+	/**
+	 * Every partition accumulates into its own container from {@code supplier}, {@code combiner} then adds the
+	 * container of the right partition to the one of the left partition.
+	 */
+	<TContainer> TContainer collect(Func0<TContainer> supplier, Action2<TContainer, ? super T> accumulator, Action2<TContainer, TContainer> combiner);
+
+	/**
+	 * Like {@link #collect(Func0, Action2, Action2)}, the containers are not presized.
+	 */
+	<TContainer, TResult> TResult collect(Collector<? super T, TContainer, TResult> collector);
+
+	long count();
+
+	ParallelTraversable<T> each(Action<? super T> action);
+
+	<TResult> ParallelTraversable<TResult> map(Func<? super T, TResult> resultSelector);
+
+	ParallelTraversable<T> select(Predicate<? super T> predicate);
+
+	/**
+	 * @return A sequential {@link Traversable} of the results in the order of the source.
+	 */
+	Traversable<T> sequential();
+}
@@ -0,0 +1,14 @@
+package ch.julien.query;
+
+/**
+ * Receives the statistics of the stages of a sequence created by {@link Traversable#instrument(PipelineListener)}.
+ */
+public interface PipelineListener {
+	/**
+	 * Called once per stage whenever a traversal of the stage has ended, either because its elements were exhausted
+	 * or because the operation consuming them stopped early. Stages are reported from the source downwards.
+	 * <p/>
+	 * An iteration which is abandoned by the caller before its end is not reported.
+	 */
+	void traversed(StageStatistics statistics);
+}
@@ -0,0 +1,32 @@
+package ch.julien.query;
+
+/**
+ * Counts and timings of a single traversal of a stage of an instrumented sequence.
+ *
+ * @see PipelineListener
+ */
+public interface StageStatistics {
+	/** @return The position of the stage, {@code 0} being the source. */
+	int index();
+
+	/** @return The name of the operation which created the stage, {@code source} for the source. */
+	String name();
+
+	/** @return The number of elements the stage read from the previous one. */
+	long elementsIn();
+
+	/** @return The number of elements the stage passed on. */
+	long elementsOut();
+
+	/** @return {@link #elementsOut()} relative to {@link #elementsIn()}, {@code NaN} if no element was read. */
+	double selectivity();
+
+	/** @return The nanoseconds spent in the predicates, selectors and actions passed to the operation. */
+	long delegateNanos();
+
+	/**
+	 * @return The number of elements the stage had to hold to produce its output, like the elements to sort or
+	 * to reverse and the distinct elements seen, {@code 0} for stages which stream their elements.
+	 */
+	long buffered();
+}
@@ -1,5 +1,6 @@
 package ch.julien.query;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -8,12 +9,17 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import ch.julien.common.datastructure.Tuple;
 import ch.julien.common.delegate.Accumulator;
 import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Action2;
 import ch.julien.common.delegate.EqualityComparator;
 import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.common.delegate.Func2;
 import ch.julien.common.delegate.Predicate;
 import ch.julien.common.monad.Option;
 import ch.julien.query.util.ArrayUtils;
@@ -23,11 +29,27 @@ public interface Traversable<T> extends Iterable<T> {
 	<TAccumulate> TAccumulate aggregate(TAccumulate initial, Accumulator<TAccumulate, ? super T> accumulator);
 	<TAccumulate, TResult> TResult aggregate(TAccumulate initial, Accumulator<TAccumulate, ? super T> accumulator, Func<TAccumulate, TResult> resultSelector);
 
+	/**
+	 * Like {@link #aggregate(Object, Accumulator)}, but stops as soon as {@code predicate} does not hold for the
+	 * accumulate anymore, which is checked for {@code initial} and after every element. No further element is
+	 * requested from the source then, so operations like {@code map} and {@code flat} don't compute any more elements.
+	 */
+	<TAccumulate> Aggregation<TAccumulate> aggregateWhile(TAccumulate initial, Accumulator<TAccumulate, ? super T> accumulator, Predicate<? super TAccumulate> predicate);
+
 	boolean all(Predicate<? super T> predicate);
 
 	boolean any();
 	boolean any(Predicate<? super T> predicate);
 
+	/**
+	 * Appends {@code prefix}, the elements separated by {@code separator}, and {@code suffix} to {@code appendable},
+	 * for example a {@link java.io.Writer}, without building the whole string first. Elements which are no
+	 * {@link CharSequence} are appended as {@link String#valueOf(Object)}.
+	 *
+	 * @throws IOException if {@code appendable} throws, the elements appended so far are not undone
+	 */
+	<TAppendable extends Appendable> TAppendable appendTo(TAppendable appendable, CharSequence separator, CharSequence prefix, CharSequence suffix) throws IOException;
+
 	T[] asArray(Class<T> clazz);
 	/** @see ArrayUtils#arrayFactory(Class) */
 	T[] asArray(Func<Integer, T[]> allocator);
@@ -50,9 +72,51 @@ public interface Traversable<T> extends Iterable<T> {
 	LinkedHashSet<T> asLinkedHashSet();
 	<TKey> LinkedHashSet<TKey> asLinkedHashSet(Func<? super T, TKey> keySelector);
 
+	/**
+	 * Joins the elements separated by {@code separator} in linear time, into a single buffer which is presized
+	 * exactly if the elements are character sequences in a list accessed by index.
+	 *
+	 * @see #appendTo(Appendable, CharSequence, CharSequence, CharSequence)
+	 */
+	String asString(CharSequence separator);
+	String asString(CharSequence separator, CharSequence prefix, CharSequence suffix);
+
+	/**
+	 * Splits the elements into consecutive batches of {@code size} elements, the last one may be smaller. Batches of
+	 * sources which can be accessed by index are read-only views of the source, other sources are copied into a new
+	 * list per batch.
+	 */
+	Traversable<List<T>> batch(int size);
+
+	/**
+	 * Like {@link #batch(int)}, but if the batches are copied, an iteration copies all of them into the same list,
+	 * which is only valid until the next batch is requested. Meant for bulk calls which consume every batch right away.
+	 */
+	Traversable<List<T>> batchReusingBuffer(int size);
+
+	/**
+	 * Mutable reduction: accumulates the elements in place into the single container {@code supplier} returns,
+	 * instead of returning a new accumulate per element like {@code aggregate}. {@code combiner} is only called by
+	 * {@link ParallelTraversable#collect(Func0, Action2, Action2)}, it adds the second container to the first.
+	 */
+	<TContainer> TContainer collect(Func0<TContainer> supplier, Action2<TContainer, ? super T> accumulator, Action2<TContainer, TContainer> combiner);
+
+	/**
+	 * Mutable reduction by {@code collector}, whose container is presized with the number of elements if it is
+	 * known without traversing them.
+	 *
+	 * @see ch.julien.query.util.Collectors
+	 */
+	<TContainer, TResult> TResult collect(Collector<? super T, TContainer, TResult> collector);
+
 	Traversable<T> concat(Iterable<? extends T> appendant);
 	Traversable<T> concat(T[] appendant);
 
+	/**
+	 * Returns the number of elements. If the size is known without a traversal, e.g. for collections, arrays and
+	 * their {@code map}, {@code skip}, {@code take} and {@code zip}, no element is computed: selectors passed to
+	 * {@code map} are not invoked.
+	 */
 	long count();
 
 	Traversable<T> difference(Iterable<? extends T> other);
@@ -62,19 +126,92 @@ public interface Traversable<T> extends Iterable<T> {
 
 	Traversable<T> each(Action<? super T> action);
 
+	/**
+	 * Describes how the elements are computed, one line per stage from the source to this sequence: the kind and
+	 * size of the source, and for every operation the algorithm or fast path it chose and what it buffers. Further
+	 * input sequences, like the one of {@code concat}, are described indented below their operation. Meant for
+	 * reviews and logs, the format is not stable.
+	 */
+	String explain();
+
 	Option<T> first();
 	Option<T> first(Predicate<? super T> predicate);
 
+	/**
+	 * Returns the element at {@code index} (zero based), or none if there are not as many elements. Sources which can
+	 * be accessed by index, also after {@code map}, {@code skip}, {@code take} and {@code zip}, are not traversed.
+	 */
+	Option<T> elementAt(long index);
+
 	<TResult> Traversable<TResult> flat(Func<? super T, Iterable<TResult>> selector);
 
+	/**
+	 * Groups the elements by the key {@code keySelector} returns for them, in one hashing pass over the sequence.
+	 * The groups are ordered by the first occurrence of their key and keep the order of their elements.
+	 */
+	<TKey> Traversable<Grouping<TKey, T>> groupBy(Func<? super T, TKey> keySelector);
+
+	/**
+	 * Folds the elements of every group into one value per key, starting from {@code initial}, and returns the
+	 * keys with their values, ordered by the first occurrence of the key. The elements are not retained, only one
+	 * value per distinct key is kept while the sequence is traversed.
+	 */
+	<TKey, TAccumulate> Traversable<Tuple<TKey, TAccumulate>> groupBy(Func<? super T, TKey> keySelector, TAccumulate initial, Accumulator<TAccumulate, ? super T> accumulator);
+
+	/**
+	 * Like {@link #join}, but returns one result per element of this sequence, built from the element and the
+	 * sequence of its matching {@code inner} elements, which is empty if there are none.
+	 */
+	<TInner, TKey, TResult> Traversable<TResult> groupJoin(Iterable<TInner> inner, Func<? super T, TKey> outerKeySelector, Func<? super TInner, TKey> innerKeySelector, Func2<? super T, Traversable<TInner>, TResult> resultSelector);
+
+	/**
+	 * Returns the same elements and reports the statistics of every operation chained to the result to
+	 * {@code listener}, one stage per operation. Meant for diagnosis: instrumented stages are not fused and time
+	 * every delegate invocation, sequences which are not instrumented are not affected. The statistics are not
+	 * reliable if the same instrumented sequence is traversed concurrently.
+	 */
+	Traversable<T> instrument(PipelineListener listener);
+
 	Traversable<T> intersect(Iterable<? extends T> other);
 	Traversable<T> intersect(Iterable<? extends T> other, EqualityComparator<T> equalityComparator);
 
+	/**
+	 * Hash join: returns a result for every pair of an element of this sequence and an element of {@code inner}
+	 * with equal keys, in the order of this sequence. {@code inner} is hashed by key once per iteration, this
+	 * sequence is streamed. {@code null} keys do not match.
+	 */
+	<TInner, TKey, TResult> Traversable<TResult> join(Iterable<TInner> inner, Func<? super T, TKey> outerKeySelector, Func<? super TInner, TKey> innerKeySelector, Func2<? super T, ? super TInner, TResult> resultSelector);
+
 	Option<T> last();
 	Option<T> last(Predicate<? super T> predicate);
 
+	/**
+	 * Like {@link #join}, but elements of this sequence without a matching {@code inner} element are kept as well,
+	 * joined with {@code null}.
+	 */
+	<TInner, TKey, TResult> Traversable<TResult> leftJoin(Iterable<TInner> inner, Func<? super T, TKey> outerKeySelector, Func<? super TInner, TKey> innerKeySelector, Func2<? super T, ? super TInner, TResult> resultSelector);
+
+	/**
+	 * Projects each element. If the source can be accessed by index, so can the result: {@code resultSelector} is
+	 * then invoked on every access to an element and only for the elements accessed, e.g. once by {@code last()}
+	 * and never by {@code count()}.
+	 */
 	<TResult> Traversable<TResult> map(Func<? super T, TResult> resultSelector);
 
+	/**
+	 * Returns the same elements, computing them at most once. The first traversal buffers the elements as it
+	 * reaches them; later and concurrent traversals replay the buffer and continue where the furthest one stopped,
+	 * so a partially traversed sequence is never recomputed. The buffer is kept as long as the result is reachable.
+	 */
+	Traversable<T> memoize();
+
+	/**
+	 * @return A {@link ParallelTraversable} over the same elements, running on a shared fork-join pool.
+	 * Arrays and {@link java.util.RandomAccess} lists are split in place, other sources are buffered first.
+	 */
+	ParallelTraversable<T> parallel();
+	ParallelTraversable<T> parallel(ForkJoinPool pool);
+
 	Traversable<T> reverse();
 
 	Traversable<T> select(Predicate<? super T> predicate);
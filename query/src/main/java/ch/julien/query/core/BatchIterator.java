@@ -0,0 +1,51 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Collects the elements of the parent into consecutive lists of {@code size} elements, the last one may be smaller.
+ * With {@code reuse}, every batch is collected into the same list.
+ */
+class BatchIterator<TSource> extends AbstractIterator<TSource, List<TSource>> {
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	private final int size;
+	private final boolean reuse;
+
+	private ArrayList<TSource> buffer;
+
+	public BatchIterator(Iterator<? extends TSource> parent, int size, boolean reuse) {
+		super(parent);
+
+		this.size = size;
+		this.reuse = reuse;
+	}
+
+	@Override
+	protected List<TSource> computeNext() {
+		if (!this.parent.hasNext()) {
+			return computationEnd();
+		}
+
+		ArrayList<TSource> batch = this.buffer;
+
+		if (batch != null) {
+			batch.clear();
+		} else {
+			// do not reserve a large batch up front, the sequence may be a lot shorter
+			batch = new ArrayList<TSource>(Math.min(this.size, MAX_INITIAL_CAPACITY));
+
+			if (this.reuse) {
+				this.buffer = batch;
+			}
+		}
+
+		do {
+			batch.add(this.parent.next());
+		} while (batch.size() < this.size && this.parent.hasNext());
+
+		return batch;
+	}
+}
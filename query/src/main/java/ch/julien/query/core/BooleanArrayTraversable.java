@@ -2,50 +2,31 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 
 class BooleanArrayTraversable extends TraversableImpl<Boolean> {
-	private static class BooleanArrayIterator implements Iterator<Boolean> {
+	private static class BooleanArrayList extends AbstractList<Boolean> implements RandomAccess {
 		private final boolean[] array;
-		private int index = 0;
 
-		public BooleanArrayIterator(boolean[] array) {
+		public BooleanArrayList(boolean[] array) {
 			Check.notNull(array, "array");
 
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Boolean get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Boolean next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
 	public BooleanArrayTraversable(final boolean[] source) {
-		super(
-			new TraversableImpl<Boolean>(
-				new Iterable<Boolean>() {
-					@Override
-					public Iterator<Boolean> iterator() {
-						return new BooleanArrayIterator(source);
-					}
-				}
-			)
-		);
+		super(new BooleanArrayList(source), Plan.source(source));
 	}
 }
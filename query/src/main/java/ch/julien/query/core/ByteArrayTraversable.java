@@ -2,50 +2,31 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 
 class ByteArrayTraversable extends TraversableImpl<Byte> {
-	private static class ByteArrayIterator implements Iterator<Byte> {
+	private static class ByteArrayList extends AbstractList<Byte> implements RandomAccess {
 		private final byte[] array;
-		private int index = 0;
 
-		public ByteArrayIterator(byte[] array) {
+		public ByteArrayList(byte[] array) {
 			Check.notNull(array, "array");
 
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Byte get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Byte next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
 	public ByteArrayTraversable(final byte[] source) {
-		super(
-			new TraversableImpl<Byte>(
-				new Iterable<Byte>() {
-					@Override
-					public Iterator<Byte> iterator() {
-						return new ByteArrayIterator(source);
-					}
-				}
-			)
-		);
+		super(new ByteArrayList(source), Plan.source(source));
 	}
 }
@@ -0,0 +1,40 @@
+package ch.julien.query.core;
+
+import ch.julien.common.contract.Check;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+class ByteBufferTraversable extends TraversableImpl<Byte> {
+	private static class ByteBufferList extends AbstractList<Byte> implements RandomAccess {
+		private final ByteBuffer buffer;
+
+		public ByteBufferList(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public Byte get(int index) {
+			return this.buffer.get(index);
+		}
+
+		@Override
+		public int size() {
+			return this.buffer.limit();
+		}
+	}
+
+	/**
+	 * Reads the bytes between the position and the limit of {@code source} when they are needed.
+	 */
+	public ByteBufferTraversable(ByteBuffer source) {
+		super(new ByteBufferList(slice(source)), Plan.source(source));
+	}
+
+	private static ByteBuffer slice(ByteBuffer source) {
+		Check.notNull(source, "source");
+
+		return source.slice();
+	}
+}
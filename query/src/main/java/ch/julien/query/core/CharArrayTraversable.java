@@ -2,50 +2,31 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 
 class CharArrayTraversable extends TraversableImpl<Character> {
-	private static class CharArrayIterator implements Iterator<Character> {
+	private static class CharArrayList extends AbstractList<Character> implements RandomAccess {
 		private final char[] array;
-		private int index = 0;
 
-		public CharArrayIterator(char[] array) {
+		public CharArrayList(char[] array) {
 			Check.notNull(array, "array");
 
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Character get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Character next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
 	public CharArrayTraversable(final char[] source) {
-		super(
-			new TraversableImpl<Character>(
-				new Iterable<Character>() {
-					@Override
-					public Iterator<Character> iterator() {
-						return new CharArrayIterator(source);
-					}
-				}
-			)
-		);
+		super(new CharArrayList(source), Plan.source(source));
 	}
 }
@@ -0,0 +1,16 @@
+package ch.julien.query.core;
+
+import ch.julien.common.delegate.HashingEqualityComparator;
+
+class DefaultEqualityComparator<T> implements HashingEqualityComparator<T> {
+	@Override
+	public boolean equals(T first, T second) {
+		return first == second
+			|| !(first == null || second == null) && first.equals(second);
+	}
+
+	@Override
+	public int hashCode(T value) {
+		return value != null ? value.hashCode() : 0;
+	}
+}
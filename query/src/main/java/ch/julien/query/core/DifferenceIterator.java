@@ -4,15 +4,37 @@ import ch.julien.common.contract.Check;
 import ch.julien.common.delegate.EqualityComparator;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Yields the elements of the parent which are not contained in the loose iterator.
+ * <p/>
+ * By default the loose elements are hashed on the first call and the parent is probed lazily. If
+ * {@code hashParent} is set (because the parent is known to be the smaller side) the parent is
+ * buffered and hashed instead, the loose elements are streamed against it and the surviving parent
+ * elements are replayed from the buffer.
+ */
 class DifferenceIterator<TSource> extends AbstractIterator<TSource, TSource> {
 	private final Iterator<? extends TSource> looseIterator;
-	private final EqualityComparator<TSource> comparator;
-	private final List<TSource> processed = new ArrayList<TSource>();
+	private final EqualityComparator<? super TSource> comparator;
+	private final boolean hashParent;
+
+	private Set<Object> excluded;
+
+	private List<TSource> buffer;
+	private List<Object> bufferKeys;
+	private int bufferIndex = 0;
+
+	public DifferenceIterator(Iterator<? extends TSource> parent, Iterator<? extends TSource> looseIterator, EqualityComparator<? super TSource> comparator) {
+		this(parent, looseIterator, comparator, false);
+	}
+
+	public DifferenceIterator(Iterator<? extends TSource> parent, Iterator<? extends TSource> looseIterator, EqualityComparator<? super TSource> comparator,
+		boolean hashParent) {
 
-	public DifferenceIterator(Iterator<? extends TSource> parent, Iterator<? extends TSource> looseIterator, EqualityComparator<TSource> comparator) {
 		super(parent);
 
 		Check.notNull(looseIterator, "looseIterator");
@@ -20,35 +42,66 @@ class DifferenceIterator<TSource> extends AbstractIterator<TSource, TSource> {
 
 		this.looseIterator = looseIterator;
 		this.comparator = comparator;
+		this.hashParent = hashParent;
 	}
 
 	@Override
 	protected TSource computeNext() {
+		if (this.hashParent) {
+			return computeNextFromBuffer();
+		}
+
+		if (this.excluded == null) {
+			this.excluded = new HashSet<Object>();
+
+			while (this.looseIterator.hasNext()) {
+				this.excluded.add(Key.of(this.looseIterator.next(), this.comparator));
+			}
+		}
+
 		while (this.parent.hasNext()) {
-			boolean elementEquals = false;
 			TSource parentItem = this.parent.next();
 
-			for (TSource looseItem : this.processed) {
-				if (this.comparator.equals(looseItem, parentItem)) {
-					elementEquals = true;
-					break;
-				}
+			if (!this.excluded.contains(Key.of(parentItem, this.comparator))) {
+				return parentItem;
 			}
+		}
+
+		return computationEnd();
+	}
+
+	private TSource computeNextFromBuffer() {
+		if (this.buffer == null) {
+			this.buffer = new ArrayList<TSource>();
+			this.bufferKeys = new ArrayList<Object>();
+
+			Set<Object> candidates = new HashSet<Object>();
 
-			if (!elementEquals) {
-				while (this.looseIterator.hasNext()) {
-					TSource looseItem = this.looseIterator.next();
+			while (this.parent.hasNext()) {
+				TSource parentItem = this.parent.next();
+				Object key = Key.of(parentItem, this.comparator);
 
-					this.processed.add(looseItem);
+				this.buffer.add(parentItem);
+				this.bufferKeys.add(key);
+				candidates.add(key);
+			}
+
+			this.excluded = new HashSet<Object>();
+
+			while (this.excluded.size() < candidates.size() && this.looseIterator.hasNext()) {
+				Object key = Key.of(this.looseIterator.next(), this.comparator);
 
-					if (this.comparator.equals(looseItem, parentItem)) {
-						elementEquals = true;
-					}
+				if (candidates.contains(key)) {
+					this.excluded.add(key);
 				}
 			}
+		}
 
-			if (!elementEquals) {
-				return parentItem;
+		while (this.bufferIndex < this.buffer.size()) {
+			int index = this.bufferIndex++;
+
+			if (!this.excluded.contains(this.bufferKeys.get(index))) {
+				return this.buffer.get(index);
 			}
 		}
 
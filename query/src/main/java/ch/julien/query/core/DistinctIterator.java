@@ -8,7 +8,7 @@ import java.util.Set;
 
 class DistinctIterator<TSource> extends AbstractIterator<TSource, TSource> {
 	private final EqualityComparator<? super TSource> equalityComparator;
-	private final Set<Key<TSource>> set = new HashSet<Key<TSource>>();
+	private final Set<Object> set = new HashSet<Object>();
 
 	public DistinctIterator(Iterator<? extends TSource> parent, EqualityComparator<? super TSource> equalityComparator) {
 		super(parent);
@@ -19,14 +19,11 @@ class DistinctIterator<TSource> extends AbstractIterator<TSource, TSource> {
 	@Override
 	protected TSource computeNext() {
 		while (parent.hasNext()) {
-			Key<TSource> key = new Key<TSource>(parent.next(), this.equalityComparator);
+			TSource element = parent.next();
 
-			if (this.set.contains(key)) {
-				continue;
+			if (this.set.add(Key.of(element, this.equalityComparator))) {
+				return element;
 			}
-
-			this.set.add(key);
-			return key.value;
 		}
 
 		return computationEnd();
@@ -2,50 +2,59 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
 
-class DoubleArrayTraversable extends TraversableImpl<Double> {
-	private static class DoubleArrayIterator implements Iterator<Double> {
+class DoubleArrayTraversable extends DoubleTraversableImpl {
+	private static class DoubleArrayList extends AbstractList<Double> implements RandomAccess {
 		private final double[] array;
-		private int index = 0;
-
-		public DoubleArrayIterator(double[] array) {
-			Check.notNull(array, "array");
 
+		public DoubleArrayList(double[] array) {
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Double get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Double next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
+	private final double[] array;
+
 	public DoubleArrayTraversable(final double[] source) {
 		super(
-			new TraversableImpl<Double>(
-				new Iterable<Double>() {
-					@Override
-					public Iterator<Double> iterator() {
-						return new DoubleArrayIterator(source);
-					}
+			new DoubleIterable() {
+				@Override
+				public DoubleIterator doubleIterator() {
+					return new DoubleArrayIterator(source, source.length);
 				}
-			)
+			},
+			Plan.source(source)
 		);
+
+		Check.notNull(source, "source");
+
+		this.array = source;
+	}
+
+	@Override
+	protected List<Double> randomAccess() {
+		return new DoubleArrayList(this.array);
+	}
+
+	@Override
+	public long count() {
+		return this.array.length;
+	}
+
+	@Override
+	public double[] asArray() {
+		return this.array.clone();
 	}
 }
@@ -0,0 +1,125 @@
+package ch.julien.query.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import ch.julien.common.contract.Check;
+
+/**
+ * {@code double} values read in place from one or more buffers, like the regions of a mapped file. All segments but
+ * the last one have the same length, so an element is found by index without traversing the segments.
+ */
+class DoubleBufferTraversable extends DoubleTraversableImpl {
+	private static class DoubleBufferList extends AbstractList<Double> implements RandomAccess {
+		private final DoubleBuffer[] segments;
+		private final int segmentSize;
+		private final int size;
+
+		public DoubleBufferList(DoubleBuffer[] segments, int size) {
+			this.segments = segments;
+			this.segmentSize = segments.length > 0 ? segments[0].limit() : 0;
+			this.size = size;
+		}
+
+		@Override
+		public Double get(int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+
+			return this.segments[index / this.segmentSize].get(index % this.segmentSize);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	private static class DoubleBufferIterator implements DoubleIterator {
+		private final DoubleBuffer[] segments;
+		private int segment = 0;
+		private int index = 0;
+
+		public DoubleBufferIterator(DoubleBuffer[] segments) {
+			this.segments = segments;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.segment < this.segments.length && this.index >= this.segments[this.segment].limit()) {
+				this.segment++;
+				this.index = 0;
+			}
+
+			return this.segment < this.segments.length;
+		}
+
+		@Override
+		public double nextDouble() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return this.segments[this.segment].get(this.index++);
+		}
+	}
+
+	private final DoubleBuffer[] segments;
+	private final long size;
+
+	private DoubleBufferTraversable(final DoubleBuffer[] segments, long size, Plan plan) {
+		super(
+			new DoubleIterable() {
+				@Override
+				public DoubleIterator doubleIterator() {
+					return new DoubleBufferIterator(segments);
+				}
+			},
+			plan
+		);
+
+		this.segments = segments;
+		this.size = size;
+	}
+
+	/**
+	 * @return The elements between the position and the limit of {@code buffer}, which are read when they are needed.
+	 */
+	static DoubleBufferTraversable of(DoubleBuffer buffer) {
+		Check.notNull(buffer, "buffer");
+
+		return new DoubleBufferTraversable(new DoubleBuffer[] {buffer.slice()}, buffer.remaining(), Plan.source(buffer));
+	}
+
+	static DoubleBufferTraversable mapped(FileChannel channel, ByteOrder order, int maxRegionSize) throws IOException {
+		ByteBuffer[] regions = MappedFile.map(channel, 8, order, maxRegionSize);
+		DoubleBuffer[] segments = new DoubleBuffer[regions.length];
+
+		for (int i = 0; i < regions.length; i++) {
+			segments[i] = regions[i].asDoubleBuffer();
+		}
+
+		long size = MappedFile.elements(regions, 8);
+
+		return new DoubleBufferTraversable(segments, size, Plan.source(channel, MappedFile.describe(regions, size)));
+	}
+
+	@Override
+	protected List<Double> randomAccess() {
+		// a list cannot be indexed beyond this
+		return this.size <= Integer.MAX_VALUE ? new DoubleBufferList(this.segments, (int) this.size) : null;
+	}
+
+	@Override
+	public long count() {
+		return this.size;
+	}
+}
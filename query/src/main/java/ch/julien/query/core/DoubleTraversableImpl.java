@@ -0,0 +1,304 @@
+package ch.julien.query.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.DoubleFunc;
+import ch.julien.common.delegate.DoublePredicate;
+import ch.julien.query.DoubleTraversable;
+
+class DoubleTraversableImpl extends TraversableImpl<Double> implements DoubleTraversable {
+	static class DoubleArrayIterator implements DoubleIterator {
+		private final double[] array;
+		private final int length;
+		private int index = 0;
+
+		public DoubleArrayIterator(double[] array, int length) {
+			Check.notNull(array, "array");
+
+			this.array = array;
+			this.length = length;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.index < this.length;
+		}
+
+		@Override
+		public double nextDouble() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return this.array[this.index++];
+		}
+	}
+
+	private static class DoubleMapIterator implements DoubleIterator {
+		private final DoubleIterator parent;
+		private final DoubleFunc selector;
+
+		public DoubleMapIterator(DoubleIterator parent, DoubleFunc selector) {
+			this.parent = parent;
+			this.selector = selector;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.parent.hasNext();
+		}
+
+		@Override
+		public double nextDouble() {
+			return this.selector.invoke(this.parent.nextDouble());
+		}
+	}
+
+	private static class DoubleSelectIterator implements DoubleIterator {
+		private final DoubleIterator parent;
+		private final DoublePredicate predicate;
+
+		private boolean ready = false;
+		private double next;
+
+		public DoubleSelectIterator(DoubleIterator parent, DoublePredicate predicate) {
+			this.parent = parent;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!this.ready && this.parent.hasNext()) {
+				double element = this.parent.nextDouble();
+
+				if (this.predicate.invoke(element)) {
+					this.next = element;
+					this.ready = true;
+				}
+			}
+
+			return this.ready;
+		}
+
+		@Override
+		public double nextDouble() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			this.ready = false;
+			return this.next;
+		}
+	}
+
+	protected final DoubleIterable doubles;
+
+	public DoubleTraversableImpl(DoubleIterable doubles) {
+		this(doubles, Plan.source(doubles));
+	}
+
+	DoubleTraversableImpl(final DoubleIterable doubles, Plan plan) {
+		super(
+			new Iterable<Double>() {
+				@Override
+				public Iterator<Double> iterator() {
+					final DoubleIterator iterator = doubles.doubleIterator();
+
+					return new Iterator<Double>() {
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Double next() {
+							return iterator.nextDouble();
+						}
+
+						@Override
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+			},
+			plan
+		);
+
+		Check.notNull(doubles, "doubles");
+
+		this.doubles = doubles;
+	}
+
+	@Override
+	public DoubleTraversable map(final DoubleFunc selector) {
+		Check.notNull(selector, "selector");
+
+		return new DoubleTraversableImpl(
+			new DoubleIterable() {
+				@Override
+				public DoubleIterator doubleIterator() {
+					return new DoubleMapIterator(doubles.doubleIterator(), selector);
+				}
+			},
+			this.plan.then("map", "unboxed")
+		);
+	}
+
+	@Override
+	public DoubleTraversable select(final DoublePredicate predicate) {
+		Check.notNull(predicate, "predicate");
+
+		return new DoubleTraversableImpl(
+			new DoubleIterable() {
+				@Override
+				public DoubleIterator doubleIterator() {
+					return new DoubleSelectIterator(doubles.doubleIterator(), predicate);
+				}
+			},
+			this.plan.then("select", "unboxed")
+		);
+	}
+
+	@Override
+	public long count() {
+		long count = 0;
+
+		for (DoubleIterator iterator = this.doubles.doubleIterator(); iterator.hasNext(); iterator.nextDouble()) {
+			count++;
+		}
+
+		return count;
+	}
+
+	@Override
+	void aggregate(NumericAggregate aggregate) {
+		for (DoubleIterator iterator = this.doubles.doubleIterator(); iterator.hasNext(); ) {
+			aggregate.acceptDouble(iterator.nextDouble());
+		}
+	}
+
+	@Override
+	public double average() {
+		double sum = 0;
+		long count = 0;
+
+		for (DoubleIterator iterator = this.doubles.doubleIterator(); iterator.hasNext(); count++) {
+			sum += iterator.nextDouble();
+		}
+
+		if (count == 0) {
+			throw new NoSuchElementException();
+		}
+
+		return (double) sum / count;
+	}
+
+	@Override
+	public double sum() {
+		double sum = 0;
+
+		for (DoubleIterator iterator = this.doubles.doubleIterator(); iterator.hasNext(); ) {
+			sum += iterator.nextDouble();
+		}
+
+		return sum;
+	}
+
+	@Override
+	public double min() {
+		DoubleIterator iterator = this.doubles.doubleIterator();
+		double min = iterator.nextDouble();
+
+		while (iterator.hasNext()) {
+			min = Math.min(min, iterator.nextDouble());
+		}
+
+		return min;
+	}
+
+	@Override
+	public double max() {
+		DoubleIterator iterator = this.doubles.doubleIterator();
+		double max = iterator.nextDouble();
+
+		while (iterator.hasNext()) {
+			max = Math.max(max, iterator.nextDouble());
+		}
+
+		return max;
+	}
+
+	@Override
+	public DoubleTraversable distinct() {
+		return new DoubleTraversableImpl(
+			new DoubleIterable() {
+				@Override
+				public DoubleIterator doubleIterator() {
+					double[] values = asArray();
+
+					// the sorted, unique values serve as a set; the flags remember what was already yielded
+					double[] set = values.clone();
+					Arrays.sort(set);
+
+					int size = 0;
+					for (int i = 0; i < set.length; i++) {
+						if (size == 0 || Double.compare(set[size - 1], set[i]) != 0) {
+							set[size++] = set[i];
+						}
+					}
+
+					boolean[] yielded = new boolean[size];
+					int length = 0;
+
+					for (double value : values) {
+						int index = Arrays.binarySearch(set, 0, size, value);
+
+						if (!yielded[index]) {
+							yielded[index] = true;
+							values[length++] = value;
+						}
+					}
+
+					return new DoubleArrayIterator(values, length);
+				}
+			},
+			this.plan.then("distinct", "finds the distinct elements in a sorted copy, buffers all elements")
+		);
+	}
+
+	@Override
+	public DoubleTraversable sort() {
+		return new DoubleTraversableImpl(
+			new DoubleIterable() {
+				@Override
+				public DoubleIterator doubleIterator() {
+					double[] values = asArray();
+					Arrays.sort(values);
+
+					return new DoubleArrayIterator(values, values.length);
+				}
+			},
+			this.plan.then("sort", "buffers all elements")
+		);
+	}
+
+	@Override
+	public double[] asArray() {
+		double[] array = new double[16];
+		int length = 0;
+
+		for (DoubleIterator iterator = this.doubles.doubleIterator(); iterator.hasNext(); ) {
+			if (length == array.length) {
+				array = Arrays.copyOf(array, length * 2);
+			}
+
+			array[length++] = iterator.nextDouble();
+		}
+
+		return Arrays.copyOf(array, length);
+	}
+}
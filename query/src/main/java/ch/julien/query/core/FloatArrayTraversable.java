@@ -2,50 +2,31 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 
 class FloatArrayTraversable extends TraversableImpl<Float> {
-	private static class FloatArrayIterator implements Iterator<Float> {
+	private static class FloatArrayList extends AbstractList<Float> implements RandomAccess {
 		private final float[] array;
-		private int index = 0;
 
-		public FloatArrayIterator(float[] array) {
+		public FloatArrayList(float[] array) {
 			Check.notNull(array, "array");
 
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Float get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Float next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
 	public FloatArrayTraversable(final float[] source) {
-		super(
-			new TraversableImpl<Float>(
-				new Iterable<Float>() {
-					@Override
-					public Iterator<Float> iterator() {
-						return new FloatArrayIterator(source);
-					}
-				}
-			)
-		);
+		super(new FloatArrayList(source), Plan.source(source));
 	}
 }
@@ -0,0 +1,121 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import ch.julien.common.contract.Check;
+
+/**
+ * Runs a chain of {@link Stage}s over its source in a single loop.
+ * <p/>
+ * Appending a stage to a fused iterable does not wrap it but creates a new fused iterable with the same
+ * source and one more stage, so a pipeline of select/map/each/skip/take costs one iterator no matter how
+ * many operations it consists of.
+ */
+class FusedIterable<TSource, TResult> implements Iterable<TResult> {
+	private final Iterable<? extends TSource> source;
+	private final Stage[] stages;
+
+	@SuppressWarnings("unchecked")
+	static <TResult> FusedIterable<?, TResult> of(Iterable<?> source, Stage stage) {
+		if (source instanceof FusedIterable) {
+			FusedIterable<Object, ?> fused = (FusedIterable<Object, ?>) source;
+
+			Stage[] stages = Arrays.copyOf(fused.stages, fused.stages.length + 1);
+			stages[fused.stages.length] = stage;
+
+			return new FusedIterable<Object, TResult>(fused.source, stages);
+		}
+
+		return new FusedIterable<Object, TResult>((Iterable<Object>) source, new Stage[] {stage});
+	}
+
+	private FusedIterable(Iterable<? extends TSource> source, Stage[] stages) {
+		Check.notNull(source, "source");
+
+		this.source = source;
+		this.stages = stages;
+	}
+
+	@Override
+	public Iterator<TResult> iterator() {
+		return new FusedIterator<TSource, TResult>(this.source.iterator(), this.stages);
+	}
+
+	/**
+	 * Pushes the source through a chain of sinks, one per stage.
+	 *
+	 * @see TraversableImpl#push(Iterable, Sink)
+	 */
+	@SuppressWarnings("unchecked")
+	void push(Sink<? super TResult> sink) {
+		Sink<Object> chain = (Sink<Object>) sink;
+
+		for (int i = this.stages.length - 1; i >= 0; i--) {
+			Stage stage = this.stages[i].start();
+
+			if (stage.isExhausted()) {
+				return;
+			}
+
+			chain = stage.wrap(chain);
+		}
+
+		TraversableImpl.push(this.source, chain);
+	}
+
+	private static class FusedIterator<TSource, TResult> extends AbstractIterator<TSource, TResult> {
+		private final Stage[] stages;
+		private final Stage[] limits;
+
+		public FusedIterator(Iterator<? extends TSource> parent, Stage[] stages) {
+			super(parent);
+
+			this.stages = new Stage[stages.length];
+			List<Stage> limits = new ArrayList<Stage>();
+
+			for (int i = 0; i < stages.length; i++) {
+				this.stages[i] = stages[i].start();
+
+				if (this.stages[i].isLimiting()) {
+					limits.add(this.stages[i]);
+				}
+			}
+
+			this.limits = limits.toArray(new Stage[limits.size()]);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected TResult computeNext() {
+			next:
+			while (!isExhausted() && this.parent.hasNext()) {
+				Object element = this.parent.next();
+
+				for (Stage stage : this.stages) {
+					element = stage.apply(element);
+
+					if (element == Stage.SKIP) {
+						continue next;
+					}
+				}
+
+				return (TResult) element;
+			}
+
+			return computationEnd();
+		}
+
+		private boolean isExhausted() {
+			for (Stage limit : this.limits) {
+				if (limit.isExhausted()) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package ch.julien.query.core;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func2;
+import ch.julien.query.Traversable;
+
+/**
+ * Hash group join: every outer element is joined with the sequence of its matching inner elements, which is empty
+ * if there are none. The {@link Lookup} of the inner elements is built when the iteration starts.
+ */
+class GroupJoinIterator<TOuter, TInner, TKey, TResult> extends AbstractIterator<TOuter, TResult> {
+	private final Iterable<? extends TInner> inner;
+	private final Func<? super TOuter, TKey> outerKeySelector;
+	private final Func<? super TInner, TKey> innerKeySelector;
+	private final Func2<? super TOuter, Traversable<TInner>, TResult> resultSelector;
+
+	private Lookup<TKey, TInner> lookup;
+
+	public GroupJoinIterator(Iterator<? extends TOuter> parent, Iterable<? extends TInner> inner,
+		Func<? super TOuter, TKey> outerKeySelector, Func<? super TInner, TKey> innerKeySelector,
+		Func2<? super TOuter, Traversable<TInner>, TResult> resultSelector) {
+
+		super(parent);
+
+		Check.notNull(inner, "inner");
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		this.inner = inner;
+		this.outerKeySelector = outerKeySelector;
+		this.innerKeySelector = innerKeySelector;
+		this.resultSelector = resultSelector;
+	}
+
+	@Override
+	protected TResult computeNext() {
+		if (this.lookup == null) {
+			this.lookup = Lookup.of(this.inner, this.innerKeySelector);
+		}
+
+		if (!this.parent.hasNext()) {
+			return computationEnd();
+		}
+
+		TOuter outer = this.parent.next();
+		List<TInner> matches = this.lookup.get(this.outerKeySelector.invoke(outer));
+
+		return this.resultSelector.invoke(outer,
+			new TraversableImpl<TInner>(matches != null ? Collections.unmodifiableList(matches) : Collections.<TInner>emptyList()));
+	}
+}
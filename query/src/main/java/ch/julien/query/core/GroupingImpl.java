@@ -0,0 +1,20 @@
+package ch.julien.query.core;
+
+import java.util.List;
+
+import ch.julien.query.Grouping;
+
+class GroupingImpl<TKey, TSource> extends TraversableImpl<TSource> implements Grouping<TKey, TSource> {
+	private final TKey key;
+
+	GroupingImpl(TKey key, List<TSource> elements) {
+		super(elements);
+
+		this.key = key;
+	}
+
+	@Override
+	public TKey getKey() {
+		return this.key;
+	}
+}
@@ -0,0 +1,719 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.datastructure.Tuple;
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.EqualityComparator;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func2;
+import ch.julien.common.delegate.Predicate;
+import ch.julien.query.CachePolicy;
+import ch.julien.query.Grouping;
+import ch.julien.query.OrderedTraversable;
+import ch.julien.query.PipelineListener;
+import ch.julien.query.StageStatistics;
+import ch.julien.query.Traversable;
+
+/**
+ * Sequence whose operations report their statistics to a {@link PipelineListener}.
+ * <p/>
+ * Every operation runs the uninstrumented implementation on top of this sequence and wraps the result into a
+ * {@link ProbedIterable}, which counts the elements passing it. The delegates are wrapped to measure the time
+ * spent in them.
+ */
+class InstrumentedTraversableImpl<TSource> extends TraversableImpl<TSource> {
+	private static final long UNBOUNDED = Long.MAX_VALUE;
+
+	protected final Probe probe;
+
+	static <T> InstrumentedTraversableImpl<T> create(Iterable<T> source, PipelineListener listener) {
+		Check.notNull(listener, "listener");
+
+		return new InstrumentedTraversableImpl<T>(source, new Probe(listener),
+			Plan.source(source).then("instrument", "counts and times the following stages"));
+	}
+
+	InstrumentedTraversableImpl(Iterable<TSource> result, Probe probe, Plan plan) {
+		super(new ProbedIterable<TSource>(result, probe), plan);
+
+		this.probe = probe;
+	}
+
+	private static <T> Traversable<T> attach(Traversable<T> result, Probe probe) {
+		return new InstrumentedTraversableImpl<T>(result, probe, Plan.source(result));
+	}
+
+	@Override
+	public Traversable<List<TSource>> batch(int size) {
+		return attach(super.batch(size), this.probe.next("batch", Buffering.NONE));
+	}
+
+	@Override
+	public Traversable<List<TSource>> batchReusingBuffer(int size) {
+		return attach(super.batchReusingBuffer(size), this.probe.next("batch", Buffering.NONE));
+	}
+
+	@Override
+	public Traversable<TSource> concat(Iterable<? extends TSource> appendant) {
+		return attach(super.concat(appendant), this.probe.next("concat", Buffering.NONE));
+	}
+
+	@Override
+	public Traversable<TSource> difference(Iterable<? extends TSource> other, EqualityComparator<TSource> equalityComparator) {
+		return attach(super.difference(other, equalityComparator), this.probe.next("difference", Buffering.NONE));
+	}
+
+	@Override
+	public Traversable<TSource> distinct(EqualityComparator<? super TSource> equalityComparator) {
+		return attach(super.distinct(equalityComparator), this.probe.next("distinct", Buffering.OUTPUT));
+	}
+
+	@Override
+	public Traversable<TSource> each(Action<? super TSource> action) {
+		Check.notNull(action, "action");
+
+		Probe probe = this.probe.next("each", Buffering.NONE);
+
+		return attach(super.each(probe.timed(action)), probe);
+	}
+
+	@Override
+	public <TResult> Traversable<TResult> flat(Func<? super TSource, Iterable<TResult>> selector) {
+		Check.notNull(selector, "selector");
+
+		Probe probe = this.probe.next("flat", Buffering.NONE);
+
+		return attach(super.flat(probe.timed(selector)), probe);
+	}
+
+	@Override
+	public <TKey> Traversable<Grouping<TKey, TSource>> groupBy(Func<? super TSource, TKey> keySelector) {
+		Check.notNull(keySelector, "keySelector");
+
+		Probe probe = this.probe.next("groupBy", Buffering.INPUT);
+
+		return attach(super.groupBy(probe.timed(keySelector)), probe);
+	}
+
+	@Override
+	public <TKey, TAccumulate> Traversable<Tuple<TKey, TAccumulate>> groupBy(Func<? super TSource, TKey> keySelector, TAccumulate initial, Accumulator<TAccumulate, ? super TSource> accumulator) {
+		Check.notNull(keySelector, "keySelector");
+		Check.notNull(accumulator, "accumulator");
+
+		Probe probe = this.probe.next("groupBy", Buffering.OUTPUT);
+
+		return attach(super.groupBy(probe.timed(keySelector), initial, probe.timed(accumulator)), probe);
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Traversable<TResult> groupJoin(Iterable<TInner> inner, Func<? super TSource, TKey> outerKeySelector,
+		Func<? super TInner, TKey> innerKeySelector, Func2<? super TSource, Traversable<TInner>, TResult> resultSelector) {
+
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		Probe probe = this.probe.next("groupJoin", Buffering.NONE);
+
+		return attach(super.groupJoin(inner, probe.timed(outerKeySelector), probe.timed(innerKeySelector), probe.timed(resultSelector)), probe);
+	}
+
+	@Override
+	public Traversable<TSource> intersect(Iterable<? extends TSource> other, EqualityComparator<TSource> equalityComparator) {
+		return attach(super.intersect(other, equalityComparator), this.probe.next("intersect", Buffering.INPUT));
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Traversable<TResult> join(Iterable<TInner> inner, Func<? super TSource, TKey> outerKeySelector,
+		Func<? super TInner, TKey> innerKeySelector, Func2<? super TSource, ? super TInner, TResult> resultSelector) {
+
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		Probe probe = this.probe.next("join", Buffering.NONE);
+
+		return attach(super.join(inner, probe.timed(outerKeySelector), probe.timed(innerKeySelector), probe.timed(resultSelector)), probe);
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Traversable<TResult> leftJoin(Iterable<TInner> inner, Func<? super TSource, TKey> outerKeySelector,
+		Func<? super TInner, TKey> innerKeySelector, Func2<? super TSource, ? super TInner, TResult> resultSelector) {
+
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		Probe probe = this.probe.next("leftJoin", Buffering.NONE);
+
+		return attach(super.leftJoin(inner, probe.timed(outerKeySelector), probe.timed(innerKeySelector), probe.timed(resultSelector)), probe);
+	}
+
+	@Override
+	public <TResult> Traversable<TResult> map(Func<? super TSource, TResult> resultSelector) {
+		Check.notNull(resultSelector, "resultSelector");
+
+		Probe probe = this.probe.next("map", Buffering.NONE);
+
+		return attach(super.map(probe.timed(resultSelector)), probe);
+	}
+
+	@Override
+	public Traversable<TSource> memoize() {
+		return attach(super.memoize(), this.probe.next("memoize", Buffering.OUTPUT));
+	}
+
+	@Override
+	public Traversable<TSource> reverse() {
+		return attach(super.reverse(), this.probe.next("reverse", isReversible(this.source) ? Buffering.NONE : Buffering.INPUT));
+	}
+
+	@Override
+	public Traversable<TSource> select(Predicate<? super TSource> predicate) {
+		Check.notNull(predicate, "predicate");
+
+		Probe probe = this.probe.next("select", Buffering.NONE);
+
+		return attach(super.select(probe.timed(predicate)), probe);
+	}
+
+	@Override
+	public Traversable<TSource> skip(long count) {
+		return attach(super.skip(count), this.probe.next("skip", Buffering.NONE));
+	}
+
+	@Override
+	public Traversable<TSource> skipWhile(Predicate<? super TSource> predicate) {
+		Check.notNull(predicate, "predicate");
+
+		Probe probe = this.probe.next("skipWhile", Buffering.NONE);
+
+		return attach(super.skipWhile(probe.timed(predicate)), probe);
+	}
+
+	@Override
+	public Traversable<TSource> take(long count) {
+		return attach(super.take(count), this.probe.next("take", Buffering.NONE));
+	}
+
+	@Override
+	public <TKey> OrderedTraversable<TSource, TKey> sortBy(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator) {
+		Check.notNull(keySelector, "keySelector");
+
+		Probe probe = this.probe.next("sortBy", Buffering.INPUT);
+
+		return new Ordered<TSource, TKey>(super.sortBy(probe.timed(keySelector), comparator), probe);
+	}
+
+	@Override
+	public <TKey> OrderedTraversable<TSource, TKey> sortByDescending(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator) {
+		Check.notNull(keySelector, "keySelector");
+
+		Probe probe = this.probe.next("sortByDescending", Buffering.INPUT);
+
+		return new Ordered<TSource, TKey>(super.sortByDescending(probe.timed(keySelector), comparator), probe);
+	}
+
+	@Override
+	public <TSourceOther> Traversable<Tuple<TSource, TSourceOther>> zip(Iterable<TSourceOther> other) {
+		return attach(super.zip(other), this.probe.next("zip", Buffering.NONE));
+	}
+
+	@Override
+	public <TSourceOther> Traversable<Tuple<TSource, TSourceOther>> zipAll(Iterable<TSourceOther> other) {
+		return attach(super.zipAll(other), this.probe.next("zipAll", Buffering.NONE));
+	}
+
+	@Override
+	public <TSourceOther> Traversable<Tuple<TSource, TSourceOther>> combine(Iterable<TSourceOther> other) {
+		return attach(super.combine(other), this.probe.next("combine", Buffering.NONE));
+	}
+
+	/**
+	 * Instrumented {@link OrderedTraversable}. {@code thenBy} and {@code cached} refine the same sort stage and
+	 * {@code skip}/{@code take} narrow it to a {@link Window}, so the sort still selects only the elements needed.
+	 */
+	private static class Ordered<TSource, TKey> extends InstrumentedTraversableImpl<TSource> implements OrderedTraversable<TSource, TKey> {
+		private final OrderedTraversable<TSource, TKey> ordered;
+
+		public Ordered(OrderedTraversable<TSource, TKey> ordered, Probe probe) {
+			super(ordered, probe, Plan.source(ordered));
+
+			this.ordered = ordered;
+		}
+
+		@Override
+		public OrderedTraversable<TSource, TKey> thenBy(Func<? super TSource, TKey> keySelector) {
+			return thenBy(keySelector, null);
+		}
+
+		@Override
+		public OrderedTraversable<TSource, TKey> thenBy(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator) {
+			Check.notNull(keySelector, "keySelector");
+
+			return new Ordered<TSource, TKey>(this.ordered.thenBy(this.probe.timed(keySelector), comparator), this.probe);
+		}
+
+		@Override
+		public OrderedTraversable<TSource, TKey> thenByDescending(Func<? super TSource, TKey> keySelector) {
+			return thenByDescending(keySelector, null);
+		}
+
+		@Override
+		public OrderedTraversable<TSource, TKey> thenByDescending(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator) {
+			Check.notNull(keySelector, "keySelector");
+
+			return new Ordered<TSource, TKey>(this.ordered.thenByDescending(this.probe.timed(keySelector), comparator), this.probe);
+		}
+
+		@Override
+		public OrderedTraversable<TSource, TKey> cached(CachePolicy policy) {
+			return new Ordered<TSource, TKey>(this.ordered.cached(policy), this.probe);
+		}
+
+		@Override
+		public Traversable<TSource> top(long count) {
+			return take(count);
+		}
+
+		@Override
+		public Traversable<TSource> skip(long count) {
+			return new Window<TSource>(this.ordered.skip(count), this.probe, Math.max(0, count), UNBOUNDED);
+		}
+
+		@Override
+		public Traversable<TSource> take(long count) {
+			return new Window<TSource>(this.ordered.take(count), this.probe, 0, Math.max(0, count));
+		}
+	}
+
+	/**
+	 * Instrumented window of a sort stage, which only has to hold the elements up to its {@code end}.
+	 */
+	private static class Window<TSource> extends InstrumentedTraversableImpl<TSource> {
+		private final Traversable<TSource> window;
+		private final Probe sort;
+		private final long offset;
+		private final long end;
+
+		public Window(Traversable<TSource> window, Probe sort, long offset, long end) {
+			super(window, sort.window(end), Plan.source(window));
+
+			this.window = window;
+			this.sort = sort;
+			this.offset = offset;
+			this.end = end;
+		}
+
+		@Override
+		public Traversable<TSource> skip(long count) {
+			count = Math.max(0, count);
+
+			return new Window<TSource>(this.window.skip(count), this.sort, saturatedAdd(this.offset, count), this.end);
+		}
+
+		@Override
+		public Traversable<TSource> take(long count) {
+			count = Math.max(0, count);
+
+			return new Window<TSource>(this.window.take(count), this.sort, this.offset, Math.min(this.end, saturatedAdd(this.offset, count)));
+		}
+
+		private static long saturatedAdd(long a, long b) {
+			return a + b < 0 ? UNBOUNDED : a + b;
+		}
+	}
+
+	private enum Buffering {
+		/** The stage streams its elements. */
+		NONE,
+		/** The stage holds all elements it reads. */
+		INPUT,
+		/** The stage holds all elements it passes on. */
+		OUTPUT
+	}
+
+	/**
+	 * A stage of the pipeline. Its counters are kept per iteration by a {@link Traversal}.
+	 */
+	static class Probe {
+		private final PipelineListener listener;
+		private final Probe upstream;
+		private final int index;
+		private final String name;
+		private final Buffering buffering;
+		private final long bufferLimit;
+
+		public Probe(PipelineListener listener) {
+			this(listener, null, 0, "source", Buffering.NONE, UNBOUNDED);
+		}
+
+		private Probe(PipelineListener listener, Probe upstream, int index, String name, Buffering buffering, long bufferLimit) {
+			this.listener = listener;
+			this.upstream = upstream;
+			this.index = index;
+			this.name = name;
+			this.buffering = buffering;
+			this.bufferLimit = bufferLimit;
+		}
+
+		Probe next(String name, Buffering buffering) {
+			return new Probe(this.listener, this, this.index + 1, name, buffering, UNBOUNDED);
+		}
+
+		/**
+		 * @return Probe of the same stage which holds at most {@code end} elements.
+		 */
+		Probe window(long end) {
+			return new Probe(this.listener, this.upstream, this.index, this.name, this.buffering, end);
+		}
+
+		<T> Predicate<T> timed(final Predicate<T> predicate) {
+			return new Predicate<T>() {
+				@Override
+				public boolean invoke(T arg) {
+					long start = System.nanoTime();
+
+					try {
+						return predicate.invoke(arg);
+					} finally {
+						Traversal.addDelegateNanos(System.nanoTime() - start);
+					}
+				}
+			};
+		}
+
+		<T, TResult> Func<T, TResult> timed(final Func<T, TResult> func) {
+			return new Func<T, TResult>() {
+				@Override
+				public TResult invoke(T arg) {
+					long start = System.nanoTime();
+
+					try {
+						return func.invoke(arg);
+					} finally {
+						Traversal.addDelegateNanos(System.nanoTime() - start);
+					}
+				}
+			};
+		}
+
+		<TAccumulate, T> Accumulator<TAccumulate, T> timed(final Accumulator<TAccumulate, T> accumulator) {
+			return new Accumulator<TAccumulate, T>() {
+				@Override
+				public TAccumulate accumulate(TAccumulate accumulate, T source) {
+					long start = System.nanoTime();
+
+					try {
+						return accumulator.accumulate(accumulate, source);
+					} finally {
+						Traversal.addDelegateNanos(System.nanoTime() - start);
+					}
+				}
+			};
+		}
+
+		<T1, T2, TResult> Func2<T1, T2, TResult> timed(final Func2<T1, T2, TResult> func) {
+			return new Func2<T1, T2, TResult>() {
+				@Override
+				public TResult invoke(T1 first, T2 second) {
+					long start = System.nanoTime();
+
+					try {
+						return func.invoke(first, second);
+					} finally {
+						Traversal.addDelegateNanos(System.nanoTime() - start);
+					}
+				}
+			};
+		}
+
+		<T> Action<T> timed(final Action<T> action) {
+			return new Action<T>() {
+				@Override
+				public void invoke(T arg) {
+					long start = System.nanoTime();
+
+					try {
+						action.invoke(arg);
+					} finally {
+						Traversal.addDelegateNanos(System.nanoTime() - start);
+					}
+				}
+			};
+		}
+	}
+
+	/**
+	 * Counters of one iteration of a stage.
+	 * <p/>
+	 * The traversal in progress on the current thread is the one whose stage is computing an element. Traversals
+	 * started meanwhile are its inputs, the first of the upstream stage provides its elements in. The delegates of a
+	 * stage run while its traversal is in progress, so their time is added to it. Nested traversals of the same
+	 * stages, like {@code x.zip(x)}, and traversals on other threads therefore keep their own counters.
+	 */
+	private static class Traversal {
+		private static final ThreadLocal<Traversal> CURRENT = new ThreadLocal<Traversal>();
+
+		private final Probe probe;
+		private final List<Traversal> inputs = new ArrayList<Traversal>(1);
+
+		private Traversal upstream;
+		private boolean running = true;
+		private long elementsOut;
+		private long delegateNanos;
+
+		public Traversal(Probe probe) {
+			this.probe = probe;
+
+			Traversal downstream = CURRENT.get();
+
+			if (downstream != null) {
+				downstream.addInput(this);
+			}
+		}
+
+		private void addInput(Traversal input) {
+			// inputs which have ended are reported already, only those stopped early have to be ended later
+			while (!this.inputs.isEmpty() && !this.inputs.get(this.inputs.size() - 1).running) {
+				this.inputs.remove(this.inputs.size() - 1);
+			}
+
+			this.inputs.add(input);
+
+			if (this.upstream == null && input.probe == this.probe.upstream) {
+				this.upstream = input;
+			}
+		}
+
+		/**
+		 * Makes this traversal the one in progress.
+		 *
+		 * @return The traversal in progress before, to be restored by {@link #exit(Traversal)}.
+		 */
+		Traversal enter() {
+			Traversal outer = CURRENT.get();
+			CURRENT.set(this);
+			return outer;
+		}
+
+		static void exit(Traversal outer) {
+			CURRENT.set(outer);
+		}
+
+		static void addDelegateNanos(long nanos) {
+			Traversal traversal = CURRENT.get();
+
+			if (traversal != null) {
+				traversal.delegateNanos += nanos;
+			}
+		}
+
+		/**
+		 * Reports this traversal and the inputs which have not ended yet, because this stage stopped reading them
+		 * early.
+		 */
+		void end() {
+			if (!this.running) {
+				return;
+			}
+
+			for (Traversal input : this.inputs) {
+				input.end();
+			}
+
+			this.inputs.clear();
+			this.running = false;
+
+			long elementsIn = this.upstream != null ? this.upstream.elementsOut : (this.probe.upstream == null ? this.elementsOut : 0);
+			long buffered;
+
+			switch (this.probe.buffering) {
+				case INPUT:
+					buffered = Math.min(elementsIn, this.probe.bufferLimit);
+					break;
+				case OUTPUT:
+					buffered = this.elementsOut;
+					break;
+				default:
+					buffered = 0;
+			}
+
+			this.probe.listener.traversed(
+				new Statistics(this.probe.index, this.probe.name, elementsIn, this.elementsOut, this.delegateNanos, buffered)
+			);
+		}
+	}
+
+	/**
+	 * Counts the elements passing a stage and reports the stage once the traversal has ended.
+	 */
+	static class ProbedIterable<T> implements Iterable<T> {
+		private final Iterable<T> source;
+		private final Probe probe;
+
+		public ProbedIterable(Iterable<T> source, Probe probe) {
+			this.source = source;
+			this.probe = probe;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return iterator(false);
+		}
+
+		/**
+		 * @return Whether the source can be iterated backwards without buffering it.
+		 */
+		boolean isReversible() {
+			return TraversableImpl.isReversible(this.source);
+		}
+
+		Iterator<T> descendingIterator() {
+			return iterator(true);
+		}
+
+		private Iterator<T> iterator(boolean descending) {
+			final Traversal traversal = new Traversal(this.probe);
+			final Iterator<T> iterator;
+
+			Traversal outer = traversal.enter();
+
+			try {
+				iterator = descending ? TraversableImpl.descendingIterator(this.source) : this.source.iterator();
+			} finally {
+				Traversal.exit(outer);
+			}
+
+			return new Iterator<T>() {
+				@Override
+				public boolean hasNext() {
+					Traversal outer = traversal.enter();
+
+					try {
+						if (iterator.hasNext()) {
+							return true;
+						}
+					} finally {
+						Traversal.exit(outer);
+					}
+
+					traversal.end();
+					return false;
+				}
+
+				@Override
+				public T next() {
+					Traversal outer = traversal.enter();
+
+					try {
+						T element = iterator.next();
+						traversal.elementsOut++;
+						return element;
+					} finally {
+						Traversal.exit(outer);
+					}
+				}
+
+				@Override
+				public void remove() {
+					iterator.remove();
+				}
+			};
+		}
+
+		void push(final Sink<? super T> sink) {
+			final Traversal traversal = new Traversal(this.probe);
+			final Traversal outer = traversal.enter();
+
+			try {
+				TraversableImpl.push(this.source,
+					new Sink<T>() {
+						@Override
+						public boolean accept(T element) {
+							traversal.elementsOut++;
+
+							// the downstream stages compute with their own traversal in progress
+							Traversal.exit(outer);
+
+							try {
+								return sink.accept(element);
+							} finally {
+								traversal.enter();
+							}
+						}
+					}
+				);
+			} finally {
+				Traversal.exit(outer);
+			}
+
+			traversal.end();
+		}
+	}
+
+	private static class Statistics implements StageStatistics {
+		private final int index;
+		private final String name;
+		private final long elementsIn;
+		private final long elementsOut;
+		private final long delegateNanos;
+		private final long buffered;
+
+		public Statistics(int index, String name, long elementsIn, long elementsOut, long delegateNanos, long buffered) {
+			this.index = index;
+			this.name = name;
+			this.elementsIn = elementsIn;
+			this.elementsOut = elementsOut;
+			this.delegateNanos = delegateNanos;
+			this.buffered = buffered;
+		}
+
+		@Override
+		public int index() {
+			return this.index;
+		}
+
+		@Override
+		public String name() {
+			return this.name;
+		}
+
+		@Override
+		public long elementsIn() {
+			return this.elementsIn;
+		}
+
+		@Override
+		public long elementsOut() {
+			return this.elementsOut;
+		}
+
+		@Override
+		public double selectivity() {
+			return this.elementsIn > 0 ? (double) this.elementsOut / this.elementsIn : Double.NaN;
+		}
+
+		@Override
+		public long delegateNanos() {
+			return this.delegateNanos;
+		}
+
+		@Override
+		public long buffered() {
+			return this.buffered;
+		}
+
+		@Override
+		public String toString() {
+			return this.index + " " + this.name + ": " + this.elementsIn + " in, " + this.elementsOut + " out, "
+				+ this.delegateNanos + " ns, " + this.buffered + " buffered";
+		}
+	}
+}
@@ -2,50 +2,59 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
 
-class IntArrayTraversable extends TraversableImpl<Integer> {
-	private static class IntArrayIterator implements Iterator<Integer> {
+class IntArrayTraversable extends IntTraversableImpl {
+	private static class IntArrayList extends AbstractList<Integer> implements RandomAccess {
 		private final int[] array;
-		private int index = 0;
-
-		public IntArrayIterator(int[] array) {
-			Check.notNull(array, "array");
 
+		public IntArrayList(int[] array) {
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Integer get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Integer next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
+	private final int[] array;
+
 	public IntArrayTraversable(final int[] source) {
 		super(
-			new TraversableImpl<Integer>(
-				new Iterable<Integer>() {
-					@Override
-					public Iterator<Integer> iterator() {
-						return new IntArrayIterator(source);
-					}
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					return new IntArrayIterator(source, source.length);
 				}
-			)
+			},
+			Plan.source(source)
 		);
+
+		Check.notNull(source, "source");
+
+		this.array = source;
+	}
+
+	@Override
+	protected List<Integer> randomAccess() {
+		return new IntArrayList(this.array);
+	}
+
+	@Override
+	public long count() {
+		return this.array.length;
+	}
+
+	@Override
+	public int[] asArray() {
+		return this.array.clone();
 	}
 }
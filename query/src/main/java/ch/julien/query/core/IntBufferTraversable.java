@@ -0,0 +1,125 @@
+package ch.julien.query.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import ch.julien.common.contract.Check;
+
+/**
+ * {@code int} values read in place from one or more buffers, like the regions of a mapped file. All segments but
+ * the last one have the same length, so an element is found by index without traversing the segments.
+ */
+class IntBufferTraversable extends IntTraversableImpl {
+	private static class IntBufferList extends AbstractList<Integer> implements RandomAccess {
+		private final IntBuffer[] segments;
+		private final int segmentSize;
+		private final int size;
+
+		public IntBufferList(IntBuffer[] segments, int size) {
+			this.segments = segments;
+			this.segmentSize = segments.length > 0 ? segments[0].limit() : 0;
+			this.size = size;
+		}
+
+		@Override
+		public Integer get(int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+
+			return this.segments[index / this.segmentSize].get(index % this.segmentSize);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	private static class IntBufferIterator implements IntIterator {
+		private final IntBuffer[] segments;
+		private int segment = 0;
+		private int index = 0;
+
+		public IntBufferIterator(IntBuffer[] segments) {
+			this.segments = segments;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.segment < this.segments.length && this.index >= this.segments[this.segment].limit()) {
+				this.segment++;
+				this.index = 0;
+			}
+
+			return this.segment < this.segments.length;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return this.segments[this.segment].get(this.index++);
+		}
+	}
+
+	private final IntBuffer[] segments;
+	private final long size;
+
+	private IntBufferTraversable(final IntBuffer[] segments, long size, Plan plan) {
+		super(
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					return new IntBufferIterator(segments);
+				}
+			},
+			plan
+		);
+
+		this.segments = segments;
+		this.size = size;
+	}
+
+	/**
+	 * @return The elements between the position and the limit of {@code buffer}, which are read when they are needed.
+	 */
+	static IntBufferTraversable of(IntBuffer buffer) {
+		Check.notNull(buffer, "buffer");
+
+		return new IntBufferTraversable(new IntBuffer[] {buffer.slice()}, buffer.remaining(), Plan.source(buffer));
+	}
+
+	static IntBufferTraversable mapped(FileChannel channel, ByteOrder order, int maxRegionSize) throws IOException {
+		ByteBuffer[] regions = MappedFile.map(channel, 4, order, maxRegionSize);
+		IntBuffer[] segments = new IntBuffer[regions.length];
+
+		for (int i = 0; i < regions.length; i++) {
+			segments[i] = regions[i].asIntBuffer();
+		}
+
+		long size = MappedFile.elements(regions, 4);
+
+		return new IntBufferTraversable(segments, size, Plan.source(channel, MappedFile.describe(regions, size)));
+	}
+
+	@Override
+	protected List<Integer> randomAccess() {
+		// a list cannot be indexed beyond this
+		return this.size <= Integer.MAX_VALUE ? new IntBufferList(this.segments, (int) this.size) : null;
+	}
+
+	@Override
+	public long count() {
+		return this.size;
+	}
+}
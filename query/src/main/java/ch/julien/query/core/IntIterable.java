@@ -0,0 +1,5 @@
+package ch.julien.query.core;
+
+interface IntIterable {
+	IntIterator intIterator();
+}
@@ -0,0 +1,304 @@
+package ch.julien.query.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.IntFunc;
+import ch.julien.common.delegate.IntPredicate;
+import ch.julien.query.IntTraversable;
+
+class IntTraversableImpl extends TraversableImpl<Integer> implements IntTraversable {
+	static class IntArrayIterator implements IntIterator {
+		private final int[] array;
+		private final int length;
+		private int index = 0;
+
+		public IntArrayIterator(int[] array, int length) {
+			Check.notNull(array, "array");
+
+			this.array = array;
+			this.length = length;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.index < this.length;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return this.array[this.index++];
+		}
+	}
+
+	private static class IntMapIterator implements IntIterator {
+		private final IntIterator parent;
+		private final IntFunc selector;
+
+		public IntMapIterator(IntIterator parent, IntFunc selector) {
+			this.parent = parent;
+			this.selector = selector;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.parent.hasNext();
+		}
+
+		@Override
+		public int nextInt() {
+			return this.selector.invoke(this.parent.nextInt());
+		}
+	}
+
+	private static class IntSelectIterator implements IntIterator {
+		private final IntIterator parent;
+		private final IntPredicate predicate;
+
+		private boolean ready = false;
+		private int next;
+
+		public IntSelectIterator(IntIterator parent, IntPredicate predicate) {
+			this.parent = parent;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!this.ready && this.parent.hasNext()) {
+				int element = this.parent.nextInt();
+
+				if (this.predicate.invoke(element)) {
+					this.next = element;
+					this.ready = true;
+				}
+			}
+
+			return this.ready;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			this.ready = false;
+			return this.next;
+		}
+	}
+
+	protected final IntIterable ints;
+
+	public IntTraversableImpl(IntIterable ints) {
+		this(ints, Plan.source(ints));
+	}
+
+	IntTraversableImpl(final IntIterable ints, Plan plan) {
+		super(
+			new Iterable<Integer>() {
+				@Override
+				public Iterator<Integer> iterator() {
+					final IntIterator iterator = ints.intIterator();
+
+					return new Iterator<Integer>() {
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Integer next() {
+							return iterator.nextInt();
+						}
+
+						@Override
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+			},
+			plan
+		);
+
+		Check.notNull(ints, "ints");
+
+		this.ints = ints;
+	}
+
+	@Override
+	public IntTraversable map(final IntFunc selector) {
+		Check.notNull(selector, "selector");
+
+		return new IntTraversableImpl(
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					return new IntMapIterator(ints.intIterator(), selector);
+				}
+			},
+			this.plan.then("map", "unboxed")
+		);
+	}
+
+	@Override
+	public IntTraversable select(final IntPredicate predicate) {
+		Check.notNull(predicate, "predicate");
+
+		return new IntTraversableImpl(
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					return new IntSelectIterator(ints.intIterator(), predicate);
+				}
+			},
+			this.plan.then("select", "unboxed")
+		);
+	}
+
+	@Override
+	public long count() {
+		long count = 0;
+
+		for (IntIterator iterator = this.ints.intIterator(); iterator.hasNext(); iterator.nextInt()) {
+			count++;
+		}
+
+		return count;
+	}
+
+	@Override
+	void aggregate(NumericAggregate aggregate) {
+		for (IntIterator iterator = this.ints.intIterator(); iterator.hasNext(); ) {
+			aggregate.acceptInt(iterator.nextInt());
+		}
+	}
+
+	@Override
+	public double average() {
+		long sum = 0;
+		long count = 0;
+
+		for (IntIterator iterator = this.ints.intIterator(); iterator.hasNext(); count++) {
+			sum += iterator.nextInt();
+		}
+
+		if (count == 0) {
+			throw new NoSuchElementException();
+		}
+
+		return (double) sum / count;
+	}
+
+	@Override
+	public long sum() {
+		long sum = 0;
+
+		for (IntIterator iterator = this.ints.intIterator(); iterator.hasNext(); ) {
+			sum += iterator.nextInt();
+		}
+
+		return sum;
+	}
+
+	@Override
+	public int min() {
+		IntIterator iterator = this.ints.intIterator();
+		int min = iterator.nextInt();
+
+		while (iterator.hasNext()) {
+			min = Math.min(min, iterator.nextInt());
+		}
+
+		return min;
+	}
+
+	@Override
+	public int max() {
+		IntIterator iterator = this.ints.intIterator();
+		int max = iterator.nextInt();
+
+		while (iterator.hasNext()) {
+			max = Math.max(max, iterator.nextInt());
+		}
+
+		return max;
+	}
+
+	@Override
+	public IntTraversable distinct() {
+		return new IntTraversableImpl(
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					int[] values = asArray();
+
+					// the sorted, unique values serve as a set; the flags remember what was already yielded
+					int[] set = values.clone();
+					Arrays.sort(set);
+
+					int size = 0;
+					for (int i = 0; i < set.length; i++) {
+						if (size == 0 || set[size - 1] != set[i]) {
+							set[size++] = set[i];
+						}
+					}
+
+					boolean[] yielded = new boolean[size];
+					int length = 0;
+
+					for (int value : values) {
+						int index = Arrays.binarySearch(set, 0, size, value);
+
+						if (!yielded[index]) {
+							yielded[index] = true;
+							values[length++] = value;
+						}
+					}
+
+					return new IntArrayIterator(values, length);
+				}
+			},
+			this.plan.then("distinct", "finds the distinct elements in a sorted copy, buffers all elements")
+		);
+	}
+
+	@Override
+	public IntTraversable sort() {
+		return new IntTraversableImpl(
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					int[] values = asArray();
+					Arrays.sort(values);
+
+					return new IntArrayIterator(values, values.length);
+				}
+			},
+			this.plan.then("sort", "buffers all elements")
+		);
+	}
+
+	@Override
+	public int[] asArray() {
+		int[] array = new int[16];
+		int length = 0;
+
+		for (IntIterator iterator = this.ints.intIterator(); iterator.hasNext(); ) {
+			if (length == array.length) {
+				array = Arrays.copyOf(array, length * 2);
+			}
+
+			array[length++] = iterator.nextInt();
+		}
+
+		return Arrays.copyOf(array, length);
+	}
+}
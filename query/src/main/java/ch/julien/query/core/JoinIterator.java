@@ -0,0 +1,68 @@
+package ch.julien.query.core;
+
+import java.util.Iterator;
+import java.util.List;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func2;
+
+/**
+ * Hash join streaming the outer elements against a {@link Lookup} of the inner ones, which is built when the
+ * iteration starts. With {@code leftOuter}, outer elements without a match are joined with {@code null}.
+ */
+class JoinIterator<TOuter, TInner, TKey, TResult> extends AbstractIterator<TOuter, TResult> {
+	private final Iterable<? extends TInner> inner;
+	private final Func<? super TOuter, TKey> outerKeySelector;
+	private final Func<? super TInner, TKey> innerKeySelector;
+	private final Func2<? super TOuter, ? super TInner, TResult> resultSelector;
+	private final boolean leftOuter;
+
+	private Lookup<TKey, TInner> lookup;
+	private TOuter outer;
+	private List<TInner> matches;
+	private int position;
+
+	public JoinIterator(Iterator<? extends TOuter> parent, Iterable<? extends TInner> inner,
+		Func<? super TOuter, TKey> outerKeySelector, Func<? super TInner, TKey> innerKeySelector,
+		Func2<? super TOuter, ? super TInner, TResult> resultSelector, boolean leftOuter) {
+
+		super(parent);
+
+		Check.notNull(inner, "inner");
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		this.inner = inner;
+		this.outerKeySelector = outerKeySelector;
+		this.innerKeySelector = innerKeySelector;
+		this.resultSelector = resultSelector;
+		this.leftOuter = leftOuter;
+	}
+
+	@Override
+	protected TResult computeNext() {
+		if (this.lookup == null) {
+			this.lookup = Lookup.of(this.inner, this.innerKeySelector);
+		}
+
+		while (true) {
+			if (this.matches != null && this.position < this.matches.size()) {
+				return this.resultSelector.invoke(this.outer, this.matches.get(this.position++));
+			}
+
+			if (!this.parent.hasNext()) {
+				return computationEnd();
+			}
+
+			this.outer = this.parent.next();
+			this.matches = this.lookup.get(this.outerKeySelector.invoke(this.outer));
+			this.position = 0;
+
+			if (this.matches == null && this.leftOuter) {
+				return this.resultSelector.invoke(this.outer, null);
+			}
+		}
+	}
+}
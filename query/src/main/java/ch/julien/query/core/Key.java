@@ -1,14 +1,38 @@
 package ch.julien.query.core;
 
 import ch.julien.common.delegate.EqualityComparator;
+import ch.julien.common.delegate.HashingEqualityComparator;
 
 class Key<T> {
 	protected final T value;
 	protected final EqualityComparator<? super T> equalityComparator;
+	private final int hash;
 
+	/**
+	 * @return The {@code value} itself if {@code equalityComparator} compares by {@link Object#equals(Object)}
+	 * and {@link Object#hashCode()} anyway, a {@link Key} otherwise.
+	 */
+	static <T> Object of(T value, EqualityComparator<? super T> equalityComparator) {
+		if (equalityComparator == null || equalityComparator instanceof DefaultEqualityComparator) {
+			return value;
+		}
+
+		return new Key<T>(value, equalityComparator);
+	}
+
+	@SuppressWarnings("unchecked")
 	public Key(T value, EqualityComparator<? super T> equalityComparator) {
 		this.value = value;
 		this.equalityComparator = equalityComparator;
+
+		if (equalityComparator == null) {
+			this.hash = value != null ? value.hashCode() : 0;
+		} else if (equalityComparator instanceof HashingEqualityComparator) {
+			this.hash = ((HashingEqualityComparator<? super T>) equalityComparator).hashCode(value);
+		} else {
+			// comparator can not hash: all keys collide and fall back to equals
+			this.hash = 0;
+		}
 	}
 
 	@Override
@@ -23,6 +47,10 @@ class Key<T> {
 
 		Key<T> key = (Key<T>)other;
 
+		if (this.hash != key.hash) {
+			return false;
+		}
+
 		if (this.equalityComparator != null) {
 			return this.equalityComparator.equals(this.value, key.value);
 		}
@@ -32,6 +60,6 @@ class Key<T> {
 
 	@Override
 	public int hashCode() {
-		return 0;
+		return this.hash;
 	}
 }
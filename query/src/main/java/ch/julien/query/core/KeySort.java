@@ -0,0 +1,412 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.Func;
+
+/**
+ * Sort order given by one or more key selectors, as built by {@code sortBy} and {@code thenBy}.
+ * <p/>
+ * Sorting extracts every key exactly once per element into a column, picks a comparison for each column
+ * depending on the type of its keys (primitive {@code long}/{@code double} comparisons for boxed numbers,
+ * the comparator or natural order otherwise) and then sorts a permutation of indices with a stable merge
+ * sort. Elements with equal keys therefore keep the order of the source.
+ */
+class KeySort<TSource> {
+	private static final int INSERTION_SORT_THRESHOLD = 7;
+	private static final int INITIAL_TOP_CAPACITY = 16;
+
+	/** Largest count {@link #top(Iterable, int)} can select, larger selections need a full sort. */
+	static final int MAX_TOP_COUNT = (Integer.MAX_VALUE - 8) / 2;
+
+	private static class Level<TSource> {
+		private final Func<? super TSource, ?> keySelector;
+		private final Comparator<Object> comparator;
+		private final boolean descending;
+
+		public Level(Func<? super TSource, ?> keySelector, Comparator<Object> comparator, boolean descending) {
+			this.keySelector = keySelector;
+			this.comparator = comparator;
+			this.descending = descending;
+		}
+
+		Column column(Object[] elements) {
+			Object[] keys = new Object[elements.length];
+
+			for (int i = 0; i < elements.length; i++) {
+				keys[i] = invoke(elements[i]);
+			}
+
+			return column(keys, keys.length);
+		}
+
+		Column column(Object[] keys, int length) {
+			return Column.of(keys, length, this.comparator, this.descending);
+		}
+
+		@SuppressWarnings("unchecked")
+		Object invoke(Object element) {
+			return this.keySelector.invoke((TSource) element);
+		}
+	}
+
+	/**
+	 * The keys of one level, compared by index.
+	 */
+	abstract static class Column {
+		private static final Comparator<Object> NATURAL_ORDER = new DefaultComparator<Object>();
+
+		private final boolean descending;
+
+		protected Column(boolean descending) {
+			this.descending = descending;
+		}
+
+		final int compare(int a, int b) {
+			return this.descending ? compareAscending(b, a) : compareAscending(a, b);
+		}
+
+		protected abstract int compareAscending(int a, int b);
+
+		static Column of(final Object[] keys, int length, Comparator<Object> comparator, boolean descending) {
+			if (comparator == null) {
+				Class<?> type = commonType(keys, length);
+
+				if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+					final long[] values = new long[length];
+
+					for (int i = 0; i < length; i++) {
+						values[i] = ((Number) keys[i]).longValue();
+					}
+
+					return new Column(descending) {
+						@Override
+						protected int compareAscending(int a, int b) {
+							return values[a] < values[b] ? -1 : (values[a] == values[b] ? 0 : 1);
+						}
+					};
+				}
+
+				if (type == Double.class || type == Float.class) {
+					final double[] values = new double[length];
+
+					for (int i = 0; i < length; i++) {
+						values[i] = ((Number) keys[i]).doubleValue();
+					}
+
+					return new Column(descending) {
+						@Override
+						protected int compareAscending(int a, int b) {
+							return Double.compare(values[a], values[b]);
+						}
+					};
+				}
+
+				if (type == String.class) {
+					return new Column(descending) {
+						@Override
+						protected int compareAscending(int a, int b) {
+							return ((String) keys[a]).compareTo((String) keys[b]);
+						}
+					};
+				}
+
+				comparator = NATURAL_ORDER;
+			}
+
+			final Comparator<Object> comparer = comparator;
+
+			return new Column(descending) {
+				@Override
+				protected int compareAscending(int a, int b) {
+					return comparer.compare(keys[a], keys[b]);
+				}
+			};
+		}
+
+		/**
+		 * @return The class shared by all keys, {@code null} if they differ or if there is a {@code null} key.
+		 */
+		private static Class<?> commonType(Object[] keys, int length) {
+			if (length == 0 || keys[0] == null) {
+				return null;
+			}
+
+			Class<?> type = keys[0].getClass();
+
+			for (int i = 1; i < length; i++) {
+				if (keys[i] == null || keys[i].getClass() != type) {
+					return null;
+				}
+			}
+
+			return type;
+		}
+	}
+
+	private final List<Level<TSource>> levels;
+
+	@SuppressWarnings("unchecked")
+	static <TSource, TKey> KeySort<TSource> by(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator, boolean descending) {
+		Check.notNull(keySelector, "keySelector");
+
+		return new KeySort<TSource>(
+			Collections.singletonList(new Level<TSource>(keySelector, (Comparator<Object>) comparator, descending))
+		);
+	}
+
+	private KeySort(List<Level<TSource>> levels) {
+		this.levels = levels;
+	}
+
+	@SuppressWarnings("unchecked")
+	<TKey> KeySort<TSource> then(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator, boolean descending) {
+		Check.notNull(keySelector, "keySelector");
+
+		List<Level<TSource>> levels = new ArrayList<Level<TSource>>(this.levels);
+		levels.add(new Level<TSource>(keySelector, (Comparator<Object>) comparator, descending));
+
+		return new KeySort<TSource>(Collections.unmodifiableList(levels));
+	}
+
+	/**
+	 * @return The number of key selectors.
+	 */
+	int levelCount() {
+		return this.levels.size();
+	}
+
+	/**
+	 * @return Whether {@code other} sorts by the same key selectors with the same comparators and directions, so
+	 * that two sequences sorted by them can be merged.
+	 */
+	boolean isCompatible(KeySort<?> other) {
+		if (this.levels.size() != other.levels.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < this.levels.size(); i++) {
+			Level<?> level = this.levels.get(i);
+			Level<?> otherLevel = other.levels.get(i);
+
+			if (!level.keySelector.equals(otherLevel.keySelector) || !isSameOrder(level, otherLevel)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return Whether this sort and {@code other} sort by nothing but {@code keySelector} and {@code otherKeySelector}
+	 * respectively, with the same comparator and direction, so that two sequences sorted by them can be merged on
+	 * these keys.
+	 */
+	boolean isCompatible(Func<?, ?> keySelector, KeySort<?> other, Func<?, ?> otherKeySelector) {
+		return this.levels.size() == 1 && other.levels.size() == 1
+			&& this.levels.get(0).keySelector.equals(keySelector) && other.levels.get(0).keySelector.equals(otherKeySelector)
+			&& isSameOrder(this.levels.get(0), other.levels.get(0));
+	}
+
+	private static boolean isSameOrder(Level<?> level, Level<?> other) {
+		return level.descending == other.descending
+			&& (level.comparator == null ? other.comparator == null : level.comparator.equals(other.comparator));
+	}
+
+	/**
+	 * @return The keys of {@code element}, one per level.
+	 */
+	Object[] keys(Object element) {
+		Object[] keys = new Object[this.levels.size()];
+
+		for (int level = 0; level < keys.length; level++) {
+			keys[level] = this.levels.get(level).invoke(element);
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Compares the keys of two elements as returned by {@link #keys(Object)}, in sort order.
+	 */
+	int compare(Object[] a, Object[] b) {
+		for (int level = 0; level < a.length; level++) {
+			Level<TSource> sort = this.levels.get(level);
+			Comparator<Object> comparator = sort.comparator == null ? Column.NATURAL_ORDER : sort.comparator;
+
+			int result = sort.descending ? comparator.compare(b[level], a[level]) : comparator.compare(a[level], b[level]);
+
+			if (result != 0) {
+				return result;
+			}
+		}
+
+		return 0;
+	}
+
+	/**
+	 * @return The key columns of {@code elements}, one per level.
+	 */
+	Column[] columns(Object[] elements) {
+		Column[] columns = new Column[this.levels.size()];
+
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = this.levels.get(i).column(elements);
+		}
+
+		return columns;
+	}
+
+	/**
+	 * @return The indices of {@code elements} in sorted order.
+	 */
+	int[] sort(Object[] elements) {
+		Column[] columns = columns(elements);
+
+		int[] order = new int[elements.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		mergeSort(order.clone(), order, 0, order.length, columns);
+
+		return order;
+	}
+
+	/**
+	 * Selects the first {@code count} elements of {@code source} in sorted order without sorting all of them.
+	 * <p/>
+	 * Elements and their keys are collected into a buffer of {@code 2 * count} slots. Whenever it is full it
+	 * is sorted and cut back to the first {@code count} elements, so at most {@code 2 * count} elements are
+	 * retained at a time and the whole selection costs {@code O(n log count)}.
+	 *
+	 * @return The selected elements in sorted order.
+	 */
+	Object[] top(Iterable<?> source, int count) {
+		if (count <= 0) {
+			return new Object[0];
+		}
+
+		int capacity = count * 2;
+
+		Object[] elements = new Object[Math.min(capacity, INITIAL_TOP_CAPACITY)];
+		Object[][] keys = new Object[this.levels.size()][elements.length];
+		int size = 0;
+
+		for (Object element : source) {
+			if (size == elements.length) {
+				if (size < capacity) {
+					// not yet at the bound: just grow the buffer
+					int length = (int) Math.min(capacity, size * 2L);
+
+					elements = Arrays.copyOf(elements, length);
+					for (int level = 0; level < keys.length; level++) {
+						keys[level] = Arrays.copyOf(keys[level], length);
+					}
+				} else {
+					size = truncate(elements, keys, size, count);
+				}
+			}
+
+			elements[size] = element;
+			for (int level = 0; level < keys.length; level++) {
+				keys[level][size] = this.levels.get(level).invoke(element);
+			}
+			size++;
+		}
+
+		size = truncate(elements, keys, size, count);
+
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * Sorts the first {@code size} buffered elements together with their keys and keeps the first {@code count}.
+	 *
+	 * @return The new size of the buffer.
+	 */
+	private int truncate(Object[] elements, Object[][] keys, int size, int count) {
+		Column[] columns = new Column[keys.length];
+
+		for (int level = 0; level < columns.length; level++) {
+			columns[level] = this.levels.get(level).column(keys[level], size);
+		}
+
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+
+		mergeSort(order.clone(), order, 0, size, columns);
+
+		int retained = Math.min(size, count);
+
+		Object[] unordered = Arrays.copyOf(elements, size);
+		for (int i = 0; i < retained; i++) {
+			elements[i] = unordered[order[i]];
+		}
+		Arrays.fill(elements, retained, size, null);
+
+		for (Object[] column : keys) {
+			Object[] unorderedKeys = Arrays.copyOf(column, size);
+
+			for (int i = 0; i < retained; i++) {
+				column[i] = unorderedKeys[order[i]];
+			}
+			Arrays.fill(column, retained, size, null);
+		}
+
+		return retained;
+	}
+
+	static int compare(Column[] columns, int a, int b) {
+		for (Column column : columns) {
+			int result = column.compare(a, b);
+
+			if (result != 0) {
+				return result;
+			}
+		}
+
+		return 0;
+	}
+
+	private static void mergeSort(int[] source, int[] destination, int low, int high, Column[] columns) {
+		int length = high - low;
+
+		if (length < INSERTION_SORT_THRESHOLD) {
+			for (int i = low + 1; i < high; i++) {
+				for (int j = i; j > low && compare(columns, destination[j - 1], destination[j]) > 0; j--) {
+					int swap = destination[j];
+					destination[j] = destination[j - 1];
+					destination[j - 1] = swap;
+				}
+			}
+
+			return;
+		}
+
+		int middle = (low + high) >>> 1;
+		mergeSort(destination, source, low, middle, columns);
+		mergeSort(destination, source, middle, high, columns);
+
+		// already in order: the halves can be copied as they are
+		if (compare(columns, source[middle - 1], source[middle]) <= 0) {
+			System.arraycopy(source, low, destination, low, length);
+			return;
+		}
+
+		for (int i = low, left = low, right = middle; i < high; i++) {
+			if (right >= high || left < middle && compare(columns, source[left], source[right]) <= 0) {
+				destination[i] = source[left++];
+			} else {
+				destination[i] = source[right++];
+			}
+		}
+	}
+}
@@ -0,0 +1,284 @@
+package ch.julien.query.core;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.datastructure.Tuple;
+import ch.julien.common.delegate.Func;
+
+/**
+ * Lazy {@link RandomAccess} views on {@link RandomAccess} lists.
+ * <p/>
+ * {@code batch}, {@code map}, {@code reverse}, {@code skip}, {@code take} and {@code zip} of an indexable source stay
+ * indexable, so the size is known and elements can be reached directly. The views read the underlying lists on every
+ * access and therefore see later changes just like an iteration would. Iterating a view iterates the underlying lists.
+ */
+final class ListViews {
+	private ListViews() {
+	}
+
+	/**
+	 * @return The consecutive slices of {@code size} elements of {@code list}, the last one may be smaller.
+	 */
+	static <T> List<List<T>> batch(List<T> list, int size) {
+		return new BatchedList<T>(list, size);
+	}
+
+	static <T, TResult> List<TResult> map(List<T> list, Func<? super T, TResult> resultSelector) {
+		Check.notNull(resultSelector, "resultSelector");
+
+		return new MappedList<T, TResult>(list, resultSelector);
+	}
+
+	static <T> List<T> skip(List<T> list, long count) {
+		if (list instanceof Slice) {
+			Slice<T> slice = (Slice<T>) list;
+
+			long limit = slice.limit < 0 ? -1 : Math.max(0, slice.limit - Math.max(0, count));
+
+			return new Slice<T>(slice.list, add(slice.from, count), limit);
+		}
+
+		return new Slice<T>(list, Math.max(0, count), -1);
+	}
+
+	static <T> List<T> take(List<T> list, long count) {
+		count = Math.max(0, count);
+
+		if (list instanceof Slice) {
+			Slice<T> slice = (Slice<T>) list;
+
+			return new Slice<T>(slice.list, slice.from, slice.limit < 0 ? count : Math.min(slice.limit, count));
+		}
+
+		return new Slice<T>(list, 0, count);
+	}
+
+	static <T> List<T> reverse(List<T> list) {
+		if (list instanceof ReversedList) {
+			return ((ReversedList<T>) list).list;
+		}
+
+		return new ReversedList<T>(list);
+	}
+
+	static <T, TOther> List<Tuple<T, TOther>> zip(List<T> list, List<TOther> other) {
+		return new ZippedList<T, TOther>(list, other);
+	}
+
+	/**
+	 * @return {@code true} if {@code list} is one of these views, whose elements may be computed on every access.
+	 */
+	static boolean isView(List<?> list) {
+		return list instanceof MappedList || list instanceof Slice || list instanceof BatchedList
+			|| list instanceof ReversedList || list instanceof ZippedList;
+	}
+
+	private static long add(long a, long b) {
+		return Math.max(0, b) > Long.MAX_VALUE - a ? Long.MAX_VALUE : a + Math.max(0, b);
+	}
+
+	private abstract static class UnmodifiableIterator<T> implements Iterator<T> {
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static class MappedList<T, TResult> extends AbstractList<TResult> implements RandomAccess {
+		private final List<T> list;
+		private final Func<? super T, TResult> resultSelector;
+
+		public MappedList(List<T> list, Func<? super T, TResult> resultSelector) {
+			this.list = list;
+			this.resultSelector = resultSelector;
+		}
+
+		@Override
+		public TResult get(int index) {
+			return this.resultSelector.invoke(this.list.get(index));
+		}
+
+		@Override
+		public Iterator<TResult> iterator() {
+			final Iterator<T> iterator = this.list.iterator();
+
+			return new UnmodifiableIterator<TResult>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public TResult next() {
+					return resultSelector.invoke(iterator.next());
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return this.list.size();
+		}
+	}
+
+	private static class Slice<T> extends AbstractList<T> implements RandomAccess {
+		private final List<T> list;
+		private final long from;
+		private final long limit;
+
+		/**
+		 * @param limit The maximal size of the slice, {@code -1} for no limit.
+		 */
+		public Slice(List<T> list, long from, long limit) {
+			this.list = list;
+			this.from = from;
+			this.limit = limit;
+		}
+
+		@Override
+		public T get(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+
+			return this.list.get((int) (this.from + index));
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			final int size = size();
+			final Iterator<T> iterator = this.from == 0
+				? this.list.iterator()
+				: this.list.listIterator(size > 0 ? (int) this.from : this.list.size());
+
+			return new UnmodifiableIterator<T>() {
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return this.index < size && iterator.hasNext();
+				}
+
+				@Override
+				public T next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+
+					this.index++;
+					return iterator.next();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			long size = Math.max(0, this.list.size() - this.from);
+
+			return (int) (this.limit < 0 ? size : Math.min(size, this.limit));
+		}
+	}
+
+	private static class BatchedList<T> extends AbstractList<List<T>> implements RandomAccess {
+		private final List<T> list;
+		private final int size;
+
+		public BatchedList(List<T> list, int size) {
+			this.list = list;
+			this.size = size;
+		}
+
+		@Override
+		public List<T> get(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+
+			return new Slice<T>(this.list, (long) index * this.size, this.size);
+		}
+
+		@Override
+		public int size() {
+			return (int) (((long) this.list.size() + this.size - 1) / this.size);
+		}
+	}
+
+	private static class ReversedList<T> extends AbstractList<T> implements RandomAccess {
+		private final List<T> list;
+
+		public ReversedList(List<T> list) {
+			this.list = list;
+		}
+
+		@Override
+		public T get(int index) {
+			int size = this.list.size();
+
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+
+			return this.list.get(size - 1 - index);
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return descendingIterator(this.list);
+		}
+
+		@Override
+		public int size() {
+			return this.list.size();
+		}
+	}
+
+	/**
+	 * @return An iterator walking {@code list} from its end to its start.
+	 */
+	static <T> Iterator<T> descendingIterator(List<T> list) {
+		final ListIterator<T> iterator = list.listIterator(list.size());
+
+		return new UnmodifiableIterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasPrevious();
+			}
+
+			@Override
+			public T next() {
+				return iterator.previous();
+			}
+		};
+	}
+
+	private static class ZippedList<T, TOther> extends AbstractList<Tuple<T, TOther>> implements RandomAccess {
+		private final List<T> list;
+		private final List<TOther> other;
+
+		public ZippedList(List<T> list, List<TOther> other) {
+			this.list = list;
+			this.other = other;
+		}
+
+		@Override
+		public Tuple<T, TOther> get(int index) {
+			return new Tuple<T, TOther>(this.list.get(index), this.other.get(index));
+		}
+
+		@Override
+		public Iterator<Tuple<T, TOther>> iterator() {
+			return new ZipIterator<T, TOther>(this.list.iterator(), this.other.iterator());
+		}
+
+		@Override
+		public int size() {
+			return Math.min(this.list.size(), this.other.size());
+		}
+	}
+}
@@ -2,50 +2,59 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
 
-class LongArrayTraversable extends TraversableImpl<Long> {
-	private static class LongArrayIterator implements Iterator<Long> {
+class LongArrayTraversable extends LongTraversableImpl {
+	private static class LongArrayList extends AbstractList<Long> implements RandomAccess {
 		private final long[] array;
-		private int index = 0;
-
-		public LongArrayIterator(long[] array) {
-			Check.notNull(array, "array");
 
+		public LongArrayList(long[] array) {
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Long get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Long next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
+	private final long[] array;
+
 	public LongArrayTraversable(final long[] source) {
 		super(
-			new TraversableImpl<Long>(
-				new Iterable<Long>() {
-					@Override
-					public Iterator<Long> iterator() {
-						return new LongArrayIterator(source);
-					}
+			new LongIterable() {
+				@Override
+				public LongIterator longIterator() {
+					return new LongArrayIterator(source, source.length);
 				}
-			)
+			},
+			Plan.source(source)
 		);
+
+		Check.notNull(source, "source");
+
+		this.array = source;
+	}
+
+	@Override
+	protected List<Long> randomAccess() {
+		return new LongArrayList(this.array);
+	}
+
+	@Override
+	public long count() {
+		return this.array.length;
+	}
+
+	@Override
+	public long[] asArray() {
+		return this.array.clone();
 	}
 }
@@ -0,0 +1,10 @@
+package ch.julien.query.core;
+
+import java.util.NoSuchElementException;
+
+interface LongIterator {
+	boolean hasNext();
+
+	/** @throws NoSuchElementException if there are no more elements */
+	long nextLong();
+}
@@ -0,0 +1,304 @@
+package ch.julien.query.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.LongFunc;
+import ch.julien.common.delegate.LongPredicate;
+import ch.julien.query.LongTraversable;
+
+class LongTraversableImpl extends TraversableImpl<Long> implements LongTraversable {
+	static class LongArrayIterator implements LongIterator {
+		private final long[] array;
+		private final int length;
+		private int index = 0;
+
+		public LongArrayIterator(long[] array, int length) {
+			Check.notNull(array, "array");
+
+			this.array = array;
+			this.length = length;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.index < this.length;
+		}
+
+		@Override
+		public long nextLong() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return this.array[this.index++];
+		}
+	}
+
+	private static class LongMapIterator implements LongIterator {
+		private final LongIterator parent;
+		private final LongFunc selector;
+
+		public LongMapIterator(LongIterator parent, LongFunc selector) {
+			this.parent = parent;
+			this.selector = selector;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.parent.hasNext();
+		}
+
+		@Override
+		public long nextLong() {
+			return this.selector.invoke(this.parent.nextLong());
+		}
+	}
+
+	private static class LongSelectIterator implements LongIterator {
+		private final LongIterator parent;
+		private final LongPredicate predicate;
+
+		private boolean ready = false;
+		private long next;
+
+		public LongSelectIterator(LongIterator parent, LongPredicate predicate) {
+			this.parent = parent;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!this.ready && this.parent.hasNext()) {
+				long element = this.parent.nextLong();
+
+				if (this.predicate.invoke(element)) {
+					this.next = element;
+					this.ready = true;
+				}
+			}
+
+			return this.ready;
+		}
+
+		@Override
+		public long nextLong() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			this.ready = false;
+			return this.next;
+		}
+	}
+
+	protected final LongIterable longs;
+
+	public LongTraversableImpl(LongIterable longs) {
+		this(longs, Plan.source(longs));
+	}
+
+	LongTraversableImpl(final LongIterable longs, Plan plan) {
+		super(
+			new Iterable<Long>() {
+				@Override
+				public Iterator<Long> iterator() {
+					final LongIterator iterator = longs.longIterator();
+
+					return new Iterator<Long>() {
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Long next() {
+							return iterator.nextLong();
+						}
+
+						@Override
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+			},
+			plan
+		);
+
+		Check.notNull(longs, "longs");
+
+		this.longs = longs;
+	}
+
+	@Override
+	public LongTraversable map(final LongFunc selector) {
+		Check.notNull(selector, "selector");
+
+		return new LongTraversableImpl(
+			new LongIterable() {
+				@Override
+				public LongIterator longIterator() {
+					return new LongMapIterator(longs.longIterator(), selector);
+				}
+			},
+			this.plan.then("map", "unboxed")
+		);
+	}
+
+	@Override
+	public LongTraversable select(final LongPredicate predicate) {
+		Check.notNull(predicate, "predicate");
+
+		return new LongTraversableImpl(
+			new LongIterable() {
+				@Override
+				public LongIterator longIterator() {
+					return new LongSelectIterator(longs.longIterator(), predicate);
+				}
+			},
+			this.plan.then("select", "unboxed")
+		);
+	}
+
+	@Override
+	public long count() {
+		long count = 0;
+
+		for (LongIterator iterator = this.longs.longIterator(); iterator.hasNext(); iterator.nextLong()) {
+			count++;
+		}
+
+		return count;
+	}
+
+	@Override
+	void aggregate(NumericAggregate aggregate) {
+		for (LongIterator iterator = this.longs.longIterator(); iterator.hasNext(); ) {
+			aggregate.acceptLong(iterator.nextLong());
+		}
+	}
+
+	@Override
+	public double average() {
+		long sum = 0;
+		long count = 0;
+
+		for (LongIterator iterator = this.longs.longIterator(); iterator.hasNext(); count++) {
+			sum += iterator.nextLong();
+		}
+
+		if (count == 0) {
+			throw new NoSuchElementException();
+		}
+
+		return (double) sum / count;
+	}
+
+	@Override
+	public long sum() {
+		long sum = 0;
+
+		for (LongIterator iterator = this.longs.longIterator(); iterator.hasNext(); ) {
+			sum += iterator.nextLong();
+		}
+
+		return sum;
+	}
+
+	@Override
+	public long min() {
+		LongIterator iterator = this.longs.longIterator();
+		long min = iterator.nextLong();
+
+		while (iterator.hasNext()) {
+			min = Math.min(min, iterator.nextLong());
+		}
+
+		return min;
+	}
+
+	@Override
+	public long max() {
+		LongIterator iterator = this.longs.longIterator();
+		long max = iterator.nextLong();
+
+		while (iterator.hasNext()) {
+			max = Math.max(max, iterator.nextLong());
+		}
+
+		return max;
+	}
+
+	@Override
+	public LongTraversable distinct() {
+		return new LongTraversableImpl(
+			new LongIterable() {
+				@Override
+				public LongIterator longIterator() {
+					long[] values = asArray();
+
+					// the sorted, unique values serve as a set; the flags remember what was already yielded
+					long[] set = values.clone();
+					Arrays.sort(set);
+
+					int size = 0;
+					for (int i = 0; i < set.length; i++) {
+						if (size == 0 || set[size - 1] != set[i]) {
+							set[size++] = set[i];
+						}
+					}
+
+					boolean[] yielded = new boolean[size];
+					int length = 0;
+
+					for (long value : values) {
+						int index = Arrays.binarySearch(set, 0, size, value);
+
+						if (!yielded[index]) {
+							yielded[index] = true;
+							values[length++] = value;
+						}
+					}
+
+					return new LongArrayIterator(values, length);
+				}
+			},
+			this.plan.then("distinct", "finds the distinct elements in a sorted copy, buffers all elements")
+		);
+	}
+
+	@Override
+	public LongTraversable sort() {
+		return new LongTraversableImpl(
+			new LongIterable() {
+				@Override
+				public LongIterator longIterator() {
+					long[] values = asArray();
+					Arrays.sort(values);
+
+					return new LongArrayIterator(values, values.length);
+				}
+			},
+			this.plan.then("sort", "buffers all elements")
+		);
+	}
+
+	@Override
+	public long[] asArray() {
+		long[] array = new long[16];
+		int length = 0;
+
+		for (LongIterator iterator = this.longs.longIterator(); iterator.hasNext(); ) {
+			if (length == array.length) {
+				array = Arrays.copyOf(array, length * 2);
+			}
+
+			array[length++] = iterator.nextLong();
+		}
+
+		return Arrays.copyOf(array, length);
+	}
+}
@@ -0,0 +1,56 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ch.julien.common.delegate.Func;
+
+/**
+ * Elements of a sequence hashed by key, the build side of a hash join.
+ * <p/>
+ * Elements whose key is {@code null} are left out: a {@code null} key does not match any other key, not even
+ * {@code null}.
+ */
+class Lookup<TKey, TElement> {
+	private final Map<TKey, List<TElement>> groups = new HashMap<TKey, List<TElement>>();
+
+	static <TKey, TElement> Lookup<TKey, TElement> of(Iterable<? extends TElement> source, final Func<? super TElement, TKey> keySelector) {
+		final Lookup<TKey, TElement> lookup = new Lookup<TKey, TElement>();
+
+		TraversableImpl.push(source,
+			new Sink<TElement>() {
+				@Override
+				public boolean accept(TElement element) {
+					lookup.add(keySelector.invoke(element), element);
+					return true;
+				}
+			}
+		);
+
+		return lookup;
+	}
+
+	private void add(TKey key, TElement element) {
+		if (key == null) {
+			return;
+		}
+
+		List<TElement> group = this.groups.get(key);
+
+		if (group == null) {
+			group = new ArrayList<TElement>(1);
+			this.groups.put(key, group);
+		}
+
+		group.add(element);
+	}
+
+	/**
+	 * @return The elements with the given key in their original order, {@code null} if there are none.
+	 */
+	List<TElement> get(TKey key) {
+		return key == null ? null : this.groups.get(key);
+	}
+}
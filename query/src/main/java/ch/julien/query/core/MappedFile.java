@@ -0,0 +1,73 @@
+package ch.julien.query.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import ch.julien.common.contract.Check;
+
+/**
+ * Maps files read-only into memory region by region, since a single mapping cannot exceed {@link Integer#MAX_VALUE}
+ * bytes. The regions are not copied onto the heap; they stay valid after the channel is closed and are unmapped
+ * once they are garbage collected.
+ */
+final class MappedFile {
+	/** Upper bound of the size of a region, in bytes. */
+	static final int MAX_REGION_SIZE = 1 << 30;
+
+	private MappedFile() {
+	}
+
+	/**
+	 * @return The regions covering the whole file in {@code order}, each of them a multiple of {@code width} bytes
+	 * long and all but the last one of the same size.
+	 * @throws IllegalArgumentException if the size of the file is not a multiple of {@code width}
+	 */
+	static ByteBuffer[] map(FileChannel channel, int width, ByteOrder order, int maxRegionSize) throws IOException {
+		Check.notNull(channel, "channel");
+		Check.notNull(order, "order");
+
+		if (width <= 0 || width > maxRegionSize) {
+			throw new IllegalArgumentException("width must be between 1 and " + maxRegionSize + ".");
+		}
+
+		long size = channel.size();
+
+		if (size % width != 0) {
+			throw new IllegalArgumentException("size of the file must be a multiple of " + width + " bytes.");
+		}
+
+		long regionSize = maxRegionSize / width * width;
+		ByteBuffer[] regions = new ByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+
+		for (int i = 0; i < regions.length; i++) {
+			long position = i * regionSize;
+
+			regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, size - position)).order(order);
+		}
+
+		return regions;
+	}
+
+	/**
+	 * @return The number of elements of {@code width} bytes in {@code regions}.
+	 */
+	static long elements(ByteBuffer[] regions, int width) {
+		long size = 0;
+
+		for (ByteBuffer region : regions) {
+			size += region.remaining() / width;
+		}
+
+		return size;
+	}
+
+	/**
+	 * @return The description of a mapped file for {@link Plan#source(Object, String)}.
+	 */
+	static String describe(ByteBuffer[] regions, long elements) {
+		return "mapped read-only in " + regions.length + (regions.length == 1 ? " region, " : " regions, ")
+			+ (elements == 1 ? "1 element" : elements + " elements");
+	}
+}
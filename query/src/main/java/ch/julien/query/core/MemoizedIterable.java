@@ -0,0 +1,85 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import ch.julien.common.contract.Check;
+
+/**
+ * Computes the elements of its source at most once.
+ * <p/>
+ * All iterators share a single cursor on the source and a buffer of the elements it yielded so far. An iterator
+ * replays the buffer and only advances the cursor once it is ahead of all others, so the source is traversed
+ * incrementally, at most once, no matter how many iterators there are. Iterators may be used concurrently.
+ */
+class MemoizedIterable<T> implements Iterable<T> {
+	private final Iterable<? extends T> source;
+	private final List<T> buffer = new ArrayList<T>();
+
+	private Iterator<? extends T> cursor;
+	private boolean exhausted = false;
+
+	public MemoizedIterable(Iterable<? extends T> source) {
+		Check.notNull(source, "source");
+
+		this.source = source;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return reach(this.index);
+			}
+
+			@Override
+			public T next() {
+				if (!reach(this.index)) {
+					throw new NoSuchElementException();
+				}
+
+				return get(this.index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * @return {@code true} if there is an element at {@code index}, advancing the cursor up to it if necessary.
+	 */
+	private synchronized boolean reach(int index) {
+		while (index >= this.buffer.size()) {
+			if (this.exhausted) {
+				return false;
+			}
+
+			if (this.cursor == null) {
+				this.cursor = this.source.iterator();
+			}
+
+			if (!this.cursor.hasNext()) {
+				this.exhausted = true;
+				this.cursor = null;
+
+				return false;
+			}
+
+			this.buffer.add(this.cursor.next());
+		}
+
+		return true;
+	}
+
+	private synchronized T get(int index) {
+		return this.buffer.get(index);
+	}
+}
@@ -0,0 +1,244 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import ch.julien.common.delegate.Func2;
+
+/**
+ * Set operations and joins of sequences sorted by compatible {@link KeySort}s, computed by merging them run by run.
+ * <p/>
+ * Equal elements have equal keys, so they are found within the runs of equal keys of both sides. Only the current
+ * runs are buffered: if the keys are unique this is one element per side, no matter how long the sequences are.
+ */
+abstract class MergeIterator<TResult> implements Iterator<TResult> {
+	private final List<TResult> pending = new ArrayList<TResult>();
+	private int index = 0;
+	private boolean done = false;
+
+	/**
+	 * Merges the next runs into {@code pending}, which may add nothing.
+	 *
+	 * @return {@code false} if there are no more runs to merge.
+	 */
+	protected abstract boolean merge(List<TResult> pending);
+
+	@Override
+	public boolean hasNext() {
+		while (this.index >= this.pending.size()) {
+			if (this.done) {
+				return false;
+			}
+
+			this.pending.clear();
+			this.index = 0;
+
+			if (!merge(this.pending)) {
+				this.done = true;
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public TResult next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return this.pending.get(this.index++);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	static <T> Iterator<T> distinct(Iterator<? extends T> source, KeySort<?> keySort) {
+		final Runs<T> runs = new Runs<T>(source, keySort);
+		final Set<T> seen = new HashSet<T>();
+
+		return new MergeIterator<T>() {
+			@Override
+			protected boolean merge(List<T> pending) {
+				if (!runs.available()) {
+					return false;
+				}
+
+				seen.clear();
+				addDistinct(runs.run(), seen, pending);
+				runs.consume();
+
+				return true;
+			}
+		};
+	}
+
+	static <T> Iterator<T> intersect(Iterator<? extends T> source, Iterator<? extends T> other, final KeySort<?> keySort) {
+		final Runs<T> left = new Runs<T>(source, keySort);
+		final Runs<T> right = new Runs<T>(other, keySort);
+		final Set<T> contained = new HashSet<T>();
+		final Set<T> seen = new HashSet<T>();
+
+		return new MergeIterator<T>() {
+			@Override
+			protected boolean merge(List<T> pending) {
+				if (!left.available() || !right.available()) {
+					return false;
+				}
+
+				int comparison = keySort.compare(left.key(), right.key());
+
+				if (comparison < 0) {
+					left.consume();
+				} else if (comparison > 0) {
+					right.consume();
+				} else {
+					contained.clear();
+					contained.addAll(right.run());
+					seen.clear();
+
+					for (T element : left.run()) {
+						if (contained.contains(element) && seen.add(element)) {
+							pending.add(element);
+						}
+					}
+
+					left.consume();
+					right.consume();
+				}
+
+				return true;
+			}
+		};
+	}
+
+	static <T> Iterator<T> difference(Iterator<? extends T> source, Iterator<? extends T> other, final KeySort<?> keySort) {
+		final Runs<T> left = new Runs<T>(source, keySort);
+		final Runs<T> right = new Runs<T>(other, keySort);
+		final Set<T> excluded = new HashSet<T>();
+
+		return new MergeIterator<T>() {
+			@Override
+			protected boolean merge(List<T> pending) {
+				if (!left.available()) {
+					return false;
+				}
+
+				int comparison = !right.available() ? -1 : keySort.compare(left.key(), right.key());
+
+				if (comparison < 0) {
+					pending.addAll(left.run());
+					left.consume();
+				} else if (comparison > 0) {
+					right.consume();
+				} else {
+					excluded.clear();
+					excluded.addAll(right.run());
+
+					for (T element : left.run()) {
+						if (!excluded.contains(element)) {
+							pending.add(element);
+						}
+					}
+
+					left.consume();
+					right.consume();
+				}
+
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Joins the runs whose keys compare equal; within them, elements match if their keys are equal, as in a hash
+	 * join. {@code null} keys do not match. With {@code leftOuter}, elements of {@code source} without a match are
+	 * joined with {@code null}.
+	 */
+	static <TOuter, TInner, TResult> Iterator<TResult> join(Iterator<? extends TOuter> source, final KeySort<?> outerKeySort,
+		Iterator<? extends TInner> inner, KeySort<?> innerKeySort, final Func2<? super TOuter, ? super TInner, TResult> resultSelector,
+		final boolean leftOuter) {
+
+		final Runs<TOuter> left = new Runs<TOuter>(source, outerKeySort);
+		final Runs<TInner> right = new Runs<TInner>(inner, innerKeySort);
+
+		return new MergeIterator<TResult>() {
+			@Override
+			protected boolean merge(List<TResult> pending) {
+				if (!left.available()) {
+					return false;
+				}
+
+				if (right.available() && right.hasNullKey()) {
+					right.consume();
+					return true;
+				}
+
+				int comparison = !right.available() || left.hasNullKey() ? -1 : outerKeySort.compare(left.key(), right.key());
+
+				if (comparison < 0) {
+					if (!leftOuter && !right.available()) {
+						return false;
+					}
+
+					if (leftOuter) {
+						for (TOuter element : left.run()) {
+							pending.add(resultSelector.invoke(element, null));
+						}
+					}
+
+					left.consume();
+				} else if (comparison > 0) {
+					right.consume();
+				} else {
+					for (int i = 0; i < left.run().size(); i++) {
+						TOuter element = left.run().get(i);
+						Object[] key = left.keys().get(i);
+						boolean matched = false;
+
+						for (int j = 0; j < right.run().size(); j++) {
+							if (key[0] != null && Arrays.equals(key, right.keys().get(j))) {
+								pending.add(resultSelector.invoke(element, right.run().get(j)));
+								matched = true;
+							}
+						}
+
+						if (!matched && leftOuter) {
+							pending.add(resultSelector.invoke(element, null));
+						}
+					}
+
+					left.consume();
+					right.consume();
+				}
+
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Adds the elements of {@code run} which have not been {@code seen} yet. A single element is added without
+	 * hashing it.
+	 */
+	private static <T> void addDistinct(List<T> run, Set<T> seen, List<T> pending) {
+		if (run.size() == 1) {
+			pending.add(run.get(0));
+			return;
+		}
+
+		for (T element : run) {
+			if (seen.add(element)) {
+				pending.add(element);
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package ch.julien.query.core;
+
+import java.util.NoSuchElementException;
+
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.CountAccumulator;
+import ch.julien.common.delegate.DoubleAccumulator;
+import ch.julien.common.delegate.IntAccumulator;
+import ch.julien.common.delegate.LongAccumulator;
+
+/**
+ * Aggregation by an {@link IntAccumulator}, {@link LongAccumulator}, {@link DoubleAccumulator} or
+ * {@link CountAccumulator}, which keeps the accumulated value as a primitive and boxes it only once at the end.
+ * <p/>
+ * Boxed elements are converted like the accumulators convert them themselves, primitive sequences pass their
+ * elements with {@link #acceptLong(long)} and {@link #acceptDouble(double)}, so nothing is boxed.
+ */
+final class NumericAggregate implements Sink<Object> {
+	private final IntAccumulator ints;
+	private final LongAccumulator longs;
+	private final DoubleAccumulator doubles;
+	private final boolean count;
+
+	private int intValue;
+	private long longValue;
+	private double doubleValue;
+	private boolean empty;
+
+	private NumericAggregate(Accumulator<?, ?> accumulator) {
+		this.ints = accumulator instanceof IntAccumulator ? (IntAccumulator) accumulator : null;
+		this.longs = accumulator instanceof LongAccumulator ? (LongAccumulator) accumulator : null;
+		this.doubles = accumulator instanceof DoubleAccumulator ? (DoubleAccumulator) accumulator : null;
+		this.count = accumulator instanceof CountAccumulator;
+	}
+
+	/**
+	 * @return An aggregation starting with the first element, {@code null} if {@code accumulator} is not numeric.
+	 */
+	static NumericAggregate of(Accumulator<?, ?> accumulator) {
+		if (!isNumeric(accumulator)) {
+			return null;
+		}
+
+		NumericAggregate aggregate = new NumericAggregate(accumulator);
+		aggregate.empty = true;
+
+		return aggregate;
+	}
+
+	/**
+	 * @return An aggregation starting with {@code initial}, {@code null} if {@code accumulator} is not numeric or
+	 * there is no initial value.
+	 */
+	static NumericAggregate of(Accumulator<?, ?> accumulator, Object initial) {
+		if (!isNumeric(accumulator) || !(initial instanceof Number)) {
+			return null;
+		}
+
+		NumericAggregate aggregate = new NumericAggregate(accumulator);
+		aggregate.intValue = ((Number) initial).intValue();
+		aggregate.longValue = ((Number) initial).longValue();
+		aggregate.doubleValue = ((Number) initial).doubleValue();
+
+		return aggregate;
+	}
+
+	private static boolean isNumeric(Accumulator<?, ?> accumulator) {
+		return accumulator instanceof IntAccumulator || accumulator instanceof LongAccumulator || accumulator instanceof DoubleAccumulator
+			|| accumulator instanceof CountAccumulator;
+	}
+
+	@Override
+	public boolean accept(Object element) {
+		if (this.count) {
+			increment();
+			return true;
+		}
+
+		Number number = (Number) element;
+
+		if (this.ints != null) {
+			acceptInt(number.intValue());
+		} else if (this.longs != null) {
+			acceptLong(number.longValue());
+		} else {
+			acceptDouble(number.doubleValue());
+		}
+
+		return true;
+	}
+
+	void acceptInt(int element) {
+		if (this.ints == null) {
+			acceptLong(element);
+		} else if (this.empty) {
+			this.empty = false;
+			this.intValue = element;
+		} else {
+			this.intValue = this.ints.accumulate(this.intValue, element);
+		}
+	}
+
+	void acceptLong(long element) {
+		if (this.ints != null) {
+			acceptInt((int) element);
+		} else if (this.doubles != null) {
+			acceptDouble(element);
+		} else if (this.count) {
+			increment();
+		} else if (this.empty) {
+			this.empty = false;
+			this.longValue = element;
+		} else {
+			this.longValue = this.longs.accumulate(this.longValue, element);
+		}
+	}
+
+	void acceptDouble(double element) {
+		if (this.ints != null) {
+			acceptInt((int) element);
+		} else if (this.longs != null || this.count) {
+			acceptLong((long) element);
+		} else if (this.empty) {
+			this.empty = false;
+			this.doubleValue = element;
+		} else {
+			this.doubleValue = this.doubles.accumulate(this.doubleValue, element);
+		}
+	}
+
+	/**
+	 * Counts an element, the first one if there is no initial value.
+	 */
+	private void increment() {
+		this.longValue = this.empty ? 1 : this.longValue + 1;
+		this.empty = false;
+	}
+
+	/**
+	 * @return The boxed result, an {@link Integer}, {@link Long} or {@link Double} depending on the accumulator.
+	 * @throws NoSuchElementException if there is no initial value and there were no elements
+	 */
+	Object result() {
+		if (this.empty) {
+			throw new NoSuchElementException();
+		}
+
+		if (this.ints != null) {
+			return this.intValue;
+		}
+
+		return this.doubles == null ? (Object) this.longValue : (Object) this.doubleValue;
+	}
+}
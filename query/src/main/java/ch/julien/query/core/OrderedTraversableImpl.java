@@ -1,37 +1,44 @@
 package ch.julien.query.core;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.EqualityComparator;
 import ch.julien.common.delegate.Func;
-import ch.julien.common.monad.Indexed;
+import ch.julien.common.delegate.Func2;
+import ch.julien.query.CachePolicy;
 import ch.julien.query.OrderedTraversable;
+import ch.julien.query.Traversable;
 
 class OrderedTraversableImpl<TSource, TKey> extends TraversableImpl<TSource> implements OrderedTraversable<TSource, TKey> {
-	private final List<Comparator<TSource>> comparators;
+	private static final long UNBOUNDED = -1;
+	/** Describes operations merging two sequences sorted by compatible keys, whose other input is rendered below. */
+	private static final String MERGE = "merges both sequences ordered by compatible keys, buffers the current runs of equal keys";
+
+	private final Iterable<TSource> unsorted;
+	private final KeySort<TSource> keySort;
+	private final CachePolicy policy;
 
 	public static <TSource, TKey> OrderedTraversableImpl<TSource, TKey> create(Iterable<TSource> source, Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator,
 		boolean descending) {
 
-		return create(source, null, keySelector, comparator, descending);
+		return new OrderedTraversableImpl<TSource, TKey>(source, KeySort.<TSource, TKey>by(keySelector, comparator, descending), null);
 	}
 
-	private static <TSource, TKey> OrderedTraversableImpl<TSource, TKey> create(Iterable<TSource> source, List<Comparator<TSource>> comparators,
-		final Func<? super TSource, TKey> keySelector, final Comparator<TKey> comparator, final boolean descending) {
-
-		return new OrderedTraversableImpl<TSource, TKey>(
-			new OrderedIterable<TSource, TKey>(source, comparators, keySelector, comparator, descending)
-		);
+	private OrderedTraversableImpl(Iterable<TSource> unsorted, KeySort<TSource> keySort, CachePolicy policy) {
+		this(unsorted, keySort, policy, new OrderedIterable<TSource>(unsorted, keySort, 0, UNBOUNDED, policy == null ? null : new SortCache(policy)));
 	}
 
-	private OrderedTraversableImpl(OrderedIterable<TSource, TKey> source) {
-		super(source);
+	private OrderedTraversableImpl(Iterable<TSource> unsorted, KeySort<TSource> keySort, CachePolicy policy, OrderedIterable<TSource> sorted) {
+		super(sorted, sorted.plan());
 
-		this.comparators = source.comparators;
+		this.unsorted = unsorted;
+		this.keySort = keySort;
+		this.policy = policy;
 	}
 
 	@Override
@@ -41,9 +48,7 @@ class OrderedTraversableImpl<TSource, TKey> extends TraversableImpl<TSource> imp
 
 	@Override
 	public OrderedTraversable<TSource, TKey> thenBy(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator) {
-		return new OrderedTraversableImpl<TSource, TKey>(
-			new OrderedIterable<TSource, TKey>(this, comparators, keySelector, comparator, false)
-		);
+		return new OrderedTraversableImpl<TSource, TKey>(this.unsorted, this.keySort.then(keySelector, comparator, false), this.policy);
 	}
 
 	@Override
@@ -53,78 +58,354 @@ class OrderedTraversableImpl<TSource, TKey> extends TraversableImpl<TSource> imp
 
 	@Override
 	public OrderedTraversable<TSource, TKey> thenByDescending(Func<? super TSource, TKey> keySelector, Comparator<TKey> comparator) {
-		return new OrderedTraversableImpl<TSource, TKey>(
-			new OrderedIterable<TSource, TKey>(this, comparators, keySelector, comparator, true)
+		return new OrderedTraversableImpl<TSource, TKey>(this.unsorted, this.keySort.then(keySelector, comparator, true), this.policy);
+	}
+
+	@Override
+	public OrderedTraversable<TSource, TKey> cached(CachePolicy policy) {
+		Check.notNull(policy, "policy");
+
+		return new OrderedTraversableImpl<TSource, TKey>(this.unsorted, this.keySort, policy);
+	}
+
+	@Override
+	public Traversable<TSource> top(long count) {
+		return take(count);
+	}
+
+	@Override
+	public Traversable<TSource> distinct(EqualityComparator<? super TSource> equalityComparator) {
+		if (!(equalityComparator instanceof DefaultEqualityComparator)) {
+			return super.distinct(equalityComparator);
+		}
+
+		final KeySort<TSource> keySort = this.keySort;
+
+		return new TraversableImpl<TSource>(
+			new Iterable<TSource>() {
+				@Override
+				public Iterator<TSource> iterator() {
+					return MergeIterator.distinct(source.iterator(), keySort);
+				}
+			},
+			this.plan.then("distinct", "merges the runs of equal keys, buffers the current run")
 		);
 	}
 
+	@Override
+	public Traversable<TSource> intersect(final Iterable<? extends TSource> other, EqualityComparator<TSource> equalityComparator) {
+		if (!(equalityComparator instanceof DefaultEqualityComparator) || !isMergeable(other)) {
+			return super.intersect(other, equalityComparator);
+		}
 
-	private static class OrderedIterable<TSource, TKey> implements Iterable<TSource> {
-		private final Iterable<TSource> source;
-		private final List<Comparator<TSource>> comparators;
+		final KeySort<TSource> keySort = this.keySort;
 
-		public OrderedIterable(Iterable<TSource> source, List<Comparator<TSource>> comparators,
-			final Func<? super TSource, TKey> keySelector, final Comparator<TKey> comparator, final boolean descending) {
+		return new TraversableImpl<TSource>(
+			new Iterable<TSource>() {
+				@Override
+				public Iterator<TSource> iterator() {
+					return MergeIterator.intersect(source.iterator(), other.iterator(), keySort);
+				}
+			},
+			this.plan.then("intersect", MERGE, Plan.source(other))
+		);
+	}
 
-			Check.notNull(source, "source");
-			Check.notNull(keySelector, "keySelector");
+	@Override
+	public Traversable<TSource> difference(final Iterable<? extends TSource> other, EqualityComparator<TSource> equalityComparator) {
+		if (!(equalityComparator instanceof DefaultEqualityComparator) || !isMergeable(other)) {
+			return super.difference(other, equalityComparator);
+		}
 
-			this.source = source;
+		final KeySort<TSource> keySort = this.keySort;
+
+		return new TraversableImpl<TSource>(
+			new Iterable<TSource>() {
+				@Override
+				public Iterator<TSource> iterator() {
+					return MergeIterator.difference(source.iterator(), other.iterator(), keySort);
+				}
+			},
+			this.plan.then("difference", MERGE, Plan.source(other))
+		);
+	}
+
+	@Override
+	public <TInner, TJoinKey, TResult> Traversable<TResult> join(Iterable<TInner> inner, Func<? super TSource, TJoinKey> outerKeySelector,
+		Func<? super TInner, TJoinKey> innerKeySelector, Func2<? super TSource, ? super TInner, TResult> resultSelector) {
 
-			final Comparator<TKey> comparer = comparator == null ? new DefaultComparator<TKey>() : comparator;
+		if (!isMergeable(inner, outerKeySelector, innerKeySelector)) {
+			return super.join(inner, outerKeySelector, innerKeySelector, resultSelector);
+		}
+
+		return mergeJoin("join", (OrderedTraversableImpl<TInner, ?>) inner, resultSelector, false);
+	}
+
+	@Override
+	public <TInner, TJoinKey, TResult> Traversable<TResult> leftJoin(Iterable<TInner> inner, Func<? super TSource, TJoinKey> outerKeySelector,
+		Func<? super TInner, TJoinKey> innerKeySelector, Func2<? super TSource, ? super TInner, TResult> resultSelector) {
+
+		if (!isMergeable(inner, outerKeySelector, innerKeySelector)) {
+			return super.leftJoin(inner, outerKeySelector, innerKeySelector, resultSelector);
+		}
+
+		return mergeJoin("leftJoin", (OrderedTraversableImpl<TInner, ?>) inner, resultSelector, true);
+	}
+
+	private <TInner, TResult> Traversable<TResult> mergeJoin(String operator, final OrderedTraversableImpl<TInner, ?> inner,
+		final Func2<? super TSource, ? super TInner, TResult> resultSelector, final boolean leftOuter) {
+
+		Check.notNull(resultSelector, "resultSelector");
+
+		final KeySort<TSource> keySort = this.keySort;
+		final KeySort<TInner> innerKeySort = inner.keySort;
+
+		return new TraversableImpl<TResult>(
+			new Iterable<TResult>() {
+				@Override
+				public Iterator<TResult> iterator() {
+					return MergeIterator.join(source.iterator(), keySort, inner.iterator(), innerKeySort, resultSelector, leftOuter);
+				}
+			},
+			this.plan.then(operator, MERGE, Plan.source(inner))
+		);
+	}
+
+	/**
+	 * @return Whether {@code other} is sorted by the same keys, comparators and directions, so that it can be
+	 * merged with this sequence.
+	 */
+	private boolean isMergeable(Iterable<?> other) {
+		return other instanceof OrderedTraversableImpl && this.keySort.isCompatible(((OrderedTraversableImpl<?, ?>) other).keySort);
+	}
+
+	/**
+	 * @return Whether {@code inner} is sorted, both sides by nothing but their join key with the same comparator
+	 * and direction, so that it can be merged with this sequence.
+	 */
+	private boolean isMergeable(Iterable<?> inner, Func<?, ?> outerKeySelector, Func<?, ?> innerKeySelector) {
+		return outerKeySelector != null && innerKeySelector != null && inner instanceof OrderedTraversableImpl
+			&& this.keySort.isCompatible(outerKeySelector, ((OrderedTraversableImpl<?, ?>) inner).keySort, innerKeySelector);
+	}
+
+	@Override
+	public Traversable<TSource> skip(long count) {
+		return new Window<TSource>(((OrderedIterable<TSource>) this.source).skip(count));
+	}
+
+	@Override
+	public Traversable<TSource> take(long count) {
+		return new Window<TSource>(((OrderedIterable<TSource>) this.source).take(count));
+	}
+
+	/**
+	 * Sorted sequence narrowed by {@code skip} and {@code take}, which only selects the elements up to its end
+	 * instead of sorting all of them.
+	 */
+	private static class Window<TSource> extends TraversableImpl<TSource> {
+		public Window(OrderedIterable<TSource> source) {
+			super(source, source.plan());
+		}
+
+		@Override
+		public Traversable<TSource> skip(long count) {
+			return new Window<TSource>(((OrderedIterable<TSource>) this.source).skip(count));
+		}
+
+		@Override
+		public Traversable<TSource> take(long count) {
+			return new Window<TSource>(((OrderedIterable<TSource>) this.source).take(count));
+		}
+	}
 
-			if (comparators == null) {
-				comparators = new ArrayList<Comparator<TSource>>();
+
+	/**
+	 * Sorted elements shared by a cached ordered sequence and all windows taken from it.
+	 */
+	private static class SortCache {
+		private static class Snapshot {
+			private final Object[] elements;
+			private final long createdAt;
+
+			public Snapshot(Object[] elements, long createdAt) {
+				this.elements = elements;
+				this.createdAt = createdAt;
 			}
+		}
+
+		private final CachePolicy policy;
+		private volatile Snapshot snapshot;
+
+		public SortCache(CachePolicy policy) {
+			this.policy = policy;
+		}
+
+		Object[] elements(Iterable<?> source, KeySort<?> keySort) {
+			Snapshot snapshot = this.snapshot;
+
+			if (snapshot == null || this.policy.isStale(snapshot.createdAt)) {
+				long createdAt = System.nanoTime();
+
+				Object[] elements = toArray(source);
+				int[] order = keySort.sort(elements);
 
-			comparators.add(
-				new Comparator<TSource>() {
-					@Override
-					public int compare(TSource a, TSource b) {
-						return (descending ? - 1 : 1) * comparer.compare(
-							keySelector.invoke(a), keySelector.invoke(b)
-						);
-					}
+				Object[] sorted = new Object[elements.length];
+				for (int i = 0; i < sorted.length; i++) {
+					sorted[i] = elements[order[i]];
 				}
-			);
 
-			this.comparators = comparators;
+				// concurrent iterations may compute the same order twice, the last one wins
+				snapshot = new Snapshot(sorted, createdAt);
+				this.snapshot = snapshot;
+			}
+
+			return snapshot.elements;
+		}
+	}
+
+	private static class OrderedIterable<TSource> implements Iterable<TSource> {
+		private final Iterable<TSource> source;
+		private final KeySort<TSource> keySort;
+		private final long offset;
+		private final long limit;
+		private final SortCache cache;
+
+		public OrderedIterable(Iterable<TSource> source, KeySort<TSource> keySort, long offset, long limit, SortCache cache) {
+			Check.notNull(source, "source");
+
+			this.source = source;
+			this.keySort = keySort;
+			this.offset = offset;
+			this.limit = limit;
+			this.cache = cache;
+		}
+
+		OrderedIterable<TSource> skip(long count) {
+			if (count <= 0) {
+				return this;
+			}
+
+			long offset = this.offset + count < 0 ? Long.MAX_VALUE : this.offset + count;
+			long limit = this.limit == UNBOUNDED ? UNBOUNDED : Math.max(0, this.limit - count);
+
+			return new OrderedIterable<TSource>(this.source, this.keySort, offset, limit, this.cache);
+		}
+
+		OrderedIterable<TSource> take(long count) {
+			count = Math.max(0, count);
+			long limit = this.limit == UNBOUNDED ? count : Math.min(this.limit, count);
+
+			return new OrderedIterable<TSource>(this.source, this.keySort, this.offset, limit, this.cache);
 		}
 
 		@Override
 		public Iterator<TSource> iterator() {
-			List<Indexed<TSource>> items = new ArrayList<Indexed<TSource>>();
+			if (this.cache != null) {
+				Object[] elements = this.cache.elements(this.source, this.keySort);
 
-			long index = 0;
-			for (TSource item : this.source) {
-				items.add(new Indexed<TSource>(index++, item));
+				return new OrderedIterator<TSource>(elements, null, from(elements.length), to(elements.length));
 			}
 
-			Collections.sort(items,
-				new Comparator<Indexed<TSource>>() {
-					@Override
-					public int compare(Indexed<TSource> a, Indexed<TSource> b) {
-						for (Comparator<TSource> comparator : comparators) {
-							int result = comparator.compare(a.getValue(), b.getValue());
+			if (selectsTop()) {
+				Object[] elements = this.keySort.top(this.source, (int) (this.offset + this.limit));
 
-							if (result != 0) {
-								return result;
-							}
-						}
+				return new OrderedIterator<TSource>(elements, null, from(elements.length), elements.length);
+			}
 
-						return Long.valueOf(a.getIndex()).compareTo(b.getIndex());
-					}
-				}
-			);
-
-			return new TraversableImpl<Indexed<TSource>>(items).map(
-				new Func<Indexed<TSource>, TSource>() {
-					@Override
-					public TSource invoke(Indexed<TSource> item) {
-						return item.getValue();
-					}
-				}
-			).iterator();
+			Object[] elements = toArray(this.source);
+			int[] order = this.keySort.sort(elements);
+
+			return new OrderedIterator<TSource>(elements, order, from(elements.length), to(elements.length));
+		}
+
+		/**
+		 * @return {@code true} if only the elements up to the end of the window are selected instead of sorting all.
+		 */
+		private boolean selectsTop() {
+			return this.limit != UNBOUNDED && this.offset <= KeySort.MAX_TOP_COUNT && this.limit <= KeySort.MAX_TOP_COUNT - this.offset;
+		}
+
+		Plan plan() {
+			StringBuilder details = new StringBuilder();
+
+			details.append(this.keySort.levelCount() == 1 ? "1 key, " : this.keySort.levelCount() + " keys, ");
+
+			if (this.cache != null) {
+				details.append("full sort, cached until stale, buffers all elements");
+			} else if (selectsTop()) {
+				details.append("top-k selection of the first ").append(this.offset + this.limit)
+					.append(", buffers at most ").append(2 * (this.offset + this.limit));
+			} else {
+				details.append("full stable merge sort, buffers all elements");
+			}
+
+			if (this.offset > 0 || this.limit != UNBOUNDED) {
+				details.append(", yields ").append(this.limit == UNBOUNDED ? "all" : String.valueOf(this.limit))
+					.append(" from index ").append(this.offset);
+			}
+
+			return Plan.source(this.source).then("sortBy", details.toString());
+		}
+
+		private int from(int length) {
+			return (int) Math.min(this.offset, length);
+		}
+
+		private int to(int length) {
+			return this.limit == UNBOUNDED ? length : (int) Math.min(length, from(length) + this.limit);
+		}
+	}
+
+	private static Object[] toArray(Iterable<?> source) {
+		if (source instanceof Collection) {
+			return ((Collection<?>) source).toArray();
+		}
+
+		ArrayList<Object> list = new ArrayList<Object>();
+
+		for (Object element : source) {
+			list.add(element);
+		}
+
+		return list.toArray();
+	}
+
+	/**
+	 * Iterates {@code elements} in the given {@code order}, or as they are if there is no order.
+	 */
+	private static class OrderedIterator<TSource> implements Iterator<TSource> {
+		private final Object[] elements;
+		private final int[] order;
+		private final int to;
+		private int index;
+
+		public OrderedIterator(Object[] elements, int[] order, int from, int to) {
+			this.elements = elements;
+			this.order = order;
+			this.index = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.index < this.to;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public TSource next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			int index = this.index++;
+
+			return (TSource) this.elements[this.order == null ? index : this.order[index]];
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
 		}
 	}
 }
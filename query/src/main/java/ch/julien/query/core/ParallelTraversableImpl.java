@@ -0,0 +1,422 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Action2;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.common.delegate.Predicate;
+import ch.julien.query.Collector;
+import ch.julien.query.ParallelTraversable;
+import ch.julien.query.Traversable;
+import ch.julien.query.util.Collectors;
+
+class ParallelTraversableImpl<TSource, T> implements ParallelTraversable<T> {
+	/** Partitions are not split any further below this size. */
+	static final int MIN_PARTITION_SIZE = 1024;
+
+	private static class DefaultPool {
+		static final ForkJoinPool INSTANCE = new ForkJoinPool();
+	}
+
+	/**
+	 * Per-element operation which is applied by wrapping the sink of the next operation.
+	 */
+	interface Stage<TIn, TOut> {
+		Sink<TIn> wrap(Sink<? super TOut> downstream);
+	}
+
+	/**
+	 * Terminal operation: every partition pushes into its own {@link Partial}, the results of adjacent
+	 * partitions are combined afterwards.
+	 */
+	private abstract static class Reduction<T, TResult> {
+		abstract Partial<T, TResult> partial();
+
+		abstract TResult combine(TResult left, TResult right);
+
+		boolean isCancelled() {
+			return false;
+		}
+	}
+
+	private abstract static class Partial<T, TResult> implements Sink<T> {
+		abstract TResult result();
+	}
+
+	private final Iterable<? extends TSource> source;
+	private final Stage<TSource, T> stage;
+	private final ForkJoinPool pool;
+
+	static <T> ParallelTraversableImpl<T, T> create(Iterable<? extends T> source, ForkJoinPool pool) {
+		return new ParallelTraversableImpl<T, T>(source,
+			new Stage<T, T>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				public Sink<T> wrap(Sink<? super T> downstream) {
+					return (Sink<T>) downstream;
+				}
+			},
+			pool
+		);
+	}
+
+	static ForkJoinPool defaultPool() {
+		return DefaultPool.INSTANCE;
+	}
+
+	private ParallelTraversableImpl(Iterable<? extends TSource> source, Stage<TSource, T> stage, ForkJoinPool pool) {
+		Check.notNull(source, "source");
+		Check.notNull(pool, "pool");
+
+		this.source = source;
+		this.stage = stage;
+		this.pool = pool;
+	}
+
+	private <TResult> ParallelTraversableImpl<TSource, TResult> then(final Stage<T, TResult> next) {
+		return new ParallelTraversableImpl<TSource, TResult>(this.source,
+			new Stage<TSource, TResult>() {
+				@Override
+				public Sink<TSource> wrap(Sink<? super TResult> downstream) {
+					return stage.wrap(next.wrap(downstream));
+				}
+			},
+			this.pool
+		);
+	}
+
+	@Override
+	public <TAccumulate> TAccumulate aggregate(final TAccumulate initial, final Accumulator<TAccumulate, ? super T> accumulator,
+		final Accumulator<TAccumulate, TAccumulate> combiner) {
+
+		Check.notNull(accumulator, "accumulator");
+		Check.notNull(combiner, "combiner");
+
+		return reduce(
+			new Reduction<T, TAccumulate>() {
+				@Override
+				Partial<T, TAccumulate> partial() {
+					return new Partial<T, TAccumulate>() {
+						private TAccumulate accumulate = initial;
+
+						@Override
+						public boolean accept(T element) {
+							this.accumulate = accumulator.accumulate(this.accumulate, element);
+							return true;
+						}
+
+						@Override
+						TAccumulate result() {
+							return this.accumulate;
+						}
+					};
+				}
+
+				@Override
+				TAccumulate combine(TAccumulate left, TAccumulate right) {
+					return combiner.accumulate(left, right);
+				}
+			}
+		);
+	}
+
+	@Override
+	public boolean all(final Predicate<? super T> predicate) {
+		Check.notNull(predicate, "predicate");
+
+		return !any(
+			new Predicate<T>() {
+				@Override
+				public boolean invoke(T arg) {
+					return !predicate.invoke(arg);
+				}
+			}
+		);
+	}
+
+	@Override
+	public boolean any() {
+		final AtomicBoolean found = new AtomicBoolean(false);
+
+		return reduce(
+			new Reduction<T, Boolean>() {
+				@Override
+				Partial<T, Boolean> partial() {
+					return new Partial<T, Boolean>() {
+						@Override
+						public boolean accept(T element) {
+							found.set(true);
+							return false;
+						}
+
+						@Override
+						Boolean result() {
+							return found.get();
+						}
+					};
+				}
+
+				@Override
+				Boolean combine(Boolean left, Boolean right) {
+					return left || right;
+				}
+
+				@Override
+				boolean isCancelled() {
+					return found.get();
+				}
+			}
+		);
+	}
+
+	@Override
+	public boolean any(Predicate<? super T> predicate) {
+		return select(predicate).any();
+	}
+
+	@Override
+	public ArrayList<T> asArrayList() {
+		return reduce(
+			new Reduction<T, ArrayList<T>>() {
+				@Override
+				Partial<T, ArrayList<T>> partial() {
+					return new Partial<T, ArrayList<T>>() {
+						private final ArrayList<T> list = new ArrayList<T>();
+
+						@Override
+						public boolean accept(T element) {
+							this.list.add(element);
+							return true;
+						}
+
+						@Override
+						ArrayList<T> result() {
+							return this.list;
+						}
+					};
+				}
+
+				@Override
+				ArrayList<T> combine(ArrayList<T> left, ArrayList<T> right) {
+					left.addAll(right);
+					return left;
+				}
+			}
+		);
+	}
+
+	@Override
+	public <TContainer> TContainer collect(Func0<TContainer> supplier, Action2<TContainer, ? super T> accumulator, Action2<TContainer, TContainer> combiner) {
+		return collect(Collectors.<T, TContainer>of(supplier, accumulator, combiner));
+	}
+
+	@Override
+	public <TContainer, TResult> TResult collect(final Collector<? super T, TContainer, TResult> collector) {
+		Check.notNull(collector, "collector");
+
+		return collector.finish(reduce(
+			new Reduction<T, TContainer>() {
+				@Override
+				Partial<T, TContainer> partial() {
+					return new Partial<T, TContainer>() {
+						// the stages may drop elements, so the size of the partition is no hint
+						private final TContainer container = collector.supply(-1);
+
+						@Override
+						public boolean accept(T element) {
+							collector.accumulate(this.container, element);
+							return true;
+						}
+
+						@Override
+						TContainer result() {
+							return this.container;
+						}
+					};
+				}
+
+				@Override
+				TContainer combine(TContainer left, TContainer right) {
+					return collector.combine(left, right);
+				}
+			}
+		));
+	}
+
+	@Override
+	public long count() {
+		return reduce(
+			new Reduction<T, Long>() {
+				@Override
+				Partial<T, Long> partial() {
+					return new Partial<T, Long>() {
+						private long count = 0;
+
+						@Override
+						public boolean accept(T element) {
+							this.count++;
+							return true;
+						}
+
+						@Override
+						Long result() {
+							return this.count;
+						}
+					};
+				}
+
+				@Override
+				Long combine(Long left, Long right) {
+					return left + right;
+				}
+			}
+		);
+	}
+
+	@Override
+	public ParallelTraversable<T> each(final Action<? super T> action) {
+		Check.notNull(action, "action");
+
+		return then(
+			new Stage<T, T>() {
+				@Override
+				public Sink<T> wrap(final Sink<? super T> downstream) {
+					return new Sink<T>() {
+						@Override
+						public boolean accept(T element) {
+							action.invoke(element);
+							return downstream.accept(element);
+						}
+					};
+				}
+			}
+		);
+	}
+
+	@Override
+	public <TResult> ParallelTraversable<TResult> map(final Func<? super T, TResult> resultSelector) {
+		Check.notNull(resultSelector, "resultSelector");
+
+		return then(
+			new Stage<T, TResult>() {
+				@Override
+				public Sink<T> wrap(final Sink<? super TResult> downstream) {
+					return new Sink<T>() {
+						@Override
+						public boolean accept(T element) {
+							return downstream.accept(resultSelector.invoke(element));
+						}
+					};
+				}
+			}
+		);
+	}
+
+	@Override
+	public ParallelTraversable<T> select(final Predicate<? super T> predicate) {
+		Check.notNull(predicate, "predicate");
+
+		return then(
+			new Stage<T, T>() {
+				@Override
+				public Sink<T> wrap(final Sink<? super T> downstream) {
+					return new Sink<T>() {
+						@Override
+						public boolean accept(T element) {
+							return !predicate.invoke(element) || downstream.accept(element);
+						}
+					};
+				}
+			}
+		);
+	}
+
+	@Override
+	public Traversable<T> sequential() {
+		return new TraversableImpl<T>(
+			new Iterable<T>() {
+				@Override
+				public Iterator<T> iterator() {
+					return asArrayList().iterator();
+				}
+			},
+			Plan.source(this.source).then("parallel", "runs on a fork-join pool, buffers all elements")
+		);
+	}
+
+	private <TResult> TResult reduce(Reduction<T, TResult> reduction) {
+		List<? extends TSource> list = randomAccess(this.source);
+
+		int partitionSize = Math.max(MIN_PARTITION_SIZE, list.size() / (this.pool.getParallelism() * 4));
+
+		return this.pool.invoke(new ReduceTask<TResult>(list, reduction, partitionSize, 0, list.size()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<? extends T> randomAccess(Iterable<? extends T> source) {
+		if (source instanceof List && source instanceof RandomAccess) {
+			return (List<? extends T>) source;
+		}
+
+		// not splittable: buffer it first
+		List<T> list = new ArrayList<T>();
+
+		for (T element : source) {
+			list.add(element);
+		}
+
+		return list;
+	}
+
+	@SuppressWarnings("serial")
+	private class ReduceTask<TResult> extends RecursiveTask<TResult> {
+		private final List<? extends TSource> list;
+		private final Reduction<T, TResult> reduction;
+		private final int partitionSize;
+		private final int from;
+		private final int to;
+
+		public ReduceTask(List<? extends TSource> list, Reduction<T, TResult> reduction, int partitionSize, int from, int to) {
+			this.list = list;
+			this.reduction = reduction;
+			this.partitionSize = partitionSize;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TResult compute() {
+			if (this.to - this.from <= this.partitionSize) {
+				Partial<T, TResult> partial = this.reduction.partial();
+				Sink<TSource> sink = stage.wrap(partial);
+
+				for (int i = this.from; i < this.to && !this.reduction.isCancelled(); i++) {
+					if (!sink.accept(this.list.get(i))) {
+						break;
+					}
+				}
+
+				return partial.result();
+			}
+
+			int middle = (this.from + this.to) >>> 1;
+
+			ReduceTask<TResult> left = new ReduceTask<TResult>(this.list, this.reduction, this.partitionSize, this.from, middle);
+			left.fork();
+
+			TResult right = new ReduceTask<TResult>(this.list, this.reduction, this.partitionSize, middle, this.to).compute();
+
+			return this.reduction.combine(left.join(), right);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package ch.julien.query.core;
+
+import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import ch.julien.common.delegate.EqualityComparator;
+import ch.julien.common.delegate.HashingEqualityComparator;
+
+/**
+ * Structural description of how a sequence computes its elements, rendered by
+ * {@link ch.julien.query.Traversable#explain()}.
+ * <p/>
+ * A plan is a chain from the source to the last operation. Operations with further input sequences, like
+ * {@code concat} or {@code zip}, refer to their plans as well, which are rendered indented below them.
+ */
+final class Plan {
+	private static final String INDENT = "  ";
+
+	private final Plan upstream;
+	private final Object source;
+	private final String operator;
+	private final String details;
+	private final Plan[] others;
+
+	private Plan(Plan upstream, Object source, String operator, String details, Plan[] others) {
+		this.upstream = upstream;
+		this.source = source;
+		this.operator = operator;
+		this.details = details;
+		this.others = others;
+	}
+
+	/**
+	 * @param source An {@link Iterable}, an array or any other source of elements.
+	 * @return The plan of {@code source} if it is a sequence itself, a description of its type and size otherwise.
+	 */
+	static Plan source(Object source) {
+		if (source instanceof TraversableImpl) {
+			return ((TraversableImpl<?>) source).plan;
+		}
+
+		return new Plan(null, source, "source", null, new Plan[0]);
+	}
+
+	/**
+	 * @param details What the description of {@code source} does not tell, like how it is read.
+	 */
+	static Plan source(Object source, String details) {
+		return new Plan(null, source, "source", details, new Plan[0]);
+	}
+
+	Plan then(String operator, String details, Plan... others) {
+		return new Plan(this, null, operator, details, others);
+	}
+
+	/**
+	 * @return Whether elements which are equal according to {@code equalityComparator} are found by hashing them,
+	 * or only by comparing them one by one.
+	 */
+	static String lookup(EqualityComparator<?> equalityComparator) {
+		if (equalityComparator instanceof DefaultEqualityComparator || equalityComparator instanceof HashingEqualityComparator) {
+			return "hash lookup";
+		}
+
+		return "linear lookup, the equality comparator does not hash";
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+
+		render(builder, "");
+
+		return builder.toString();
+	}
+
+	private void render(StringBuilder builder, String indent) {
+		if (this.upstream != null) {
+			this.upstream.render(builder, indent);
+			builder.append('\n');
+		}
+
+		builder.append(indent).append(this.operator);
+
+		if (this.source != null) {
+			builder.append(": ").append(describe(this.source));
+
+			if (this.details != null) {
+				builder.append(", ").append(this.details);
+			}
+		} else if (this.details != null) {
+			builder.append(": ").append(this.details);
+		}
+
+		for (Plan other : this.others) {
+			builder.append('\n');
+			other.render(builder, indent + INDENT);
+		}
+	}
+
+	private static String describe(Object source) {
+		if (source.getClass().isArray()) {
+			return "array " + source.getClass().getComponentType().getSimpleName() + "[], " + elements(Array.getLength(source));
+		}
+
+		String name = source.getClass().getSimpleName().isEmpty() ? source.getClass().getName() : source.getClass().getSimpleName();
+
+		if (source instanceof Buffer) {
+			Buffer buffer = (Buffer) source;
+
+			return "buffer " + name + (buffer.isDirect() ? ", direct, " : ", ") + elements(buffer.remaining());
+		}
+
+		if (source instanceof FileChannel) {
+			return "file channel " + name;
+		}
+
+		if (source instanceof List) {
+			return "list " + name + (source instanceof RandomAccess ? ", random access, " : ", ") + elements(((List<?>) source).size());
+		}
+
+		if (source instanceof Set) {
+			return "set " + name + ", " + elements(((Set<?>) source).size());
+		}
+
+		if (source instanceof Collection) {
+			return "collection " + name + ", " + elements(((Collection<?>) source).size());
+		}
+
+		return (source instanceof Iterable ? "iterable " : "") + name + ", unsized";
+	}
+
+	private static String elements(int count) {
+		return count == 1 ? "1 element" : count + " elements";
+	}
+}
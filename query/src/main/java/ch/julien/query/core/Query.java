@@ -1,7 +1,17 @@
 package ch.julien.query.core;
 
+import ch.julien.query.DoubleTraversable;
+import ch.julien.query.IntTraversable;
+import ch.julien.query.LongTraversable;
 import ch.julien.query.Traversable;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 
 public final class Query {
@@ -31,7 +41,7 @@ public final class Query {
 		return new CharArrayTraversable(array);
 	}
 
-	public static Traversable<Double> from(double[] array) {
+	public static DoubleTraversable from(double[] array) {
 		return new DoubleArrayTraversable(array);
 	}
 
@@ -39,15 +49,74 @@ public final class Query {
 		return new FloatArrayTraversable(array);
 	}
 
-	public static Traversable<Integer> from(int[] array) {
+	public static IntTraversable from(int[] array) {
 		return new IntArrayTraversable(array);
 	}
 
-	public static Traversable<Long> from(long[] array) {
+	public static LongTraversable from(long[] array) {
 		return new LongArrayTraversable(array);
 	}
 
 	public static Traversable<Short> from(short[] array) {
 		return new ShortArrayTraversable(array);
 	}
+
+	/**
+	 * The bytes between the position and the limit of {@code buffer}, read in place. Like all buffer sources, later
+	 * changes of the position and the limit of {@code buffer} are not seen, changes of its contents are.
+	 */
+	public static Traversable<Byte> from(ByteBuffer buffer) {
+		return new ByteBufferTraversable(buffer);
+	}
+
+	public static DoubleTraversable from(DoubleBuffer buffer) {
+		return DoubleBufferTraversable.of(buffer);
+	}
+
+	public static IntTraversable from(IntBuffer buffer) {
+		return IntBufferTraversable.of(buffer);
+	}
+
+	public static LongTraversable from(LongBuffer buffer) {
+		return LongBufferTraversable.of(buffer);
+	}
+
+	/**
+	 * The consecutive records of {@code recordSize} bytes between the position and the limit of {@code buffer}, each
+	 * a read-only view in the byte order of {@code buffer}.
+	 *
+	 * @throws IllegalArgumentException if the remaining bytes are not a multiple of {@code recordSize}
+	 */
+	public static Traversable<ByteBuffer> records(ByteBuffer buffer, int recordSize) {
+		return RecordTraversable.of(buffer, recordSize);
+	}
+
+	/**
+	 * The consecutive records of {@code recordSize} bytes of the file, mapped read-only into memory instead of being
+	 * loaded onto the heap. Files larger than a single mapping are mapped region by region; the records can still be
+	 * accessed by index and split for {@link Traversable#parallel()}, up to {@link Integer#MAX_VALUE} records.
+	 *
+	 * @throws IllegalArgumentException if the size of the file is not a multiple of {@code recordSize}
+	 */
+	public static Traversable<ByteBuffer> records(FileChannel channel, int recordSize, ByteOrder order) throws IOException {
+		return RecordTraversable.mapped(channel, recordSize, order, MappedFile.MAX_REGION_SIZE);
+	}
+
+	/**
+	 * The {@code double} values of the file, mapped read-only into memory like {@link #records(FileChannel, int, ByteOrder)}.
+	 * Files of more than {@link Integer#MAX_VALUE} values are only traversed, not accessed by index.
+	 */
+	public static DoubleTraversable doubles(FileChannel channel, ByteOrder order) throws IOException {
+		return DoubleBufferTraversable.mapped(channel, order, MappedFile.MAX_REGION_SIZE);
+	}
+
+	/** @see #doubles(FileChannel, ByteOrder) */
+	public static IntTraversable ints(FileChannel channel, ByteOrder order) throws IOException {
+		return IntBufferTraversable.mapped(channel, order, MappedFile.MAX_REGION_SIZE);
+	}
+
+	/** @see #doubles(FileChannel, ByteOrder) */
+	public static LongTraversable longs(FileChannel channel, ByteOrder order) throws IOException {
+		return LongBufferTraversable.mapped(channel, order, MappedFile.MAX_REGION_SIZE);
+	}
 }
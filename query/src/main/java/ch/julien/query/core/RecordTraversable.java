@@ -0,0 +1,92 @@
+package ch.julien.query.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import ch.julien.common.contract.Check;
+
+/**
+ * Fixed-width records read in place from one or more byte buffers, like the regions of a mapped file. Every element
+ * is a read-only view of one record, created on access; the bytes are not copied.
+ */
+class RecordTraversable extends TraversableImpl<ByteBuffer> {
+	private static class RecordList extends AbstractList<ByteBuffer> implements RandomAccess {
+		private final ByteBuffer[] segments;
+		private final ByteOrder order;
+		private final int recordSize;
+		private final int recordsPerSegment;
+		private final int size;
+
+		public RecordList(ByteBuffer[] segments, ByteOrder order, int recordSize, int size) {
+			this.segments = segments;
+			this.order = order;
+			this.recordSize = recordSize;
+			this.recordsPerSegment = segments.length > 0 ? segments[0].remaining() / recordSize : 0;
+			this.size = size;
+		}
+
+		@Override
+		public ByteBuffer get(int index) {
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+
+			int offset = index % this.recordsPerSegment * this.recordSize;
+			ByteBuffer record = this.segments[index / this.recordsPerSegment].asReadOnlyBuffer();
+
+			record.position(offset);
+			record.limit(offset + this.recordSize);
+
+			// views of byte buffers are big-endian
+			return record.slice().order(this.order);
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	private RecordTraversable(ByteBuffer[] segments, ByteOrder order, int recordSize, int size, Plan plan) {
+		super(new RecordList(segments, order, recordSize, size), plan);
+	}
+
+	/**
+	 * @return The records between the position and the limit of {@code buffer}, in its byte order.
+	 * @throws IllegalArgumentException if the remaining bytes are not a multiple of {@code recordSize}
+	 */
+	static RecordTraversable of(ByteBuffer buffer, int recordSize) {
+		Check.notNull(buffer, "buffer");
+
+		if (recordSize <= 0) {
+			throw new IllegalArgumentException("recordSize must be greater than 0.");
+		}
+
+		if (buffer.remaining() % recordSize != 0) {
+			throw new IllegalArgumentException("remaining bytes of the buffer must be a multiple of " + recordSize + ".");
+		}
+
+		return new RecordTraversable(new ByteBuffer[] {buffer.slice()}, buffer.order(), recordSize, buffer.remaining() / recordSize,
+			Plan.source(buffer, "records of " + recordSize + " bytes"));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the size of the file is not a multiple of {@code recordSize} or if there
+	 * are more records than a list can be indexed by
+	 */
+	static RecordTraversable mapped(FileChannel channel, int recordSize, ByteOrder order, int maxRegionSize) throws IOException {
+		ByteBuffer[] regions = MappedFile.map(channel, recordSize, order, maxRegionSize);
+		long size = MappedFile.elements(regions, recordSize);
+
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("number of records must not exceed " + Integer.MAX_VALUE + ".");
+		}
+
+		return new RecordTraversable(regions, order, recordSize, (int) size,
+			Plan.source(channel, MappedFile.describe(regions, size) + ", records of " + recordSize + " bytes"));
+	}
+}
@@ -0,0 +1,104 @@
+package ch.julien.query.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads a sorted sequence run by run, a run being the consecutive elements with equal keys.
+ */
+class Runs<T> {
+	private final Iterator<? extends T> iterator;
+	private final KeySort<?> keySort;
+	private final List<T> run = new ArrayList<T>();
+	private final List<Object[]> keys = new ArrayList<Object[]>();
+
+	private Object[] key;
+	private boolean available = false;
+
+	private T next;
+	private Object[] nextKey;
+	private boolean started = false;
+
+	public Runs(Iterator<? extends T> iterator, KeySort<?> keySort) {
+		this.iterator = iterator;
+		this.keySort = keySort;
+	}
+
+	/**
+	 * Reads the next run unless the current one has not been consumed yet.
+	 *
+	 * @return {@code false} if there are no more runs.
+	 */
+	boolean available() {
+		if (this.available) {
+			return true;
+		}
+
+		if (!this.started) {
+			this.started = true;
+			fetch();
+		}
+
+		this.run.clear();
+		this.keys.clear();
+
+		if (this.nextKey == null) {
+			return false;
+		}
+
+		this.key = this.nextKey;
+
+		do {
+			this.run.add(this.next);
+			this.keys.add(this.nextKey);
+			fetch();
+		} while (this.nextKey != null && this.keySort.compare(this.key, this.nextKey) == 0);
+
+		this.available = true;
+
+		return true;
+	}
+
+	void consume() {
+		this.available = false;
+	}
+
+	List<T> run() {
+		return this.run;
+	}
+
+	Object[] key() {
+		return this.key;
+	}
+
+	/**
+	 * @return The keys of the elements of the current run, which compare equal but need not be equal.
+	 */
+	List<Object[]> keys() {
+		return this.keys;
+	}
+
+	/**
+	 * @return Whether one of the keys of the current run is {@code null}.
+	 */
+	boolean hasNullKey() {
+		for (Object key : this.key) {
+			if (key == null) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void fetch() {
+		if (this.iterator.hasNext()) {
+			this.next = this.iterator.next();
+			this.nextKey = this.keySort.keys(this.next);
+		} else {
+			this.next = null;
+			this.nextKey = null;
+		}
+	}
+}
@@ -2,50 +2,31 @@ package ch.julien.query.core;
 
 import ch.julien.common.contract.Check;
 
-import java.util.Iterator;
-import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 
 class ShortArrayTraversable extends TraversableImpl<Short> {
-	private static class ShortArrayIterator implements Iterator<Short> {
+	private static class ShortArrayList extends AbstractList<Short> implements RandomAccess {
 		private final short[] array;
-		private int index = 0;
 
-		public ShortArrayIterator(short[] array) {
+		public ShortArrayList(short[] array) {
 			Check.notNull(array, "array");
 
 			this.array = array;
 		}
 
 		@Override
-		public boolean hasNext() {
-			return this.index < this.array.length;
+		public Short get(int index) {
+			return this.array[index];
 		}
 
 		@Override
-		public Short next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
-			}
-
-			return this.array[this.index++];
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
+		public int size() {
+			return this.array.length;
 		}
 	}
 
 	public ShortArrayTraversable(final short[] source) {
-		super(
-			new TraversableImpl<Short>(
-				new Iterable<Short>() {
-					@Override
-					public Iterator<Short> iterator() {
-						return new ShortArrayIterator(source);
-					}
-				}
-			)
-		);
+		super(new ShortArrayList(source), Plan.source(source));
 	}
 }
@@ -0,0 +1,11 @@
+package ch.julien.query.core;
+
+/**
+ * Receiver of elements which are pushed by the source instead of being pulled by an {@link java.util.Iterator}.
+ */
+interface Sink<T> {
+	/**
+	 * @return {@code false} if the sink does not want to receive any more elements.
+	 */
+	boolean accept(T element);
+}
@@ -0,0 +1,165 @@
+package ch.julien.query.core;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Predicate;
+
+/**
+ * Per-element operation of a {@link FusedIterable}. Adjacent stages are run one after the other inside a
+ * single loop instead of being chained as separate iterators.
+ */
+abstract class Stage {
+	/** Returned by {@link #apply(Object)} if the element is dropped. */
+	static final Object SKIP = new Object();
+
+	/**
+	 * @return The instance to use for a single traversal. Stages with a per-traversal state return a fresh copy.
+	 */
+	Stage start() {
+		return this;
+	}
+
+	/**
+	 * @return The resulting element or {@link #SKIP}.
+	 */
+	abstract Object apply(Object element);
+
+	/**
+	 * @return Sink which applies this stage to the pushed elements and passes the results on to {@code downstream}.
+	 */
+	Sink<Object> wrap(final Sink<Object> downstream) {
+		return new Sink<Object>() {
+			@Override
+			public boolean accept(Object element) {
+				Object result = apply(element);
+
+				return result == SKIP || downstream.accept(result);
+			}
+		};
+	}
+
+	/**
+	 * @return {@code true} if no further element will pass this stage during the current traversal.
+	 */
+	boolean isExhausted() {
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if this stage may become {@link #isExhausted() exhausted}.
+	 */
+	boolean isLimiting() {
+		return false;
+	}
+
+	static Stage select(final Predicate<?> predicate) {
+		Check.notNull(predicate, "predicate");
+
+		return new Stage() {
+			@Override
+			@SuppressWarnings("unchecked")
+			Object apply(Object element) {
+				return ((Predicate<Object>) predicate).invoke(element) ? element : SKIP;
+			}
+		};
+	}
+
+	static Stage map(final Func<?, ?> resultSelector) {
+		Check.notNull(resultSelector, "resultSelector");
+
+		return new Stage() {
+			@Override
+			@SuppressWarnings("unchecked")
+			Object apply(Object element) {
+				return ((Func<Object, ?>) resultSelector).invoke(element);
+			}
+		};
+	}
+
+	static Stage each(final Action<?> action) {
+		Check.notNull(action, "action");
+
+		return new Stage() {
+			@Override
+			@SuppressWarnings("unchecked")
+			Object apply(Object element) {
+				((Action<Object>) action).invoke(element);
+				return element;
+			}
+		};
+	}
+
+	static Stage skip(long count) {
+		return new Skip(count);
+	}
+
+	static Stage take(long count) {
+		return new Take(count);
+	}
+
+	private static class Skip extends Stage {
+		private final long count;
+		private long skipped = 0;
+
+		public Skip(long count) {
+			this.count = count;
+		}
+
+		@Override
+		Stage start() {
+			return new Skip(this.count);
+		}
+
+		@Override
+		Object apply(Object element) {
+			if (this.skipped < this.count) {
+				this.skipped++;
+				return SKIP;
+			}
+
+			return element;
+		}
+	}
+
+	private static class Take extends Stage {
+		private final long count;
+		private long remaining;
+
+		public Take(long count) {
+			this.count = count;
+			this.remaining = count;
+		}
+
+		@Override
+		Stage start() {
+			return new Take(this.count);
+		}
+
+		@Override
+		Object apply(Object element) {
+			this.remaining--;
+			return element;
+		}
+
+		@Override
+		Sink<Object> wrap(final Sink<Object> downstream) {
+			return new Sink<Object>() {
+				@Override
+				public boolean accept(Object element) {
+					return downstream.accept(apply(element)) && !isExhausted();
+				}
+			};
+		}
+
+		@Override
+		boolean isExhausted() {
+			return this.remaining <= 0;
+		}
+
+		@Override
+		boolean isLimiting() {
+			return true;
+		}
+	}
+}
@@ -1,8 +1,11 @@
 package ch.julien.query.core;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -10,103 +13,267 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
-import java.util.Stack;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
 
 import ch.julien.common.contract.Check;
 import ch.julien.common.datastructure.Tuple;
 import ch.julien.common.delegate.Accumulator;
 import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Action2;
 import ch.julien.common.delegate.EqualityComparator;
 import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.common.delegate.Func2;
 import ch.julien.common.delegate.Predicate;
-import ch.julien.common.monad.Indexed;
 import ch.julien.common.monad.Option;
+import ch.julien.query.Aggregation;
+import ch.julien.query.Collector;
+import ch.julien.query.Grouping;
 import ch.julien.query.OrderedTraversable;
+import ch.julien.query.ParallelTraversable;
+import ch.julien.query.PipelineListener;
 import ch.julien.query.Traversable;
 import ch.julien.query.util.ArrayUtils;
+import ch.julien.query.util.Collectors;
 import ch.julien.query.util.Funcs;
 
 class TraversableImpl<TSource> implements Traversable<TSource> {
+	/** Class of the lists wrapping arrays, which {@link #push(Iterable, Sink)} traverses by index. */
+	private static final Class<?> ARRAY_LIST = Arrays.asList().getClass();
+	/** Describes read-only views, which access the elements of the underlying list by index. */
+	private static final String VIEW = "view, random access";
+	/** Describes hash joins, whose inner sequence is rendered below them. */
+	private static final String JOIN = "hashes the inner sequence by key when iterated, streams this one";
+	/** Capacity of the buffer of {@code asString} if the joined length is not known in advance. */
+	private static final int DEFAULT_CAPACITY = 16;
+	/** Largest buffer {@code asString} allocates up front. */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
 	protected final Iterable<TSource> source;
+	final Plan plan;
 
 	static <T> TraversableImpl<T> create(Iterable<T> source) {
 		return new TraversableImpl<T>(source);
 	}
 
 	public TraversableImpl(Iterable<TSource> source) {
+		this(source, Plan.source(source));
+	}
+
+	TraversableImpl(Iterable<TSource> source, Plan plan) {
 		Check.notNull(source, "source");
 
 		this.source = source;
+		this.plan = plan;
 	}
 
 	public TraversableImpl(final TSource[] source) {
-		this.source = new TraversableImpl<TSource>(
-			new Iterable<TSource>() {
-				@Override
-				public Iterator<TSource> iterator() {
-					return new ArrayIterator<TSource>(source);
-				}
-			}
-		);
+		Check.notNull(source, "source");
+
+		this.source = Arrays.asList(source);
+		this.plan = Plan.source(source);
 	}
 
 	@Override
-	public TSource aggregate(Accumulator<TSource, ? super TSource> accumulator) {
-		Iterator<? extends TSource> iterator = this.source.iterator();
+	@SuppressWarnings("unchecked")
+	public TSource aggregate(final Accumulator<TSource, ? super TSource> accumulator) {
+		Check.notNull(accumulator, "accumulator");
+
+		NumericAggregate numeric = NumericAggregate.of(accumulator);
+
+		if (numeric != null) {
+			aggregate(numeric);
 
-		if (!iterator.hasNext()) {
-			throw new NoSuchElementException();
+			return (TSource) numeric.result();
 		}
 
-		return aggregate(iterator, iterator.next(), accumulator, Funcs.<TSource>self());
+		AggregateSink<TSource, TSource> sink = new AggregateSink<TSource, TSource>(null, accumulator) {
+			private boolean empty = true;
+
+			@Override
+			public boolean accept(TSource element) {
+				if (this.empty) {
+					this.empty = false;
+					this.result = element;
+					return true;
+				}
+
+				return super.accept(element);
+			}
+
+			@Override
+			TSource result() {
+				if (this.empty) {
+					throw new NoSuchElementException();
+				}
+
+				return this.result;
+			}
+		};
+
+		push(this.source, sink);
+
+		return sink.result();
 	}
 
 	@Override
 	public <TAccumulate> TAccumulate aggregate(TAccumulate initial, Accumulator<TAccumulate, ? super TSource> accumulator) {
-		return aggregate(this.source.iterator(), initial, accumulator, Funcs.<TAccumulate>self());
+		return aggregate(initial, accumulator, Funcs.<TAccumulate>self());
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public <TAccumulate, TResult> TResult aggregate(TAccumulate initial, Accumulator<TAccumulate, ? super TSource> accumulator,
 		Func<TAccumulate, TResult> resultSelector) {
 
-		return aggregate(source.iterator(), initial, accumulator, resultSelector);
+		Check.notNull(accumulator, "accumulator");
+		Check.notNull(resultSelector, "resultSelector");
+
+		NumericAggregate numeric = NumericAggregate.of(accumulator, initial);
+
+		if (numeric != null) {
+			aggregate(numeric);
+
+			return resultSelector.invoke((TAccumulate) numeric.result());
+		}
+
+		AggregateSink<TAccumulate, TSource> sink = new AggregateSink<TAccumulate, TSource>(initial, accumulator);
+
+		push(this.source, sink);
+
+		return resultSelector.invoke(sink.result());
+	}
+
+	/**
+	 * Feeds the elements to a numeric aggregation. Primitive sequences override this to pass them unboxed.
+	 */
+	void aggregate(NumericAggregate aggregate) {
+		push(this.source, aggregate);
 	}
 
-	private <TAccumulate, TResult> TResult aggregate(Iterator<? extends TSource> source, TAccumulate initial,
-		Accumulator<TAccumulate, ? super TSource> accumulator, Func<TAccumulate, TResult> resultSelector) {
+	private static class AggregateSink<TAccumulate, TSource> implements Sink<TSource> {
+		private final Accumulator<TAccumulate, ? super TSource> accumulator;
+		protected TAccumulate result;
+
+		public AggregateSink(TAccumulate initial, Accumulator<TAccumulate, ? super TSource> accumulator) {
+			this.accumulator = accumulator;
+			this.result = initial;
+		}
+
+		@Override
+		public boolean accept(TSource element) {
+			this.result = this.accumulator.accumulate(this.result, element);
+			return true;
+		}
+
+		TAccumulate result() {
+			return this.result;
+		}
+	}
+
+	@Override
+	public <TAccumulate> Aggregation<TAccumulate> aggregateWhile(TAccumulate initial, Accumulator<TAccumulate, ? super TSource> accumulator,
+		Predicate<? super TAccumulate> predicate) {
 
 		Check.notNull(accumulator, "accumulator");
-		Check.notNull(resultSelector, "resultSelector");
+		Check.notNull(predicate, "predicate");
+
+		if (!predicate.invoke(initial)) {
+			return new AggregationImpl<TAccumulate>(initial, true);
+		}
+
+		AggregateWhileSink<TAccumulate, TSource> sink = new AggregateWhileSink<TAccumulate, TSource>(initial, accumulator, predicate);
+
+		push(this.source, sink);
+
+		return new AggregationImpl<TAccumulate>(sink.result(), sink.stopped);
+	}
+
+	private static class AggregateWhileSink<TAccumulate, TSource> extends AggregateSink<TAccumulate, TSource> {
+		private final Predicate<? super TAccumulate> predicate;
+
+		private boolean stopped = false;
+
+		public AggregateWhileSink(TAccumulate initial, Accumulator<TAccumulate, ? super TSource> accumulator,
+			Predicate<? super TAccumulate> predicate) {
 
-		TAccumulate result = initial;
+			super(initial, accumulator);
 
-		while (source.hasNext()) {
-			result = accumulator.accumulate(result, source.next());
+			this.predicate = predicate;
 		}
 
-		return resultSelector.invoke(result);
+		@Override
+		public boolean accept(TSource element) {
+			super.accept(element);
+
+			this.stopped = !this.predicate.invoke(this.result);
+			return !this.stopped;
+		}
+	}
+
+	private static class AggregationImpl<TAccumulate> implements Aggregation<TAccumulate> {
+		private final TAccumulate value;
+		private final boolean stopped;
+
+		public AggregationImpl(TAccumulate value, boolean stopped) {
+			this.value = value;
+			this.stopped = stopped;
+		}
+
+		@Override
+		public TAccumulate getValue() {
+			return this.value;
+		}
+
+		@Override
+		public boolean isStopped() {
+			return this.stopped;
+		}
+
+		@Override
+		public String toString() {
+			return (this.stopped ? "stopped at " : "completed with ") + this.value;
+		}
 	}
 
 	@Override
-	public boolean all(Predicate<? super TSource> predicate) {
+	public boolean all(final Predicate<? super TSource> predicate) {
 		Check.notNull(predicate, "predicate");
 
-		for (TSource element : this.source) {
-			if (!predicate.invoke(element)) {
-				return false;
-			}
+		AllSink<TSource> sink = new AllSink<TSource>(predicate);
+
+		push(this.source, sink);
+
+		return !sink.rejected;
+	}
+
+	private static class AllSink<TSource> implements Sink<TSource> {
+		private final Predicate<? super TSource> predicate;
+
+		private boolean rejected = false;
+
+		public AllSink(Predicate<? super TSource> predicate) {
+			this.predicate = predicate;
 		}
 
-		return true;
+		@Override
+		public boolean accept(TSource element) {
+			this.rejected = !this.predicate.invoke(element);
+			return !this.rejected;
+		}
 	}
 
 	@Override
 	public boolean any() {
-		return this.source.iterator().hasNext();
+		ElementSink<TSource> sink = new ElementSink<TSource>(false);
+
+		push(this.source, sink);
+
+		return !sink.empty;
 	}
 
 	@Override
@@ -121,16 +288,21 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 
 	@Override
 	public TSource[] asArray(Func<Integer, TSource[]> allocator) {
-		ArrayList<TSource> list = asArrayList();
+		List<TSource> list = randomAccess();
+
+		if (list == null) {
+			list = asArrayList();
+		}
 
-		TSource[] result = allocator.invoke(list.size());
+		int size = list.size();
+		TSource[] result = allocator.invoke(size);
 
-		if (result.length < list.size()) {
+		if (result.length < size) {
 			throw new UnsupportedOperationException(
-				"Length of the returned array must be equal or greater than: " + list.size());
+				"Length of the returned array must be equal or greater than: " + size);
 		}
 
-		for (int i = 0; i < list.size(); i++) {
+		for (int i = 0; i < size; i++) {
 			result[i] = list.get(i);
 		}
 
@@ -139,123 +311,260 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 
 	@Override
 	public ArrayList<TSource> asArrayList() {
-		ArrayList<TSource> list = new ArrayList<TSource>();
+		long size = knownSize(this.source);
 
-		for (TSource item : this.source) {
-			list.add(item);
-		}
-
-		return list;
+		return asCollection(size >= 0 ? new ArrayList<TSource>((int) size) : new ArrayList<TSource>());
 	}
 
 	@Override
-	public <TCollection extends Collection<? super TSource>> TCollection asCollection(TCollection collection) {
+	public <TCollection extends Collection<? super TSource>> TCollection asCollection(final TCollection collection) {
 		Check.notNull(collection, "collection");
 
-		for (TSource item : this.source) {
-			collection.add(item);
-		}
+		push(this.source,
+			new Sink<TSource>() {
+				@Override
+				public boolean accept(TSource element) {
+					collection.add(element);
+					return true;
+				}
+			}
+		);
 
 		return collection;
 	}
 
 	@Override
 	public <TKey> HashMap<TKey, TSource> asHashMap(Func<? super TSource, TKey> keySelector) {
-		return asHashMap(keySelector,
-			new Func<TSource, TSource>() {
-				@Override
-				public TSource invoke(TSource element) {
-					return element;
-				}
-			}
-		);
+		return asHashMap(keySelector, Funcs.<TSource>self());
 	}
 
 	@Override
 	public <TKey, TElement> HashMap<TKey, TElement> asHashMap(Func<? super TSource, TKey> keySelector, Func<? super TSource, TElement> elementSelector) {
+		return asMap(new HashMap<TKey, TElement>(), keySelector, elementSelector);
+	}
+
+	@Override
+	public HashSet<TSource> asHashSet() {
+		return asCollection(new HashSet<TSource>());
+	}
+
+	@Override
+	public <TKey> HashSet<TKey> asHashSet(Func<? super TSource, TKey> keySelector) {
 		Check.notNull(keySelector, "keySelector");
-		Check.notNull(elementSelector, "elementSelector");
 
-		HashMap<TKey, TElement> map = new HashMap<TKey, TElement>();
+		return map(keySelector).asCollection(new HashSet<TKey>());
+	}
 
-		for (TSource item : source) {
-			map.put(keySelector.invoke(item), elementSelector.invoke(item));
-		}
+	@Override
+	public LinkedList<TSource> asLinkedList() {
+		return asCollection(new LinkedList<TSource>());
+	}
 
-		return map;
+	@Override
+	public <TKey> LinkedHashMap<TKey, TSource> asLinkedHashMap(Func<? super TSource, TKey> keySelector) {
+		return asLinkedHashMap(keySelector, Funcs.<TSource>self());
 	}
 
 	@Override
-	public HashSet<TSource> asHashSet() {
-		return asHashSet(
-			new Func<TSource, TSource>() {
+	public <TKey, TElement> LinkedHashMap<TKey, TElement> asLinkedHashMap(Func<? super TSource, TKey> keySelector, Func<? super TSource, TElement> elementSelector) {
+		return asMap(new LinkedHashMap<TKey, TElement>(), keySelector, elementSelector);
+	}
+
+	private <TMap extends Map<TKey, TElement>, TKey, TElement> TMap asMap(final TMap map, final Func<? super TSource, TKey> keySelector,
+		final Func<? super TSource, TElement> elementSelector) {
+
+		Check.notNull(keySelector, "keySelector");
+		Check.notNull(elementSelector, "elementSelector");
+
+		push(this.source,
+			new Sink<TSource>() {
 				@Override
-				public TSource invoke(TSource element) {
-					return element;
+				public boolean accept(TSource element) {
+					map.put(keySelector.invoke(element), elementSelector.invoke(element));
+					return true;
 				}
 			}
 		);
+
+		return map;
 	}
 
 	@Override
-	public <TKey> HashSet<TKey> asHashSet(Func<? super TSource, TKey> keySelector) {
+	public LinkedHashSet<TSource> asLinkedHashSet() {
+		return asCollection(new LinkedHashSet<TSource>());
+	}
+
+	@Override
+	public <TKey> LinkedHashSet<TKey> asLinkedHashSet(Func<? super TSource, TKey> keySelector) {
 		Check.notNull(keySelector, "keySelector");
 
-		HashSet<TKey> set = new HashSet<TKey>();
+		return map(keySelector).asCollection(new LinkedHashSet<TKey>());
+	}
+
+	@Override
+	public <TAppendable extends Appendable> TAppendable appendTo(final TAppendable appendable, final CharSequence separator, CharSequence prefix, CharSequence suffix) throws IOException {
+		Check.notNull(appendable, "appendable");
+		Check.notNull(separator, "separator");
+		Check.notNull(prefix, "prefix");
+		Check.notNull(suffix, "suffix");
+
+		appendable.append(prefix);
+
+		try {
+			push(this.source,
+				new Sink<TSource>() {
+					private boolean first = true;
 
-		for (TSource item : source) {
-			set.add(keySelector.invoke(item));
+					@Override
+					public boolean accept(TSource element) {
+						try {
+							if (this.first) {
+								this.first = false;
+							} else {
+								appendable.append(separator);
+							}
+
+							append(appendable, element);
+						} catch (IOException e) {
+							throw new AppendException(e);
+						}
+
+						return true;
+					}
+				}
+			);
+		} catch (AppendException e) {
+			throw e.getCause();
 		}
 
-		return set;
+		appendable.append(suffix);
+
+		return appendable;
+	}
+
+	private static void append(Appendable appendable, Object element) throws IOException {
+		if (element instanceof CharSequence) {
+			appendable.append((CharSequence) element);
+		} else if (element instanceof Character) {
+			appendable.append((Character) element);
+		} else {
+			appendable.append(String.valueOf(element));
+		}
 	}
 
 	@Override
-	public LinkedList<TSource> asLinkedList() {
-		LinkedList<TSource> list = new LinkedList<TSource>();
+	public String asString(CharSequence separator) {
+		return asString(separator, "", "");
+	}
 
-		for (TSource item : this.source) {
-			list.add(item);
+	@Override
+	public String asString(CharSequence separator, CharSequence prefix, CharSequence suffix) {
+		Check.notNull(separator, "separator");
+		Check.notNull(prefix, "prefix");
+		Check.notNull(suffix, "suffix");
+
+		StringBuilder builder = new StringBuilder(joinedLength(separator, prefix, suffix));
+
+		try {
+			return appendTo(builder, separator, prefix, suffix).toString();
+		} catch (IOException e) {
+			// a StringBuilder does not throw
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return The exact length of the joined elements if they are character sequences stored in a list which can be
+	 * accessed by index, otherwise the length of {@code prefix} and {@code suffix} plus the default capacity.
+	 */
+	private int joinedLength(CharSequence separator, CharSequence prefix, CharSequence suffix) {
+		Iterable<?> iterable = this.source;
+
+		while (iterable instanceof TraversableImpl) {
+			iterable = ((TraversableImpl<?>) iterable).source;
 		}
 
-		return list;
+		long length = prefix.length() + suffix.length();
+
+		if (iterable instanceof List && iterable instanceof RandomAccess && !ListViews.isView((List<?>) iterable)) {
+			List<?> list = (List<?>) iterable;
+			int size = list.size();
+
+			length += (long) Math.max(0, size - 1) * separator.length();
+
+			for (int i = 0; i < size && length <= MAX_CAPACITY; i++) {
+				Object element = list.get(i);
+
+				if (!(element instanceof CharSequence)) {
+					length = -1;
+					break;
+				}
+
+				length += ((CharSequence) element).length();
+			}
+
+			if (length >= 0 && length <= MAX_CAPACITY) {
+				return (int) length;
+			}
+		}
+
+		return (int) Math.min(MAX_CAPACITY, prefix.length() + suffix.length() + DEFAULT_CAPACITY);
 	}
 
 	@Override
-	public <TKey> LinkedHashMap<TKey, TSource> asLinkedHashMap(Func<? super TSource, TKey> keySelector) {
-		return asLinkedHashMap(keySelector, Funcs.<TSource>self());
+	public Traversable<List<TSource>> batch(int size) {
+		return batch(size, false);
 	}
 
 	@Override
-	public <TKey, TElement> LinkedHashMap<TKey, TElement> asLinkedHashMap(Func<? super TSource, TKey> keySelector, Func<? super TSource, TElement> elementSelector) {
-		Check.notNull(keySelector, "keySelector");
-		Check.notNull(elementSelector, "elementSelector");
+	public Traversable<List<TSource>> batchReusingBuffer(int size) {
+		return batch(size, true);
+	}
 
-		LinkedHashMap<TKey, TElement> map = new LinkedHashMap<TKey, TElement>();
+	private Traversable<List<TSource>> batch(final int size, final boolean reuse) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("size must be greater than 0.");
+		}
+
+		List<TSource> list = randomAccess();
 
-		for (TSource item : source) {
-			map.put(keySelector.invoke(item), elementSelector.invoke(item));
+		if (list != null) {
+			return new TraversableImpl<List<TSource>>(ListViews.batch(list, size), this.plan.then("batch " + size, VIEW));
 		}
 
-		return map;
+		return new TraversableImpl<List<TSource>>(
+			new Iterable<List<TSource>>() {
+				@Override
+				public Iterator<List<TSource>> iterator() {
+					return new BatchIterator<TSource>(source.iterator(), size, reuse);
+				}
+			},
+			this.plan.then("batch " + size, reuse ? "copies every batch into the same buffer" : "copies every batch into a new list")
+		);
 	}
 
 	@Override
-	public LinkedHashSet<TSource> asLinkedHashSet() {
-		return asLinkedHashSet(Funcs.<TSource>self());
+	public <TContainer> TContainer collect(Func0<TContainer> supplier, Action2<TContainer, ? super TSource> accumulator, Action2<TContainer, TContainer> combiner) {
+		return collect(Collectors.<TSource, TContainer>of(supplier, accumulator, combiner));
 	}
 
 	@Override
-	public <TKey> LinkedHashSet<TKey> asLinkedHashSet(Func<? super TSource, TKey> keySelector) {
-		Check.notNull(keySelector, "keySelector");
+	public <TContainer, TResult> TResult collect(final Collector<? super TSource, TContainer, TResult> collector) {
+		Check.notNull(collector, "collector");
 
-		LinkedHashSet<TKey> set = new LinkedHashSet<TKey>();
+		final TContainer container = collector.supply(knownSize(this.source));
 
-		for (TSource item : source) {
-			set.add(keySelector.invoke(item));
-		}
+		push(this.source,
+			new Sink<TSource>() {
+				@Override
+				public boolean accept(TSource element) {
+					collector.accumulate(container, element);
+					return true;
+				}
+			}
+		);
 
-		return set;
+		return collector.finish(container);
 	}
 
 	@Override
@@ -268,7 +577,8 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 				public Iterator<TSource> iterator() {
 					return new ConcatIterator<TSource>(source.iterator(), appendant.iterator());
 				}
-			}
+			},
+			this.plan.then("concat", null, Plan.source(appendant))
 		);
 	}
 
@@ -281,27 +591,32 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 
 	@Override
 	public long count() {
-		return source instanceof Collection
-			? ((Collection<?>) source).size()
-			: aggregate(0, new Accumulator<Integer, TSource>() {
-				@Override
-				public Integer accumulate(Integer count, TSource item) {
-					return count + 1;
-				}
-			}
-		);
+		long size = knownSize(this.source);
+
+		if (size >= 0) {
+			return size;
+		}
+
+		CountSink<TSource> sink = new CountSink<TSource>();
+
+		push(this.source, sink);
+
+		return sink.count;
+	}
+
+	private static class CountSink<TSource> implements Sink<TSource> {
+		private long count = 0;
+
+		@Override
+		public boolean accept(TSource element) {
+			this.count++;
+			return true;
+		}
 	}
 
 	@Override
 	public Traversable<TSource> difference(Iterable<? extends TSource> other) {
-		return difference(other,
-			new EqualityComparator<TSource>() {
-				@Override
-				public boolean equals(TSource first, TSource second) {
-					return first.equals(second);
-				}
-			}
-		);
+		return difference(other, new DefaultEqualityComparator<TSource>());
 	}
 
 	@Override
@@ -310,26 +625,29 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 
 		Check.notNull(other, "other");
 
+		long size = knownSize(this.source);
+		long otherSize = knownSize(other);
+
+		// hash the smaller side if both sizes are known up front
+		final boolean hashSource = size >= 0 && otherSize >= 0 && size < otherSize;
+
+		String details = (hashSource ? "buffers and hashes this sequence, streams the other, "
+			: "buffers and hashes the other sequence, streams this one, ") + Plan.lookup(equalityComparator);
+
 		return new TraversableImpl<TSource>(
 			new Iterable<TSource>() {
 				@Override
 				public Iterator<TSource> iterator() {
-					return new DifferenceIterator<TSource>(source.iterator(), other.iterator(), equalityComparator);
+					return new DifferenceIterator<TSource>(source.iterator(), other.iterator(), equalityComparator, hashSource);
 				}
-			}
+			},
+			this.plan.then("difference", details, Plan.source(other))
 		);
 	}
 
 	@Override
 	public Traversable<TSource> distinct() {
-		return distinct(
-			new EqualityComparator<TSource>() {
-				@Override
-				public boolean equals(TSource first, TSource second) {
-					return first == null ? second == null : first.equals(second);
-				}
-			}
-		);
+		return distinct(new DefaultEqualityComparator<TSource>());
 	}
 
 	@Override
@@ -340,36 +658,34 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 				public Iterator<TSource> iterator() {
 					return new DistinctIterator<TSource>(source.iterator(), equalityComparator);
 				}
-			}
+			},
+			this.plan.then("distinct", "buffers the distinct elements, " + Plan.lookup(equalityComparator))
 		);
 	}
 
 	@Override
-	public Traversable<TSource> each(final Action<? super TSource> action) {
-		return new TraversableImpl<TSource>(
-			new Iterable<TSource>() {
-				@Override
-				public Iterator<TSource> iterator() {
-					return new EachIterator<TSource>(source.iterator(), action);
-				}
-			}
-		);
+	public Traversable<TSource> each(Action<? super TSource> action) {
+		return fuse("each", Stage.each(action));
+	}
+
+	@Override
+	public String explain() {
+		return this.plan.toString();
 	}
 
 	@Override
-	@SuppressWarnings("LoopStatementThatDoesntLoop")
 	public Option<TSource> first() {
 		if (this.source instanceof List) {
-			List<TSource> list = (List<TSource>)this.source;
+			List<TSource> list = (List<TSource>) this.source;
 
 			return !list.isEmpty() ? Option.some(list.get(0)) : Option.<TSource>none();
 		}
 
-		for (TSource item : this.source) {
-			return Option.some(item);
-		}
+		ElementSink<TSource> sink = new ElementSink<TSource>(false);
+
+		push(this.source, sink);
 
-		return Option.none();
+		return sink.result();
 	}
 
 	@Override
@@ -385,97 +701,250 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 				public Iterator<TResult> iterator() {
 					return new FlatIterator<TSource, TResult>(source.iterator(), selector);
 				}
-			}
+			},
+			this.plan.then("flat", null)
 		);
 	}
 
 	@Override
-	public Traversable<TSource> intersect(Iterable<? extends TSource> other) {
-		return intersect(other,
-			new EqualityComparator<TSource>() {
+	public <TKey> Traversable<Grouping<TKey, TSource>> groupBy(final Func<? super TSource, TKey> keySelector) {
+		Check.notNull(keySelector, "keySelector");
+
+		return new TraversableImpl<Grouping<TKey, TSource>>(
+			new Iterable<Grouping<TKey, TSource>>() {
 				@Override
-				public boolean equals(TSource first, TSource second) {
-					return first == second
-						|| !(first == null || second == null) && first.equals(second);
+				public Iterator<Grouping<TKey, TSource>> iterator() {
+					final Map<TKey, List<TSource>> groups = new LinkedHashMap<TKey, List<TSource>>();
+
+					push(source,
+						new Sink<TSource>() {
+							@Override
+							public boolean accept(TSource element) {
+								TKey key = keySelector.invoke(element);
+								List<TSource> group = groups.get(key);
+
+								if (group == null) {
+									group = new ArrayList<TSource>();
+									groups.put(key, group);
+								}
+
+								group.add(element);
+
+								return true;
+							}
+						}
+					);
+
+					List<Grouping<TKey, TSource>> result = new ArrayList<Grouping<TKey, TSource>>(groups.size());
+
+					for (Map.Entry<TKey, List<TSource>> group : groups.entrySet()) {
+						result.add(new GroupingImpl<TKey, TSource>(group.getKey(), group.getValue()));
+					}
+
+					return result.iterator();
 				}
-			}
+			},
+			this.plan.then("groupBy", "hashes the keys, buffers all elements by group")
 		);
 	}
 
 	@Override
-	public Traversable<TSource> intersect(Iterable<? extends TSource> other, final EqualityComparator<TSource> equalityComparator) {
-		final List<Key<TSource>> keys = new ArrayList<Key<TSource>>();
-		final Map<Key<TSource>, Boolean> flags = new HashMap<Key<TSource>, Boolean>();
+	public <TKey, TAccumulate> Traversable<Tuple<TKey, TAccumulate>> groupBy(final Func<? super TSource, TKey> keySelector, final TAccumulate initial, final Accumulator<TAccumulate, ? super TSource> accumulator) {
+		Check.notNull(keySelector, "keySelector");
+		Check.notNull(accumulator, "accumulator");
 
-		for (Key<TSource> item : map(
-				new Func<TSource, Key<TSource>>() {
-					@Override
-					public Key<TSource> invoke(TSource arg) {
-						return new Key<TSource>(arg, equalityComparator);
+		return new TraversableImpl<Tuple<TKey, TAccumulate>>(
+			new Iterable<Tuple<TKey, TAccumulate>>() {
+				@Override
+				public Iterator<Tuple<TKey, TAccumulate>> iterator() {
+					final Map<TKey, Accumulation<TAccumulate>> groups = new LinkedHashMap<TKey, Accumulation<TAccumulate>>();
+
+					push(source,
+						new Sink<TSource>() {
+							@Override
+							public boolean accept(TSource element) {
+								TKey key = keySelector.invoke(element);
+								Accumulation<TAccumulate> group = groups.get(key);
+
+								if (group == null) {
+									group = new Accumulation<TAccumulate>(initial);
+									groups.put(key, group);
+								}
+
+								group.value = accumulator.accumulate(group.value, element);
+
+								return true;
+							}
+						}
+					);
+
+					List<Tuple<TKey, TAccumulate>> result = new ArrayList<Tuple<TKey, TAccumulate>>(groups.size());
+
+					for (Map.Entry<TKey, Accumulation<TAccumulate>> group : groups.entrySet()) {
+						result.add(new Tuple<TKey, TAccumulate>(group.getKey(), group.getValue().value));
 					}
+
+					return result.iterator();
 				}
-			).select(
-			new Predicate<Key<TSource>>() {
+			},
+			this.plan.then("groupBy", "hashes the keys, folds every group in place, buffers one value per key")
+		);
+	}
+
+	/** Mutable value of a group, so that folding an element takes a single lookup. */
+	private static class Accumulation<TAccumulate> {
+		private TAccumulate value;
+
+		public Accumulation(TAccumulate initial) {
+			this.value = initial;
+		}
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Traversable<TResult> groupJoin(final Iterable<TInner> inner, final Func<? super TSource, TKey> outerKeySelector,
+		final Func<? super TInner, TKey> innerKeySelector, final Func2<? super TSource, Traversable<TInner>, TResult> resultSelector) {
+
+		Check.notNull(inner, "inner");
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		return new TraversableImpl<TResult>(
+			new Iterable<TResult>() {
 				@Override
-				public boolean invoke(Key<TSource> item) {
-					return !flags.containsKey(item);
+				public Iterator<TResult> iterator() {
+					return new GroupJoinIterator<TSource, TInner, TKey, TResult>(source.iterator(), inner, outerKeySelector, innerKeySelector, resultSelector);
 				}
+			},
+			this.plan.then("groupJoin", JOIN, Plan.source(inner))
+		);
+	}
+
+	@Override
+	public Traversable<TSource> instrument(PipelineListener listener) {
+		return InstrumentedTraversableImpl.create(this, listener);
+	}
+
+	@Override
+	public Option<TSource> elementAt(long index) {
+		if (index < 0) {
+			return Option.none();
+		}
+
+		List<TSource> list = randomAccess();
+
+		if (list != null) {
+			return index < list.size() ? Option.some(list.get((int) index)) : Option.<TSource>none();
+		}
+
+		return skip(index).first();
+	}
+
+	@Override
+	public Traversable<TSource> intersect(Iterable<? extends TSource> other) {
+		return intersect(other, new DefaultEqualityComparator<TSource>());
+	}
+
+	@Override
+	public Traversable<TSource> intersect(Iterable<? extends TSource> other, EqualityComparator<TSource> equalityComparator) {
+		Check.notNull(other, "other");
+
+		final List<TSource> elements = new ArrayList<TSource>();
+		final List<Object> keys = new ArrayList<Object>();
+		final Map<Object, Boolean> flags = new HashMap<Object, Boolean>();
+
+		for (TSource item : this.source) {
+			Object key = Key.of(item, equalityComparator);
+
+			if (!flags.containsKey(key)) {
+				flags.put(key, false);
+				elements.add(item);
+				keys.add(key);
 			}
-		)
-		) {
-			flags.put(item, false);
-			keys.add(item);
 		}
 
-		for (Key<TSource> item : create(other).map(
-			new Func<TSource, Key<TSource>>() {
-				@Override
-				public Key<TSource> invoke(TSource item) {
-					return new Key<TSource>(item, equalityComparator);
-				}
+		for (TSource item : other) {
+			Object key = Key.of(item, equalityComparator);
+
+			if (flags.containsKey(key)) {
+				flags.put(key, true);
 			}
-		)) {
-			if (flags.containsKey(item)) {
-				flags.put(item, true);
+		}
+
+		List<TSource> intersection = new ArrayList<TSource>();
+
+		for (int i = 0; i < elements.size(); i++) {
+			if (flags.get(keys.get(i))) {
+				intersection.add(elements.get(i));
 			}
 		}
 
-		return create(keys).select(
-			new Predicate<Key<TSource>>() {
-				@Override
-				public boolean invoke(Key<TSource> arg) {
-					return flags.get(arg);
-				}
-			}).map(
-			new Func<Key<TSource>, TSource>() {
+		return new TraversableImpl<TSource>(intersection,
+			this.plan.then("intersect", "computed when called, buffered the distinct elements of this sequence, " + Plan.lookup(equalityComparator),
+				Plan.source(other)));
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Traversable<TResult> join(Iterable<TInner> inner, Func<? super TSource, TKey> outerKeySelector,
+		Func<? super TInner, TKey> innerKeySelector, Func2<? super TSource, ? super TInner, TResult> resultSelector) {
+
+		return join("join", inner, outerKeySelector, innerKeySelector, resultSelector, false);
+	}
+
+	private <TInner, TKey, TResult> Traversable<TResult> join(String operator, final Iterable<TInner> inner, final Func<? super TSource, TKey> outerKeySelector,
+		final Func<? super TInner, TKey> innerKeySelector, final Func2<? super TSource, ? super TInner, TResult> resultSelector, final boolean leftOuter) {
+
+		Check.notNull(inner, "inner");
+		Check.notNull(outerKeySelector, "outerKeySelector");
+		Check.notNull(innerKeySelector, "innerKeySelector");
+		Check.notNull(resultSelector, "resultSelector");
+
+		return new TraversableImpl<TResult>(
+			new Iterable<TResult>() {
 				@Override
-				public TSource invoke(Key<TSource> arg) {
-					return arg.value;
+				public Iterator<TResult> iterator() {
+					return new JoinIterator<TSource, TInner, TKey, TResult>(source.iterator(), inner, outerKeySelector, innerKeySelector, resultSelector, leftOuter);
 				}
-			}
+			},
+			this.plan.then(operator, JOIN, Plan.source(inner))
 		);
 	}
 
 	@Override
 	public Option<TSource> last() {
-		if (this.source instanceof List) {
-			List<TSource> list = (List<TSource>)this.source;
+		List<TSource> list = this.source instanceof List ? (List<TSource>) this.source : randomAccess();
 
+		if (list != null) {
 			return !list.isEmpty() ? Option.some(list.get(list.size() - 1)) : Option.<TSource>none();
 		}
 
-		Iterator<? extends TSource> iterator = this.source.iterator();
+		ElementSink<TSource> sink = new ElementSink<TSource>(true);
 
-		if (!iterator.hasNext()) {
-			return Option.none();
+		push(this.source, sink);
+
+		return sink.result();
+	}
+
+	private static class ElementSink<TSource> implements Sink<TSource> {
+		private final boolean last;
+
+		private boolean empty = true;
+		private TSource element;
+
+		public ElementSink(boolean last) {
+			this.last = last;
 		}
 
-		TSource last = iterator.next();
-		while (iterator.hasNext()) {
-			last = iterator.next();
+		@Override
+		public boolean accept(TSource element) {
+			this.empty = false;
+			this.element = element;
+			return this.last;
 		}
 
-		return Option.some(last);
+		Option<TSource> result() {
+			return this.empty ? Option.<TSource>none() : Option.some(this.element);
+		}
 	}
 
 	@Override
@@ -484,74 +953,135 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 	}
 
 	@Override
-	public <TResult> Traversable<TResult> map(final Func<? super TSource, TResult> resultSelector) {
-		return new TraversableImpl<TResult>(
-			new Iterable<TResult>() {
-				@Override
-				public Iterator<TResult> iterator() {
-					return new MapIterator<TSource, TResult>(source.iterator(), resultSelector);
-				}
-			}
-		);
+	public <TInner, TKey, TResult> Traversable<TResult> leftJoin(Iterable<TInner> inner, Func<? super TSource, TKey> outerKeySelector,
+		Func<? super TInner, TKey> innerKeySelector, Func2<? super TSource, ? super TInner, TResult> resultSelector) {
+
+		return join("leftJoin", inner, outerKeySelector, innerKeySelector, resultSelector, true);
 	}
 
 	@Override
-	public Traversable<TSource> reverse() {
-		final Stack<TSource> stack = new Stack<TSource>();
+	public <TResult> Traversable<TResult> map(Func<? super TSource, TResult> resultSelector) {
+		List<TSource> list = randomAccess();
 
-		for (TSource item : source) {
-			stack.push(item);
+		if (list != null) {
+			return new TraversableImpl<TResult>(ListViews.map(list, resultSelector), this.plan.then("map", VIEW));
 		}
 
+		return fuse("map", Stage.map(resultSelector));
+	}
+
+	@Override
+	public Traversable<TSource> memoize() {
 		return new TraversableImpl<TSource>(
-			new Iterable<TSource>() {
-				@Override
-				public Iterator<TSource> iterator() {
-					final ListIterator<TSource> listIterator = stack.listIterator(stack.size());
+			new MemoizedIterable<TSource>(this),
+			this.plan.then("memoize", "buffers the elements as the first iteration reaches them, later iterations replay them")
+		);
+	}
 
-					return new Iterator<TSource>() {
-						@Override
-						public boolean hasNext() {
-							return listIterator.hasPrevious();
-						}
+	@Override
+	public ParallelTraversable<TSource> parallel() {
+		return parallel(ParallelTraversableImpl.defaultPool());
+	}
 
-						@Override
-						public TSource next() {
-							return listIterator.previous();
-						}
+	@Override
+	public ParallelTraversable<TSource> parallel(ForkJoinPool pool) {
+		List<TSource> list = randomAccess();
 
-						@Override
-						public void remove() {
-							throw new UnsupportedOperationException();
-						}
-					};
-				}
-			}
-		);
+		return ParallelTraversableImpl.create(list != null ? list : this.source, pool);
+	}
+
+	/**
+	 * @return Whether {@code source} can be iterated backwards without buffering it.
+	 */
+	static boolean isReversible(Iterable<?> source) {
+		source = unwrap(source);
+
+		if (source instanceof InstrumentedTraversableImpl.ProbedIterable) {
+			return ((InstrumentedTraversableImpl.ProbedIterable<?>) source).isReversible();
+		}
+
+		return source instanceof Deque || source instanceof NavigableSet || source instanceof List;
+	}
+
+	/**
+	 * @return An iterator over {@code source} backwards, which buffers the elements unless {@code source}
+	 * {@link #isReversible(Iterable) is reversible}.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Iterator<T> descendingIterator(Iterable<T> source) {
+		source = unwrap(source);
+
+		if (source instanceof InstrumentedTraversableImpl.ProbedIterable && isReversible(source)) {
+			return ((InstrumentedTraversableImpl.ProbedIterable<T>) source).descendingIterator();
+		}
+
+		if (source instanceof Deque) {
+			return ((Deque<T>) source).descendingIterator();
+		}
+
+		if (source instanceof NavigableSet) {
+			return ((NavigableSet<T>) source).descendingIterator();
+		}
+
+		if (source instanceof List) {
+			return ListViews.descendingIterator((List<T>) source);
+		}
+
+		// no way to walk it backwards: buffer it
+		ArrayList<T> buffer = new ArrayList<T>();
+
+		for (T element : source) {
+			buffer.add(element);
+		}
+
+		return ListViews.descendingIterator(buffer);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Iterable<T> unwrap(Iterable<T> source) {
+		while (source instanceof TraversableImpl) {
+			source = ((TraversableImpl<T>) source).source;
+		}
+
+		return source;
 	}
 
 	@Override
-	public Traversable<TSource> select(final Predicate<? super TSource> predicate) {
+	public Traversable<TSource> reverse() {
+		List<TSource> list = randomAccess();
+
+		if (list != null) {
+			return new TraversableImpl<TSource>(ListViews.reverse(list), this.plan.then("reverse", VIEW));
+		}
+
+		final Iterable<TSource> source = this.source;
+		String details = isReversible(source) ? "iterates the source backwards" : "buffers all elements";
+
 		return new TraversableImpl<TSource>(
 			new Iterable<TSource>() {
 				@Override
 				public Iterator<TSource> iterator() {
-					return new SelectIterator<TSource>(source.iterator(), predicate);
+					return descendingIterator(source);
 				}
-			}
+			},
+			this.plan.then("reverse", details)
 		);
 	}
 
 	@Override
-	public Traversable<TSource> skip(final long count) {
-		return indexedSelect(
-			new Predicate<Indexed<TSource>>() {
-				@Override
-				public boolean invoke(Indexed<TSource> arg) {
-					return arg.getIndex() >= count;
-				}
-			}
-		);
+	public Traversable<TSource> select(Predicate<? super TSource> predicate) {
+		return fuse("select", Stage.select(predicate));
+	}
+
+	@Override
+	public Traversable<TSource> skip(long count) {
+		List<TSource> list = randomAccess();
+
+		if (list != null) {
+			return new TraversableImpl<TSource>(ListViews.skip(list, count), this.plan.then("skip " + count, VIEW));
+		}
+
+		return fuse("skip " + count, Stage.skip(count));
 	}
 
 	@Override
@@ -564,31 +1094,26 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 				public Iterator<TSource> iterator() {
 					return new SkipWhileIterator<TSource>(source.iterator(), predicate);
 				}
-			}
+			},
+			this.plan.then("skipWhile", null)
 		);
 	}
 
 	@Override
-	public Traversable<TSource> take(final long count) {
-		return new TraversableImpl<TSource>(
-			new Iterable<TSource>() {
-				@Override
-				public Iterator<TSource> iterator() {
-					return new TakeIterator<TSource>(source.iterator(), count);
-				}
-			}
-		);
+	public Traversable<TSource> take(long count) {
+		List<TSource> list = randomAccess();
+
+		if (list != null) {
+			return new TraversableImpl<TSource>(ListViews.take(list, count), this.plan.then("take " + count, VIEW));
+		}
+
+		return fuse("take " + count, Stage.take(count));
 	}
 
-	private Traversable<TSource> indexedSelect(final Predicate<Indexed<TSource>> predicate) {
-		return new TraversableImpl<TSource>(
-			new Iterable<TSource>() {
-				@Override
-				public Iterator<TSource> iterator() {
-					return new IndexedSelectIterator<TSource>(source.iterator(), predicate);
-				}
-			}
-		);
+	private <TResult> Traversable<TResult> fuse(String operator, Stage stage) {
+		String details = this.source instanceof FusedIterable ? "fused into the loop of the previous stage" : null;
+
+		return new TraversableImpl<TResult>(FusedIterable.<TResult>of(this.source, stage), this.plan.then(operator, details));
 	}
 
 	@Override
@@ -625,13 +1150,21 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 	public <TSourceOther> Traversable<Tuple<TSource, TSourceOther>> zip(final Iterable<TSourceOther> other) {
 		Check.notNull(other, "other");
 
+		List<TSource> list = randomAccess();
+		List<TSourceOther> otherList = randomAccess(other);
+
+		if (list != null && otherList != null) {
+			return new TraversableImpl<Tuple<TSource, TSourceOther>>(ListViews.zip(list, otherList), this.plan.then("zip", VIEW, Plan.source(other)));
+		}
+
 		return new TraversableImpl<Tuple<TSource, TSourceOther>>(
 			new Iterable<Tuple<TSource, TSourceOther>>() {
 				@Override
 				public Iterator<Tuple<TSource, TSourceOther>> iterator() {
 					return new ZipIterator<TSource, TSourceOther>(source.iterator(), other.iterator());
 				}
-			}
+			},
+			this.plan.then("zip", null, Plan.source(other))
 		);
 	}
 
@@ -645,7 +1178,8 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 				public Iterator<Tuple<TSource, TSourceOther>> iterator() {
 					return new ZipAllIterator<TSource, TSourceOther>(source.iterator(), other.iterator());
 				}
-			}
+			},
+			this.plan.then("zipAll", null, Plan.source(other))
 		);
 	}
 
@@ -659,7 +1193,8 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 				public Iterator<Tuple<TSource, TSourceOther>> iterator() {
 					return new CombinationIterator<TSource, TSourceOther>(source.iterator(), other.iterator());
 				}
-			}
+			},
+			this.plan.then("combine", "iterates the other sequence once per element", Plan.source(other))
 		);
 	}
 
@@ -667,4 +1202,94 @@ class TraversableImpl<TSource> implements Traversable<TSource> {
 	public Iterator<TSource> iterator() {
 		return this.source.iterator();
 	}
+
+	/**
+	 * Pushes the elements of {@code source} into {@code sink} until there are no more elements, a stage like take
+	 * ends the traversal or the sink refuses further elements. Terminal operations which need to know why the
+	 * traversal ended keep track of it in their sink.
+	 * <p/>
+	 * This is the internal iteration used by the terminal operations: arrays are traversed by index and fused stages
+	 * are applied as a chain of sinks. Any other source is traversed by its own iterator, so collections still detect
+	 * concurrent modifications.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> void push(Iterable<? extends T> source, Sink<? super T> sink) {
+		if (source instanceof FusedIterable) {
+			((FusedIterable<?, T>) source).push(sink);
+			return;
+		}
+
+		if (source instanceof InstrumentedTraversableImpl.ProbedIterable) {
+			((InstrumentedTraversableImpl.ProbedIterable<T>) source).push(sink);
+			return;
+		}
+
+		if (source instanceof TraversableImpl) {
+			push(((TraversableImpl<T>) source).source, sink);
+			return;
+		}
+
+		if (source.getClass() == ARRAY_LIST) {
+			List<? extends T> list = (List<? extends T>) source;
+
+			for (int i = 0, size = list.size(); i < size; i++) {
+				if (!sink.accept(list.get(i))) {
+					return;
+				}
+			}
+
+			return;
+		}
+
+		for (T element : source) {
+			if (!sink.accept(element)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return The source as a {@link RandomAccess} list if it can be accessed by index, {@code null} otherwise.
+	 */
+	protected List<TSource> randomAccess() {
+		return randomAccess(this.source);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> List<T> randomAccess(Iterable<T> iterable) {
+		if (iterable instanceof TraversableImpl) {
+			return ((TraversableImpl<T>) iterable).randomAccess();
+		}
+
+		if (iterable instanceof List && iterable instanceof RandomAccess) {
+			return (List<T>) iterable;
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return The number of elements of {@code iterable} if it is known without traversing it, {@code -1} otherwise.
+	 */
+	static long knownSize(Iterable<?> iterable) {
+		if (iterable instanceof TraversableImpl) {
+			List<?> list = ((TraversableImpl<?>) iterable).randomAccess();
+
+			return list != null ? list.size() : knownSize(((TraversableImpl<?>) iterable).source);
+		}
+
+		return iterable instanceof Collection ? ((Collection<?>) iterable).size() : -1;
+	}
+
+	/** Carries an {@link IOException} of {@code appendTo} out of the sink. */
+	private static final class AppendException extends RuntimeException {
+		AppendException(IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
 }
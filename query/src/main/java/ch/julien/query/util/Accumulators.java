@@ -1,6 +1,10 @@
 package ch.julien.query.util;
 
 import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.CountAccumulator;
+import ch.julien.common.delegate.DoubleAccumulator;
+import ch.julien.common.delegate.IntAccumulator;
+import ch.julien.common.delegate.LongAccumulator;
 import ch.julien.query.core.Query;
 
 /**
@@ -10,6 +14,8 @@ public class Accumulators {
 
 	/**
 	 * Append the strings to each other separated by <code>separator</code>
+	 *
+	 * @see ch.julien.query.Traversable#asString(CharSequence)
 	 */
 	public static Accumulator <String, String> joinOn(String separator) {
 		final String _separator = (separator == null || separator.isEmpty()
@@ -25,6 +31,10 @@ public class Accumulators {
 
 	/**
 	 * Sum up the numbers (elements)
+	 *
+	 * @see #sumInt()
+	 * @see #sumLong()
+	 * @see #sumDouble()
 	 */
 	public static <T extends Number> Accumulator<T, T> sum() {
 		return new Accumulator<T, T>() {
@@ -51,6 +61,10 @@ public class Accumulators {
 
 	/**
 	 * Build the product of the numbers (elements)
+	 *
+	 * @see #productInt()
+	 * @see #productLong()
+	 * @see #productDouble()
 	 */
 	public static <T extends Number> Accumulator<T, T> product() {
 		return new Accumulator<T, T>() {
@@ -75,6 +89,145 @@ public class Accumulators {
 		};
 	}
 
+	/**
+	 * Sum up the numbers as int values, which sequences do without boxing
+	 */
+	public static IntAccumulator sumInt() {
+		return new IntAccumulator() {
+			@Override public int accumulate(int accumulate, int value) {
+				return accumulate + value;
+			}
+		};
+	}
+
+	/**
+	 * Sum up the numbers as long values, which sequences do without boxing
+	 */
+	public static LongAccumulator sumLong() {
+		return new LongAccumulator() {
+			@Override public long accumulate(long accumulate, long value) {
+				return accumulate + value;
+			}
+		};
+	}
+
+	/**
+	 * Sum up the numbers as double values, which sequences do without boxing
+	 */
+	public static DoubleAccumulator sumDouble() {
+		return new DoubleAccumulator() {
+			@Override public double accumulate(double accumulate, double value) {
+				return accumulate + value;
+			}
+		};
+	}
+
+	/**
+	 * Build the product of the numbers as int values, which sequences do without boxing
+	 */
+	public static IntAccumulator productInt() {
+		return new IntAccumulator() {
+			@Override public int accumulate(int accumulate, int value) {
+				return accumulate * value;
+			}
+		};
+	}
+
+	/**
+	 * Build the product of the numbers as long values, which sequences do without boxing
+	 */
+	public static LongAccumulator productLong() {
+		return new LongAccumulator() {
+			@Override public long accumulate(long accumulate, long value) {
+				return accumulate * value;
+			}
+		};
+	}
+
+	/**
+	 * Build the product of the numbers as double values, which sequences do without boxing
+	 */
+	public static DoubleAccumulator productDouble() {
+		return new DoubleAccumulator() {
+			@Override public double accumulate(double accumulate, double value) {
+				return accumulate * value;
+			}
+		};
+	}
+
+	/**
+	 * Find the minimum of the numbers as int values, which sequences do without boxing
+	 */
+	public static IntAccumulator minInt() {
+		return new IntAccumulator() {
+			@Override public int accumulate(int accumulate, int value) {
+				return Math.min(accumulate, value);
+			}
+		};
+	}
+
+	/**
+	 * Find the minimum of the numbers as long values, which sequences do without boxing
+	 */
+	public static LongAccumulator minLong() {
+		return new LongAccumulator() {
+			@Override public long accumulate(long accumulate, long value) {
+				return Math.min(accumulate, value);
+			}
+		};
+	}
+
+	/**
+	 * Find the minimum of the numbers as double values, which sequences do without boxing
+	 */
+	public static DoubleAccumulator minDouble() {
+		return new DoubleAccumulator() {
+			@Override public double accumulate(double accumulate, double value) {
+				return Math.min(accumulate, value);
+			}
+		};
+	}
+
+	/**
+	 * Find the maximum of the numbers as int values, which sequences do without boxing
+	 */
+	public static IntAccumulator maxInt() {
+		return new IntAccumulator() {
+			@Override public int accumulate(int accumulate, int value) {
+				return Math.max(accumulate, value);
+			}
+		};
+	}
+
+	/**
+	 * Find the maximum of the numbers as long values, which sequences do without boxing
+	 */
+	public static LongAccumulator maxLong() {
+		return new LongAccumulator() {
+			@Override public long accumulate(long accumulate, long value) {
+				return Math.max(accumulate, value);
+			}
+		};
+	}
+
+	/**
+	 * Find the maximum of the numbers as double values, which sequences do without boxing
+	 */
+	public static DoubleAccumulator maxDouble() {
+		return new DoubleAccumulator() {
+			@Override public double accumulate(double accumulate, double value) {
+				return Math.max(accumulate, value);
+			}
+		};
+	}
+
+	/**
+	 * Count the elements of any type, ignoring their values, which sequences do without boxing
+	 */
+	public static CountAccumulator count() {
+		return new CountAccumulator();
+	}
+
 	/**
 	 * Build the union, i.e. a distinct concatenation of all Iterables
 	 */
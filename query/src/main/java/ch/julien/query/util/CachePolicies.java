@@ -0,0 +1,68 @@
+package ch.julien.query.util;
+
+import java.util.concurrent.TimeUnit;
+
+import ch.julien.common.contract.Check;
+import ch.julien.query.CachePolicy;
+
+/**
+ * Common {@link CachePolicy} implementations for convenience
+ */
+public class CachePolicies {
+
+	/**
+	 * Policy which can be told that the source has changed.
+	 */
+	public static class Invalidator implements CachePolicy {
+		// one below now, so that an order computed right away is not stale
+		private volatile long invalidatedAt = System.nanoTime() - 1;
+
+		/**
+		 * Mark all orders computed so far as stale
+		 */
+		public void invalidate() {
+			this.invalidatedAt = System.nanoTime();
+		}
+
+		@Override
+		public boolean isStale(long createdAt) {
+			return createdAt - this.invalidatedAt <= 0;
+		}
+	}
+
+	/**
+	 * Keep the cached order forever
+	 */
+	public static CachePolicy never() {
+		return new CachePolicy() {
+			@Override
+			public boolean isStale(long createdAt) {
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Compute the order again once it is older than <code>duration</code>
+	 */
+	public static CachePolicy expireAfter(long duration, TimeUnit unit) {
+		Check.notNull(unit, "unit");
+
+		final long nanos = unit.toNanos(duration);
+
+		return new CachePolicy() {
+			@Override
+			public boolean isStale(long createdAt) {
+				return System.nanoTime() - createdAt >= nanos;
+			}
+		};
+	}
+
+	/**
+	 * Compute the order again after {@link Invalidator#invalidate()} has been called
+	 */
+	public static Invalidator invalidator() {
+		return new Invalidator();
+	}
+
+}
@@ -0,0 +1,352 @@
+package ch.julien.query.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ch.julien.common.contract.Check;
+import ch.julien.common.delegate.Action2;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.query.Collector;
+
+/**
+ * Common {@link Collector} implementations for convenience
+ */
+public class Collectors {
+	/** Largest container the collectors allocate up front. */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Collect into the container {@code supplier} returns, {@code combiner} adds the second container to the first
+	 */
+	public static <T, TContainer> Collector<T, TContainer, TContainer> of(final Func0<TContainer> supplier,
+		final Action2<TContainer, ? super T> accumulator, final Action2<TContainer, TContainer> combiner) {
+
+		Check.notNull(supplier, "supplier");
+		Check.notNull(accumulator, "accumulator");
+		Check.notNull(combiner, "combiner");
+
+		return new Collector<T, TContainer, TContainer>() {
+			@Override
+			public TContainer supply(long sizeHint) {
+				return supplier.invoke();
+			}
+
+			@Override
+			public void accumulate(TContainer container, T element) {
+				accumulator.invoke(container, element);
+			}
+
+			@Override
+			public TContainer combine(TContainer left, TContainer right) {
+				combiner.invoke(left, right);
+				return left;
+			}
+
+			@Override
+			public TContainer finish(TContainer container) {
+				return container;
+			}
+		};
+	}
+
+	/**
+	 * Collect the elements into an {@link ArrayList} which is presized if the number of elements is known
+	 */
+	public static <T> Collector<T, ArrayList<T>, ArrayList<T>> toArrayList() {
+		return new Collector<T, ArrayList<T>, ArrayList<T>>() {
+			@Override
+			public ArrayList<T> supply(long sizeHint) {
+				return sizeHint >= 0 ? new ArrayList<T>(capacity(sizeHint)) : new ArrayList<T>();
+			}
+
+			@Override
+			public void accumulate(ArrayList<T> container, T element) {
+				container.add(element);
+			}
+
+			@Override
+			public ArrayList<T> combine(ArrayList<T> left, ArrayList<T> right) {
+				left.addAll(right);
+				return left;
+			}
+
+			@Override
+			public ArrayList<T> finish(ArrayList<T> container) {
+				return container;
+			}
+		};
+	}
+
+	/**
+	 * Collect the elements into a {@link HashMap} which is presized if the number of elements is known, later
+	 * elements replace earlier ones with the same key
+	 */
+	public static <T, TKey, TElement> Collector<T, HashMap<TKey, TElement>, HashMap<TKey, TElement>> toHashMap(
+		final Func<? super T, TKey> keySelector, final Func<? super T, TElement> elementSelector) {
+
+		Check.notNull(keySelector, "keySelector");
+		Check.notNull(elementSelector, "elementSelector");
+
+		return new Collector<T, HashMap<TKey, TElement>, HashMap<TKey, TElement>>() {
+			@Override
+			public HashMap<TKey, TElement> supply(long sizeHint) {
+				return sizeHint >= 0 ? new HashMap<TKey, TElement>(mapCapacity(sizeHint)) : new HashMap<TKey, TElement>();
+			}
+
+			@Override
+			public void accumulate(HashMap<TKey, TElement> container, T element) {
+				container.put(keySelector.invoke(element), elementSelector.invoke(element));
+			}
+
+			@Override
+			public HashMap<TKey, TElement> combine(HashMap<TKey, TElement> left, HashMap<TKey, TElement> right) {
+				left.putAll(right);
+				return left;
+			}
+
+			@Override
+			public HashMap<TKey, TElement> finish(HashMap<TKey, TElement> container) {
+				return container;
+			}
+		};
+	}
+
+	/**
+	 * Count the elements per key, ordered by the first occurrence of the key. The counts are incremented in place,
+	 * they are boxed only once per key at the end.
+	 */
+	public static <T, TKey> Collector<T, ?, LinkedHashMap<TKey, Long>> countBy(final Func<? super T, TKey> keySelector) {
+		Check.notNull(keySelector, "keySelector");
+
+		return new Collector<T, LinkedHashMap<TKey, long[]>, LinkedHashMap<TKey, Long>>() {
+			@Override
+			public LinkedHashMap<TKey, long[]> supply(long sizeHint) {
+				return new LinkedHashMap<TKey, long[]>();
+			}
+
+			@Override
+			public void accumulate(LinkedHashMap<TKey, long[]> container, T element) {
+				TKey key = keySelector.invoke(element);
+				long[] count = container.get(key);
+
+				if (count == null) {
+					container.put(key, new long[] {1});
+				} else {
+					count[0]++;
+				}
+			}
+
+			@Override
+			public LinkedHashMap<TKey, long[]> combine(LinkedHashMap<TKey, long[]> left, LinkedHashMap<TKey, long[]> right) {
+				for (Map.Entry<TKey, long[]> entry : right.entrySet()) {
+					long[] count = left.get(entry.getKey());
+
+					if (count == null) {
+						left.put(entry.getKey(), entry.getValue());
+					} else {
+						count[0] += entry.getValue()[0];
+					}
+				}
+
+				return left;
+			}
+
+			@Override
+			public LinkedHashMap<TKey, Long> finish(LinkedHashMap<TKey, long[]> container) {
+				LinkedHashMap<TKey, Long> result = new LinkedHashMap<TKey, Long>(mapCapacity(container.size()));
+
+				for (Map.Entry<TKey, long[]> entry : container.entrySet()) {
+					result.put(entry.getKey(), entry.getValue()[0]);
+				}
+
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Collect the numbers (elements) as int values into an array, which is allocated only once if the number of
+	 * elements is known
+	 */
+	public static Collector<Number, ?, int[]> toIntArray() {
+		return new Collector<Number, IntBuffer, int[]>() {
+			@Override
+			public IntBuffer supply(long sizeHint) {
+				return new IntBuffer(sizeHint >= 0 ? capacity(sizeHint) : 16);
+			}
+
+			@Override
+			public void accumulate(IntBuffer container, Number element) {
+				container.add(element.intValue());
+			}
+
+			@Override
+			public IntBuffer combine(IntBuffer left, IntBuffer right) {
+				left.addAll(right);
+				return left;
+			}
+
+			@Override
+			public int[] finish(IntBuffer container) {
+				return container.values.length == container.size ? container.values : Arrays.copyOf(container.values, container.size);
+			}
+		};
+	}
+
+	/**
+	 * Collect the numbers (elements) as long values into an array, which is allocated only once if the number of
+	 * elements is known
+	 */
+	public static Collector<Number, ?, long[]> toLongArray() {
+		return new Collector<Number, LongBuffer, long[]>() {
+			@Override
+			public LongBuffer supply(long sizeHint) {
+				return new LongBuffer(sizeHint >= 0 ? capacity(sizeHint) : 16);
+			}
+
+			@Override
+			public void accumulate(LongBuffer container, Number element) {
+				container.add(element.longValue());
+			}
+
+			@Override
+			public LongBuffer combine(LongBuffer left, LongBuffer right) {
+				left.addAll(right);
+				return left;
+			}
+
+			@Override
+			public long[] finish(LongBuffer container) {
+				return container.values.length == container.size ? container.values : Arrays.copyOf(container.values, container.size);
+			}
+		};
+	}
+
+	/**
+	 * Collect the numbers (elements) as double values into an array, which is allocated only once if the number of
+	 * elements is known
+	 */
+	public static Collector<Number, ?, double[]> toDoubleArray() {
+		return new Collector<Number, DoubleBuffer, double[]>() {
+			@Override
+			public DoubleBuffer supply(long sizeHint) {
+				return new DoubleBuffer(sizeHint >= 0 ? capacity(sizeHint) : 16);
+			}
+
+			@Override
+			public void accumulate(DoubleBuffer container, Number element) {
+				container.add(element.doubleValue());
+			}
+
+			@Override
+			public DoubleBuffer combine(DoubleBuffer left, DoubleBuffer right) {
+				left.addAll(right);
+				return left;
+			}
+
+			@Override
+			public double[] finish(DoubleBuffer container) {
+				return container.values.length == container.size ? container.values : Arrays.copyOf(container.values, container.size);
+			}
+		};
+	}
+
+	private static int capacity(long sizeHint) {
+		return (int) Math.min(sizeHint, MAX_CAPACITY);
+	}
+
+	private static int mapCapacity(long sizeHint) {
+		// the default load factor of 0.75 must not be exceeded
+		return (int) Math.min((long) (sizeHint / 0.75) + 1, MAX_CAPACITY);
+	}
+
+	private static int grow(int length, int required) {
+		if (required < 0 || required > MAX_CAPACITY) {
+			throw new OutOfMemoryError();
+		}
+
+		return (int) Math.min(MAX_CAPACITY, Math.max(required, length + (length >> 1) + 1L));
+	}
+
+	private static final class IntBuffer {
+		private int[] values;
+		private int size;
+
+		IntBuffer(int capacity) {
+			this.values = new int[capacity];
+		}
+
+		void add(int value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, grow(this.values.length, this.size + 1));
+			}
+
+			this.values[this.size++] = value;
+		}
+
+		void addAll(IntBuffer other) {
+			if (this.size + other.size > this.values.length) {
+				this.values = Arrays.copyOf(this.values, grow(this.values.length, this.size + other.size));
+			}
+
+			System.arraycopy(other.values, 0, this.values, this.size, other.size);
+			this.size += other.size;
+		}
+	}
+
+	private static final class LongBuffer {
+		private long[] values;
+		private int size;
+
+		LongBuffer(int capacity) {
+			this.values = new long[capacity];
+		}
+
+		void add(long value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, grow(this.values.length, this.size + 1));
+			}
+
+			this.values[this.size++] = value;
+		}
+
+		void addAll(LongBuffer other) {
+			if (this.size + other.size > this.values.length) {
+				this.values = Arrays.copyOf(this.values, grow(this.values.length, this.size + other.size));
+			}
+
+			System.arraycopy(other.values, 0, this.values, this.size, other.size);
+			this.size += other.size;
+		}
+	}
+
+	private static final class DoubleBuffer {
+		private double[] values;
+		private int size;
+
+		DoubleBuffer(int capacity) {
+			this.values = new double[capacity];
+		}
+
+		void add(double value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, grow(this.values.length, this.size + 1));
+			}
+
+			this.values[this.size++] = value;
+		}
+
+		void addAll(DoubleBuffer other) {
+			if (this.size + other.size > this.values.length) {
+				this.values = Arrays.copyOf(this.values, grow(this.values.length, this.size + other.size));
+			}
+
+			System.arraycopy(other.values, 0, this.values, this.size, other.size);
+			this.size += other.size;
+		}
+	}
+}
@@ -0,0 +1,387 @@
+package ch.julien.query.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func2;
+import ch.julien.common.delegate.IntFunc;
+import ch.julien.common.delegate.IntPredicate;
+import ch.julien.common.delegate.Predicate;
+import ch.julien.query.util.Accumulators;
+
+/**
+ * Budgets of the bytes allocated per element by the operators, so per-element garbage fails the build.
+ * <p/>
+ * Every operation runs over {@link #SIZE} elements and the constant cost of building the pipeline is spread over
+ * them, so a budget of {@link #NOTHING} means that no object at all is allocated per element. The tests do nothing
+ * on a VM which can not measure the bytes allocated by a thread.
+ */
+public class AllocationTest {
+	private static final int SIZE = 100000;
+	private static final int WARMUP_RUNS = 10;
+	private static final int MEASURED_RUNS = 5;
+
+	/** Bytes per element which only cover the constant cost of a run. */
+	private static final double NOTHING = 1;
+	/** Bytes per element for one small object with two references, like a {@code Tuple}. */
+	private static final double ONE_PAIR = 40;
+	/** Bytes per element for buffering the elements, including the copies made while a buffer grows. */
+	private static final double BUFFER = 16;
+	/** Bytes per element for sorting by one key: the buffered elements, the column of keys and the sort order. */
+	private static final double SORT = 40;
+	/** Bytes per element for every further column of keys, i.e. for every {@code thenBy}. */
+	private static final double KEY_COLUMN = 16;
+	/** Bytes per element for buffering the elements in one growing list per key. */
+	private static final double GROUPS = 24;
+	/** Bytes per element for hashing unique keys: a table entry and a list per key. */
+	private static final double LOOKUP = 112;
+
+	private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+		@Override
+		public boolean invoke(Integer arg) {
+			return arg % 2 == 0;
+		}
+	};
+
+	private static final Func<Integer, Object> IDENTITY = new Func<Integer, Object>() {
+		@Override
+		public Object invoke(Integer arg) {
+			return arg;
+		}
+	};
+
+	private static final Func<Integer, Integer> KEY = new Func<Integer, Integer>() {
+		@Override
+		public Integer invoke(Integer arg) {
+			return arg;
+		}
+	};
+
+	/** Returns cached boxes only, so the key extraction itself does not allocate. */
+	private static final Func<Integer, Integer> MODULO_16 = new Func<Integer, Integer>() {
+		@Override
+		public Integer invoke(Integer arg) {
+			return arg % 16;
+		}
+	};
+
+	private static final Func2<Integer, Integer, Integer> FIRST = new Func2<Integer, Integer, Integer>() {
+		@Override
+		public Integer invoke(Integer first, Integer second) {
+			return first;
+		}
+	};
+
+	private com.sun.management.ThreadMXBean threadMXBean;
+
+	private List<Integer> list;
+	private Iterable<Integer> iterable;
+	private Iterable<Integer> fewDistinct;
+	private Integer[] array;
+	private int[] ints;
+
+	/** Referenced by every operation, so the elements are not optimized away. */
+	private Object result;
+
+	@Before
+	public void setUp() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+		this.threadMXBean = (com.sun.management.ThreadMXBean) bean;
+
+		assumeTrue(this.threadMXBean.isThreadAllocatedMemorySupported());
+
+		this.threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		this.list = new ArrayList<Integer>(SIZE);
+		List<Integer> fewDistinct = new ArrayList<Integer>(SIZE);
+		this.ints = new int[SIZE];
+
+		for (int i = 0; i < SIZE; i++) {
+			this.list.add(i);
+			fewDistinct.add(i % 16);
+			this.ints[i] = i;
+		}
+
+		this.array = this.list.toArray(new Integer[SIZE]);
+		this.iterable = iterableOnly(this.list);
+		this.fewDistinct = iterableOnly(fewDistinct);
+	}
+
+	@Test
+	public void testCount() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(iterable).count();
+			}
+		});
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(iterable).select(EVEN).count();
+			}
+		});
+	}
+
+	@Test
+	public void testFirst() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(iterable).first(new Predicate<Integer>() {
+					@Override
+					public boolean invoke(Integer arg) {
+						return arg == SIZE - 1;
+					}
+				});
+			}
+		});
+	}
+
+	@Test
+	public void testSkipAndTake() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(iterable).skip(SIZE / 2).count();
+			}
+		});
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).skip(SIZE / 4).take(SIZE / 2));
+			}
+		});
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(list).skip(SIZE / 4).take(SIZE / 2));
+			}
+		});
+	}
+
+	@Test
+	public void testSelectAndMap() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).select(EVEN).map(IDENTITY));
+			}
+		});
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(list).map(IDENTITY));
+			}
+		});
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(array).select(EVEN));
+			}
+		});
+	}
+
+	@Test
+	public void testDistinct() {
+		// all elements are duplicates of the first 16, only a key per element could allocate
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(fewDistinct).distinct());
+			}
+		});
+	}
+
+	@Test
+	public void testZip() {
+		assertBudget(ONE_PAIR, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).zip(iterable));
+			}
+		});
+		assertBudget(ONE_PAIR, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(list).zip(list));
+			}
+		});
+	}
+
+	@Test
+	public void testSortByAndThenBy() {
+		assertBudget(SORT, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).sortBy(KEY));
+			}
+		});
+		assertBudget(SORT + KEY_COLUMN, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(list).sortBy(MODULO_16).thenBy(KEY));
+			}
+		});
+	}
+
+	@Test
+	public void testReverse() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(list).reverse());
+			}
+		});
+		assertBudget(BUFFER, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).reverse());
+			}
+		});
+	}
+
+	@Test
+	public void testConcatAndFlat() {
+		final List<Integer> chunk = this.list.subList(0, SIZE / 100);
+		final List<Integer> chunks = this.list.subList(0, 100);
+
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).concat(list));
+			}
+		});
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(chunks).flat(new Func<Integer, Iterable<Integer>>() {
+					@Override
+					public Iterable<Integer> invoke(Integer arg) {
+						return chunk;
+					}
+				}));
+			}
+		});
+	}
+
+	@Test
+	public void testGroupByAndJoin() {
+		assertBudget(GROUPS, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).groupBy(MODULO_16));
+			}
+		});
+		// folding in place only allocates what the accumulator returns, here cached boxes
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(fewDistinct).groupBy(KEY, 0, Accumulators.maxInt()));
+			}
+		});
+		assertBudget(LOOKUP, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).join(list, KEY, KEY, FIRST));
+			}
+		});
+		assertBudget(GROUPS, new Runnable() {
+			@Override
+			public void run() {
+				result = consume(Query.from(iterable).join(fewDistinct, MODULO_16, KEY, FIRST).take(SIZE));
+			}
+		});
+	}
+
+	@Test
+	public void testPrimitive() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(ints)
+					.select(new IntPredicate() {
+						@Override
+						public boolean invoke(int arg) {
+							return arg % 2 == 0;
+						}
+					})
+					.map(new IntFunc() {
+						@Override
+						public int invoke(int arg) {
+							return arg / 2;
+						}
+					})
+					.sum();
+			}
+		});
+	}
+
+	@Test
+	public void testNumericAggregate() {
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(list).aggregate(0L, Accumulators.sumLong());
+			}
+		});
+
+		assertBudget(NOTHING, new Runnable() {
+			@Override
+			public void run() {
+				result = Query.from(ints).aggregate(Accumulators.maxInt());
+			}
+		});
+	}
+
+	private void assertBudget(double budget, Runnable operation) {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			operation.run();
+		}
+
+		long least = Long.MAX_VALUE;
+
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long threadId = Thread.currentThread().getId();
+			long before = this.threadMXBean.getThreadAllocatedBytes(threadId);
+
+			operation.run();
+
+			least = Math.min(least, this.threadMXBean.getThreadAllocatedBytes(threadId) - before);
+		}
+
+		assertThat((double) least / SIZE).isLessThanOrEqualTo(budget);
+	}
+
+	private static Object consume(Iterable<?> iterable) {
+		Object last = null;
+
+		for (Object element : iterable) {
+			last = element;
+		}
+
+		return last;
+	}
+
+	/** Hides the {@link List} from the operators, so they have to iterate. */
+	private static <T> Iterable<T> iterableOnly(final Iterable<T> source) {
+		return new Iterable<T>() {
+			@Override
+			public Iterator<T> iterator() {
+				return source.iterator();
+			}
+		};
+	}
+}
@@ -0,0 +1,171 @@
+package ch.julien.query.core;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Predicate;
+import ch.julien.query.PipelineListener;
+import ch.julien.query.StageStatistics;
+import ch.julien.query.Traversable;
+
+public class InstrumentedTraversableImplTest {
+	private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+		@Override
+		public boolean invoke(Integer arg) {
+			return arg % 2 == 0;
+		}
+	};
+
+	private static final Func<Integer, Integer> IDENTITY = new Func<Integer, Integer>() {
+		@Override
+		public Integer invoke(Integer arg) {
+			return arg;
+		}
+	};
+
+	private static class RecordingListener implements PipelineListener {
+		private final List<StageStatistics> statistics = new ArrayList<StageStatistics>();
+
+		@Override
+		public void traversed(StageStatistics statistics) {
+			this.statistics.add(statistics);
+		}
+
+		/**
+		 * @return index, name, elements in, elements out and buffered elements of every reported stage
+		 */
+		List<String> stages() {
+			List<String> stages = new ArrayList<String>();
+
+			for (StageStatistics stage : this.statistics) {
+				stages.add(stage.index() + " " + stage.name() + " " + stage.elementsIn() + "/" + stage.elementsOut() + "/" + stage.buffered());
+			}
+
+			return stages;
+		}
+	}
+
+	@Test
+	public void testCountsPerStage() {
+		RecordingListener listener = new RecordingListener();
+
+		List<Integer> actual = Query.from(asList(1, 2, 3, 4, 5, 6)).instrument(listener)
+			.select(EVEN)
+			.map(IDENTITY)
+			.asArrayList();
+
+		assertThat(actual).containsExactly(2, 4, 6);
+		assertThat(listener.stages()).containsExactly("0 source 6/6/0", "1 select 6/3/0", "2 map 3/3/0");
+		assertThat(listener.statistics.get(1).selectivity()).isEqualTo(0.5);
+	}
+
+	@Test
+	public void testIteration() {
+		RecordingListener listener = new RecordingListener();
+
+		Traversable<Integer> traversable = Query.from(asList(1, 2, 3, 4)).instrument(listener).select(EVEN);
+
+		for (Integer ignored : traversable) {
+			assertThat(listener.statistics).isEmpty();
+		}
+
+		assertThat(listener.stages()).containsExactly("0 source 4/4/0", "1 select 4/2/0");
+
+		listener.statistics.clear();
+		traversable.count();
+
+		assertThat(listener.stages()).containsExactly("0 source 4/4/0", "1 select 4/2/0");
+	}
+
+	@Test
+	public void testEarlyStop() {
+		RecordingListener listener = new RecordingListener();
+
+		Traversable<Integer> traversable = Query.from(asList(1, 2, 3, 4)).instrument(listener);
+
+		assertThat(traversable.first(EVEN).get()).isEqualTo(2);
+		assertThat(listener.stages()).containsExactly("0 source 2/2/0", "1 select 2/1/0");
+
+		listener.statistics.clear();
+
+		assertThat(traversable.distinct().take(1).asArrayList()).containsExactly(1);
+		assertThat(listener.stages()).containsExactly("0 source 1/1/0", "1 distinct 1/1/1", "2 take 1/1/0");
+	}
+
+	@Test
+	public void testBuffered() {
+		RecordingListener listener = new RecordingListener();
+
+		Traversable<Integer> traversable = Query.from(asList(3, 1, 3, 2, 1)).instrument(listener);
+
+		assertThat(traversable.distinct().reverse().asArrayList()).containsExactly(2, 1, 3);
+		assertThat(listener.stages()).containsExactly("0 source 5/5/0", "1 distinct 5/3/3", "2 reverse 3/3/3");
+
+		listener.statistics.clear();
+
+		assertThat(traversable.sortBy(IDENTITY).thenByDescending(IDENTITY).asArrayList()).containsExactly(1, 1, 2, 3, 3);
+		assertThat(listener.stages()).containsExactly("0 source 5/5/0", "1 sortBy 5/5/5");
+
+		listener.statistics.clear();
+
+		assertThat(traversable.sortBy(IDENTITY).skip(1).take(2).asArrayList()).containsExactly(1, 2);
+		assertThat(listener.stages()).containsExactly("0 source 5/5/0", "1 sortBy 5/2/3");
+	}
+
+	@Test
+	public void testReverseOfList() {
+		RecordingListener listener = new RecordingListener();
+
+		Traversable<Integer> traversable = Query.from(new LinkedList<Integer>(asList(1, 2, 3))).instrument(listener);
+
+		assertThat(traversable.reverse().asArrayList()).containsExactly(3, 2, 1);
+		assertThat(listener.stages()).containsExactly("0 source 3/3/0", "1 reverse 3/3/0");
+	}
+
+	@Test
+	public void testNestedTraversals() {
+		RecordingListener listener = new RecordingListener();
+
+		Traversable<Integer> traversable = Query.from(asList(1, 2, 3, 4)).instrument(listener).select(EVEN);
+
+		assertThat(traversable.zip(traversable.take(1)).count()).isEqualTo(1);
+		assertThat(listener.stages()).containsExactly(
+			"0 source 2/2/0", "1 select 2/1/0", "2 take 1/1/0", "0 source 4/4/0", "1 select 4/1/0", "2 zip 1/1/0");
+	}
+
+	@Test
+	public void testDelegateNanos() {
+		RecordingListener listener = new RecordingListener();
+
+		Query.from(asList(1, 2)).instrument(listener).select(
+			new Predicate<Integer>() {
+				@Override
+				public boolean invoke(Integer arg) {
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+
+					return true;
+				}
+			}
+		).count();
+
+		assertThat(listener.statistics.get(0).delegateNanos()).isEqualTo(0);
+		assertThat(listener.statistics.get(1).delegateNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testWithoutListener() {
+		Query.from(asList(1, 2)).instrument(null);
+	}
+}
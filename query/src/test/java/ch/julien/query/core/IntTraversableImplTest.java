@@ -0,0 +1,152 @@
+package ch.julien.query.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.IntFunc;
+import ch.julien.common.delegate.IntPredicate;
+import ch.julien.query.IntTraversable;
+import ch.julien.query.util.Accumulators;
+
+public class IntTraversableImplTest {
+	private IntTraversable from(int... source) {
+		return new IntArrayTraversable(source);
+	}
+
+	private IntTraversable fromIterable(final int... source) {
+		return new IntTraversableImpl(
+			new IntIterable() {
+				@Override
+				public IntIterator intIterator() {
+					return new IntTraversableImpl.IntArrayIterator(source, source.length);
+				}
+			}
+		);
+	}
+
+	@Test
+	public void testMap() {
+		IntTraversable actual = from(1, 2, 3).map(
+			new IntFunc() {
+				@Override
+				public int invoke(int arg) {
+					return arg * 2;
+				}
+			}
+		);
+
+		assertThat(actual.asArray()).isEqualTo(new int[] {2, 4, 6});
+	}
+
+	@Test
+	public void testSelect() {
+		IntTraversable actual = from(1, 2, 3, 4).select(
+			new IntPredicate() {
+				@Override
+				public boolean invoke(int arg) {
+					return arg % 2 == 0;
+				}
+			}
+		);
+
+		assertThat(actual.asArray()).isEqualTo(new int[] {2, 4});
+		assertThat(actual).containsExactly(2, 4);
+		assertThat(actual.count()).isEqualTo(2);
+	}
+
+	@Test
+	public void testSum() {
+		assertThat(from(1, 2, 3).sum()).isEqualTo(6);
+		assertThat(fromIterable(1, 2, 3).sum()).isEqualTo(6);
+		assertThat(from().sum()).isEqualTo(0);
+		assertThat(from(Integer.MAX_VALUE, Integer.MAX_VALUE).sum()).isEqualTo(2L * Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void testAverage() {
+		assertThat(from(1, 2, 4).average()).isEqualTo(7 / 3d);
+		assertThat(fromIterable(Integer.MAX_VALUE, Integer.MAX_VALUE).average()).isEqualTo(Integer.MAX_VALUE);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testAverageOfEmpty() {
+		from().average();
+	}
+
+	@Test
+	public void testNumericAggregate() {
+		assertThat(from(1, 2, 3).aggregate(0L, Accumulators.sumLong())).isEqualTo(6L);
+		assertThat(from(1, 2, 3).aggregate(0.5, Accumulators.sumDouble())).isEqualTo(6.5);
+		assertThat(fromIterable(3, 1, 2).aggregate(Accumulators.minInt())).isEqualTo(1);
+		assertThat(from(10, 20, 30).aggregate(0L, Accumulators.count())).isEqualTo(3L);
+		assertThat(fromIterable(10, 20, 30).aggregate(0L, Accumulators.count())).isEqualTo(3L);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNumericAggregateOfEmpty() {
+		from().aggregate(Accumulators.maxInt());
+	}
+
+	@Test
+	public void testMinAndMax() {
+		assertThat(from(3, -1, 2).min()).isEqualTo(-1);
+		assertThat(from(3, -1, 2).max()).isEqualTo(3);
+		assertThat(fromIterable(3, -1, 2).min()).isEqualTo(-1);
+		assertThat(fromIterable(3, -1, 2).max()).isEqualTo(3);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testMinOfEmpty() {
+		from().min();
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testMaxOfEmpty() {
+		fromIterable().max();
+	}
+
+	@Test
+	public void testDistinct() {
+		assertThat(from(3, 1, 3, 2, 1).distinct().asArray()).isEqualTo(new int[] {3, 1, 2});
+		assertThat(from().distinct().asArray()).isEqualTo(new int[] {});
+	}
+
+	@Test
+	public void testSort() {
+		int[] source = {3, 1, 2};
+
+		assertThat(from(source).sort().asArray()).isEqualTo(new int[] {1, 2, 3});
+		assertThat(source).isEqualTo(new int[] {3, 1, 2});
+	}
+
+	@Test
+	public void testAsArray() {
+		int[] source = new int[100];
+		for (int i = 0; i < source.length; i++) {
+			source[i] = i;
+		}
+
+		assertThat(fromIterable(source).asArray()).isEqualTo(source);
+		assertThat(from(source).asArray()).isEqualTo(source);
+		assertThat(from(source).asArray() != source).isTrue();
+	}
+
+	@Test
+	public void testBoxedOperations() {
+		Iterable<String> actual = from(1, 2).map(
+			new Func<Integer, String>() {
+				@Override
+				public String invoke(Integer arg) {
+					return arg.toString();
+				}
+			}
+		);
+
+		assertThat(actual).containsExactly("1", "2");
+		assertThat(from(1, 2).count()).isEqualTo(2);
+	}
+}
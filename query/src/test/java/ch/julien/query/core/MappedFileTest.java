@@ -0,0 +1,84 @@
+package ch.julien.query.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.julien.query.LongTraversable;
+import ch.julien.query.Traversable;
+
+public class MappedFileTest {
+	private static final int LONGS = 100;
+
+	private File file;
+	private RandomAccessFile access;
+
+	@Before
+	public void setUp() throws IOException {
+		this.file = File.createTempFile("mapped", ".bin");
+		this.access = new RandomAccessFile(this.file, "rw");
+
+		ByteBuffer buffer = ByteBuffer.allocate(LONGS * 8).order(ByteOrder.LITTLE_ENDIAN);
+
+		for (long i = 0; i < LONGS; i++) {
+			buffer.putLong(i);
+		}
+
+		buffer.flip();
+		this.access.getChannel().write(buffer);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		this.access.close();
+		this.file.delete();
+	}
+
+	@Test
+	public void testLongsOfSeveralRegions() throws IOException {
+		// regions of 3 longs, the last one holding a single long
+		LongTraversable actual = LongBufferTraversable.mapped(this.access.getChannel(), ByteOrder.LITTLE_ENDIAN, 28);
+
+		assertThat(actual.count()).isEqualTo(LONGS);
+		assertThat(actual.sum()).isEqualTo(LONGS * (LONGS - 1) / 2);
+		assertThat(actual.elementAt(98).get()).isEqualTo(98L);
+		assertThat(actual.skip(97)).containsExactly(97L, 98L, 99L);
+		assertThat(actual.parallel().count()).isEqualTo(LONGS);
+		assertThat(actual.explain()).contains("mapped read-only in 34 regions, 100 elements");
+	}
+
+	@Test
+	public void testLongsAfterClose() throws IOException {
+		LongTraversable actual = Query.longs(this.access.getChannel(), ByteOrder.LITTLE_ENDIAN);
+
+		this.access.close();
+
+		assertThat(actual.max()).isEqualTo(LONGS - 1);
+	}
+
+	@Test
+	public void testRecordsOfSeveralRegions() throws IOException {
+		Traversable<ByteBuffer> actual = RecordTraversable.mapped(this.access.getChannel(), 16, ByteOrder.LITTLE_ENDIAN, 40);
+
+		List<ByteBuffer> records = actual.asArrayList();
+
+		assertThat(records).hasSize(LONGS / 2);
+		assertThat(records.get(0).getLong(8)).isEqualTo(1L);
+		assertThat(records.get(LONGS / 2 - 1).getLong(0)).isEqualTo(LONGS - 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRecordsOfIncompleteFile() throws IOException {
+		Query.records(this.access.getChannel(), 24, ByteOrder.LITTLE_ENDIAN);
+	}
+}
@@ -0,0 +1,182 @@
+package ch.julien.query.core;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Predicate;
+import ch.julien.query.ParallelTraversable;
+import ch.julien.query.util.Collectors;
+
+public class ParallelTraversableImplTest {
+	private static final int SIZE = 20 * ParallelTraversableImpl.MIN_PARTITION_SIZE;
+
+	private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+		@Override
+		public boolean invoke(Integer arg) {
+			return arg % 2 == 0;
+		}
+	};
+
+	private static Integer[] integers(int size) {
+		Integer[] integers = new Integer[size];
+
+		for (int i = 0; i < size; i++) {
+			integers[i] = i;
+		}
+
+		return integers;
+	}
+
+	@Test
+	public void testCount() {
+		assertThat(Query.from(integers(SIZE)).parallel().count()).isEqualTo(SIZE);
+		assertThat(Query.from(integers(0)).parallel().count()).isEqualTo(0);
+		assertThat(Query.from(integers(SIZE)).parallel().select(EVEN).count()).isEqualTo(SIZE / 2);
+	}
+
+	@Test
+	public void testCollect() {
+		ArrayList<Integer> actual = Query.from(integers(SIZE)).parallel().select(EVEN).collect(Collectors.<Integer>toArrayList());
+
+		assertThat(actual).hasSize(SIZE / 2);
+
+		for (int i = 0; i < actual.size(); i++) {
+			assertThat(actual.get(i)).isEqualTo(2 * i);
+		}
+	}
+
+	@Test
+	public void testCollectPrimitiveArray() {
+		int[] actual = Query.from(integers(SIZE)).parallel().collect(Collectors.toIntArray());
+
+		assertThat(actual.length).isEqualTo(SIZE);
+		assertThat(actual[SIZE - 1]).isEqualTo(SIZE - 1);
+	}
+
+	@Test
+	public void testAggregateWithCombiner() {
+		long actual = Query.from(integers(SIZE)).parallel().aggregate(0L,
+			new Accumulator<Long, Integer>() {
+				@Override
+				public Long accumulate(Long accumulate, Integer source) {
+					return accumulate + source;
+				}
+			},
+			new Accumulator<Long, Long>() {
+				@Override
+				public Long accumulate(Long left, Long right) {
+					return left + right;
+				}
+			}
+		);
+
+		assertThat(actual).isEqualTo((long) SIZE * (SIZE - 1) / 2);
+	}
+
+	@Test
+	public void testAggregateCombinesInOrder() {
+		String actual = Query.from(integers(SIZE)).parallel().map(
+			new Func<Integer, String>() {
+				@Override
+				public String invoke(Integer arg) {
+					return arg == 0 || arg == SIZE - 1 ? arg.toString() : "";
+				}
+			}
+		).aggregate("",
+			new Accumulator<String, String>() {
+				@Override
+				public String accumulate(String accumulate, String source) {
+					return accumulate + source;
+				}
+			},
+			new Accumulator<String, String>() {
+				@Override
+				public String accumulate(String left, String right) {
+					return left + right;
+				}
+			}
+		);
+
+		assertThat(actual).isEqualTo("0" + (SIZE - 1));
+	}
+
+	@Test
+	public void testAnyAndAll() {
+		ParallelTraversable<Integer> parallel = Query.from(integers(SIZE)).parallel();
+
+		assertThat(parallel.any()).isTrue();
+		assertThat(parallel.any(EVEN)).isTrue();
+		assertThat(parallel.all(EVEN)).isFalse();
+		assertThat(parallel.select(EVEN).all(EVEN)).isTrue();
+		assertThat(Query.from(integers(0)).parallel().any()).isFalse();
+	}
+
+	@Test
+	public void testAsArrayListKeepsOrder() {
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int i = 0; i < SIZE; i += 2) {
+			expected.add(i * 10);
+		}
+
+		List<Integer> actual = Query.from(integers(SIZE)).parallel().select(EVEN).map(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					return arg * 10;
+				}
+			}
+		).asArrayList();
+
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@Test
+	public void testEachAndSequential() {
+		final AtomicInteger invocations = new AtomicInteger();
+
+		Iterable<Integer> actual = Query.from(new int[] {3, 1, 2}).parallel().each(
+			new Action<Integer>() {
+				@Override
+				public void invoke(Integer arg) {
+					invocations.incrementAndGet();
+				}
+			}
+		).sequential();
+
+		assertThat(invocations.get()).isEqualTo(0);
+
+		List<Integer> elements = new ArrayList<Integer>();
+		for (Integer element : actual) {
+			elements.add(element);
+		}
+
+		assertThat(invocations.get()).isEqualTo(3);
+		assertThat(elements).containsExactly(3, 1, 2);
+	}
+
+	@Test
+	public void testUnsplittableSourceWithPool() {
+		LinkedList<Integer> integers = new LinkedList<Integer>();
+		for (int i = 0; i < SIZE; i++) {
+			integers.add(i);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+
+		try {
+			assertThat(Query.from(integers).parallel(pool).select(EVEN).count()).isEqualTo(SIZE / 2);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -1,9 +1,19 @@
 package ch.julien.query.core;
 
+import ch.julien.common.delegate.DoubleFunc;
+import ch.julien.common.delegate.LongPredicate;
+import ch.julien.query.DoubleTraversable;
+import ch.julien.query.IntTraversable;
+import ch.julien.query.LongTraversable;
 import ch.julien.query.Traversable;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -104,6 +114,46 @@ public class QueryTest {
 		assertThat(actual).containsExactly(1L, 2L);
 	}
 
+	@Test
+	public void testFromPrimitiveIntegerArrayWithPrimitiveOperations() {
+		IntTraversable actual = Query.from(new int[] {3, 1, 3, 2});
+
+		assertThat(actual.sum()).isEqualTo(9);
+		assertThat(actual.distinct().sort().asArray()).isEqualTo(new int[] {1, 2, 3});
+	}
+
+	@Test
+	public void testFromPrimitiveLongArrayWithPrimitiveOperations() {
+		LongTraversable actual = Query.from(new long[] {3L, 1L, 3L, Long.MAX_VALUE});
+
+		assertThat(actual.max()).isEqualTo(Long.MAX_VALUE);
+		assertThat(actual.select(
+			new LongPredicate() {
+				@Override
+				public boolean invoke(long arg) {
+					return arg < 10L;
+				}
+			}
+		).distinct().asArray()).isEqualTo(new long[] {3L, 1L});
+	}
+
+	@Test
+	public void testFromPrimitiveDoubleArrayWithPrimitiveOperations() {
+		DoubleTraversable actual = Query.from(new double[] {0.5, -0.0, 0.0, 0.5});
+
+		assertThat(actual.sum()).isEqualTo(1.0);
+		assertThat(actual.min()).isEqualTo(-0.0);
+		assertThat(actual.distinct().asArray()).isEqualTo(new double[] {0.5, -0.0, 0.0});
+		assertThat(actual.map(
+			new DoubleFunc() {
+				@Override
+				public double invoke(double arg) {
+					return arg * 2;
+				}
+			}
+		).sort().asArray()).isEqualTo(new double[] {-0.0, 0.0, 1.0, 1.0});
+	}
+
 	@Test
 	public void testFromPrimitiveShortArray() {
 		short[] longs = new short[] {1, 2};
@@ -113,6 +163,42 @@ public class QueryTest {
 		assertThat(actual).containsExactly((short)1, (short)2);
 	}
 
+	@Test
+	public void testFromBuffers() {
+		IntBuffer ints = IntBuffer.wrap(new int[] {9, 1, 2, 3, 9});
+		ints.position(1).limit(4);
+
+		IntTraversable actual = Query.from(ints);
+
+		assertThat(actual).containsExactly(1, 2, 3);
+		assertThat(actual.count()).isEqualTo(3);
+		assertThat(actual.sum()).isEqualTo(6);
+		assertThat(ints.position()).isEqualTo(1);
+
+		assertThat(Query.from(LongBuffer.wrap(new long[] {1L, Long.MAX_VALUE})).max()).isEqualTo(Long.MAX_VALUE);
+		assertThat(Query.from(DoubleBuffer.wrap(new double[] {0.5, 1.5})).average()).isEqualTo(1.0);
+		assertThat(Query.from(ByteBuffer.wrap(new byte[] {1, 2})).skip(1)).containsExactly((byte) 2);
+		assertThat(Query.from(ByteBuffer.allocateDirect(4)).explain()).contains("direct, 4 elements");
+	}
+
+	@Test
+	public void testRecordsOfBuffer() {
+		ByteBuffer buffer = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(1).putShort((short) 10).putInt(2).putShort((short) 20).flip();
+
+		Traversable<ByteBuffer> actual = Query.records(buffer, 6);
+
+		assertThat(actual.count()).isEqualTo(2);
+		assertThat(actual.elementAt(1).get().getInt(0)).isEqualTo(2);
+		assertThat(actual.elementAt(1).get().getShort(4)).isEqualTo((short) 20);
+		assertThat(actual.first().get().isReadOnly()).isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRecordsOfBufferWithIncompleteRecord() {
+		Query.records(ByteBuffer.allocate(7), 6);
+	}
+
 	// elegant way to suppress generic array creation warning
 	private <TA, TB> Map.Entry<TA, TB> entry(TA a, TB b) {
 		return new HashMap.SimpleEntry<TA, TB>(a, b);
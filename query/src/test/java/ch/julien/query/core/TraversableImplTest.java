@@ -9,24 +9,45 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
 
 import org.junit.Test;
 
 import ch.julien.common.datastructure.Tuple;
 import ch.julien.common.delegate.Accumulator;
+import ch.julien.common.delegate.Action;
+import ch.julien.common.delegate.Action2;
 import ch.julien.common.delegate.EqualityComparator;
 import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.common.delegate.Func2;
+import ch.julien.common.delegate.HashingEqualityComparator;
 import ch.julien.common.delegate.Predicate;
 import ch.julien.common.monad.Option;
+import ch.julien.query.Aggregation;
+import ch.julien.query.Collector;
+import ch.julien.query.Grouping;
+import ch.julien.query.OrderedTraversable;
 import ch.julien.query.Traversable;
+import ch.julien.query.util.Accumulators;
+import ch.julien.query.util.CachePolicies;
+import ch.julien.query.util.Collectors;
+import ch.julien.query.util.Funcs;
+import ch.julien.query.util.Predicates;
 
 public class TraversableImplTest {
 
@@ -140,6 +161,128 @@ public class TraversableImplTest {
 		assertThat(actual).isEqualTo("20");
 	}
 
+	@Test(expected = NoSuchElementException.class)
+	public void testAggregateOfEmpty() {
+		List<Integer> integers = asList();
+
+		from(integers).aggregate(
+			new Accumulator<Integer, Integer>() {
+				@Override
+				public Integer accumulate(Integer a, Integer b) {
+					return a + b;
+				}
+			}
+		);
+	}
+
+	@Test
+	public void testAggregateNumeric() {
+		List<Integer> integers = asList(1, 2, 3, 4);
+
+		assertThat(from(integers).aggregate(Accumulators.sumInt())).isEqualTo(10);
+		assertThat(from(integers).aggregate(10L, Accumulators.productLong())).isEqualTo(240L);
+		assertThat(from(integers).aggregate(0d, Accumulators.maxDouble())).isEqualTo(4d);
+		assertThat(from(asList(1.5, 2.5)).aggregate(Accumulators.sumDouble())).isEqualTo(4d);
+		assertThat(from(asList(1.5, 2.5)).aggregate(0L, Accumulators.sumLong())).isEqualTo(3L);
+	}
+
+	@Test
+	public void testAggregateCount() {
+		assertThat(from(asList("a", "b", "c")).aggregate(0L, Accumulators.count())).isEqualTo(3L);
+		assertThat(from(asList(10L, 20L, 30L)).aggregate(Accumulators.count())).isEqualTo(3L);
+		assertThat(from(asList(2.5, 3.5)).aggregate(5L, Accumulators.count())).isEqualTo(7L);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testAggregateNumericOfEmpty() {
+		from(new ArrayList<Integer>()).aggregate(Accumulators.sumInt());
+	}
+
+	private static final Predicate<Integer> BELOW_10 = new Predicate<Integer>() {
+		@Override
+		public boolean invoke(Integer arg) {
+			return arg < 10;
+		}
+	};
+
+	@Test
+	public void testAggregateWhileStopsPullingElements() {
+		final List<Integer> mapped = new ArrayList<Integer>();
+
+		Aggregation<Integer> actual = from(new LinkedList<Integer>(asList(4, 5, 6, 7))).map(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					mapped.add(arg);
+					return arg;
+				}
+			}
+		).aggregateWhile(0, Accumulators.<Integer>sum(), BELOW_10);
+
+		assertThat(actual.getValue()).isEqualTo(15);
+		assertThat(actual.isStopped()).isTrue();
+		assertThat(mapped).containsExactly(4, 5, 6);
+	}
+
+	@Test
+	public void testAggregateWhileStopsFlat() {
+		final List<Integer> flattened = new ArrayList<Integer>();
+
+		Aggregation<Integer> actual = from(asList(1, 2, 3)).flat(
+			new Func<Integer, Iterable<Integer>>() {
+				@Override
+				public Iterable<Integer> invoke(Integer arg) {
+					flattened.add(arg);
+					return asList(arg, arg, arg, arg);
+				}
+			}
+		).aggregateWhile(0, Accumulators.<Integer>sum(), BELOW_10);
+
+		assertThat(actual.getValue()).isEqualTo(10);
+		assertThat(flattened).containsExactly(1, 2);
+	}
+
+	@Test
+	public void testAggregateWhileCompletes() {
+		Aggregation<Integer> actual = from(new LinkedList<Integer>(asList(1, 2, 3, 4, 5))).take(3)
+			.aggregateWhile(0, Accumulators.<Integer>sum(), BELOW_10);
+
+		assertThat(actual.getValue()).isEqualTo(6);
+		assertThat(actual.isStopped()).isFalse();
+	}
+
+	@Test
+	public void testAggregateWhileChecksInitial() {
+		Aggregation<Integer> actual = from(asList(1, 2)).aggregateWhile(10, Accumulators.<Integer>sum(), BELOW_10);
+
+		assertThat(actual.getValue()).isEqualTo(10);
+		assertThat(actual.isStopped()).isTrue();
+	}
+
+	@Test
+	public void testAllStopsAtFirstMismatch() {
+		final List<Integer> visited = new ArrayList<Integer>();
+
+		boolean actual = from(asList(2, 3, 4, 5)).each(
+			new Action<Integer>() {
+				@Override
+				public void invoke(Integer arg) {
+					visited.add(arg);
+				}
+			}
+		).all(
+			new Predicate<Integer>() {
+				@Override
+				public boolean invoke(Integer arg) {
+					return arg % 2 == 0;
+				}
+			}
+		);
+
+		assertThat(actual).isFalse();
+		assertThat(visited).containsExactly(2, 3);
+	}
+
 	@Test
 	public void testAllEvenNumbers() {
 		List<Integer> a = asList(1, 2);
@@ -222,6 +365,93 @@ public class TraversableImplTest {
 		assertThat(actual).isFalse();
 	}
 
+	@Test
+	public void testAllAfterTake() {
+		Predicate<Integer> positive = new Predicate<Integer>() {
+			@Override
+			public boolean invoke(Integer arg) {
+				return arg > 0;
+			}
+		};
+
+		assertThat(from(new LinkedList<Integer>(asList(1, 2, 3))).take(2).all(positive)).isTrue();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2, 3, 4, 5))).take(5).all(positive)).isTrue();
+		assertThat(from(asList(1, 2, 3, 4, 5)).take(5).all(positive)).isTrue();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2, 3))).take(0).all(positive)).isTrue();
+		assertThat(from(new LinkedList<Integer>(asList(1, -2, 3))).take(2).all(positive)).isFalse();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2, -3))).take(2).all(positive)).isTrue();
+	}
+
+	@Test
+	public void testAnyAfterTake() {
+		Iterable<Integer> empty = new LinkedList<Integer>();
+
+		assertThat(from(empty).take(0).any()).isFalse();
+		assertThat(from(empty).take(2).any()).isFalse();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2))).take(0).any()).isFalse();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2))).take(1).any()).isTrue();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2))).take(2).any()).isTrue();
+		assertThat(from(new LinkedList<Integer>(asList(1, 2, 3))).take(2).any(
+			new Predicate<Integer>() {
+				@Override
+				public boolean invoke(Integer arg) {
+					return arg == 3;
+				}
+			}
+		)).isFalse();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testAllDetectsConcurrentModification() {
+		final List<Integer> integers = new ArrayList<Integer>(asList(1, 2, 3));
+
+		from(integers).all(
+			new Predicate<Integer>() {
+				@Override
+				public boolean invoke(Integer arg) {
+					return integers.add(arg);
+				}
+			}
+		);
+	}
+
+	@Test
+	public void testAppendTo() throws IOException {
+		StringWriter writer = new StringWriter();
+
+		StringWriter actual = from(asList("a", "b", "c")).appendTo(writer, ", ", "[", "]");
+
+		assertThat(actual).isSameAs(writer);
+		assertThat(actual.toString()).isEqualTo("[a, b, c]");
+	}
+
+	@Test(expected = IOException.class)
+	public void testAppendToPropagatesIOException() throws IOException {
+		from(asList("a", "b")).appendTo(
+			new Appendable() {
+				@Override
+				public Appendable append(CharSequence csq) throws IOException {
+					if ("b".equals(csq)) {
+						throw new IOException();
+					}
+
+					return this;
+				}
+
+				@Override
+				public Appendable append(CharSequence csq, int start, int end) throws IOException {
+					return append(csq.subSequence(start, end));
+				}
+
+				@Override
+				public Appendable append(char c) throws IOException {
+					return append(String.valueOf(c));
+				}
+			},
+			", ", "", ""
+		);
+	}
+
 	@Test
 	public void testAsArray_AutoFactory() {
 		List<Integer[]> integers = asList(
@@ -339,6 +569,128 @@ public class TraversableImplTest {
 		assertThat(actual).containsOnly(leeloo.firstName, korban.firstName);
 	}
 
+	@Test
+	public void testAsString() {
+		assertThat(from(asList("a", "b", "c")).asString(", ")).isEqualTo("a, b, c");
+		assertThat(from(asList("a", "b", "c")).asString("|", "<", ">")).isEqualTo("<a|b|c>");
+		assertThat(from(new ArrayList<String>()).asString(", ", "[", "]")).isEqualTo("[]");
+	}
+
+	@Test
+	public void testAsStringOfOtherElements() {
+		assertThat(from(asList(1, null, 3)).asString("-")).isEqualTo("1-null-3");
+		assertThat(from("abc".toCharArray()).asString(".")).isEqualTo("a.b.c");
+		assertThat(from(asList("a", "b")).map(Funcs.<String>self()).skip(1).asString(", ")).isEqualTo("b");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBatch() {
+		List<Integer> integers = asList(1, 2, 3, 4, 5);
+
+		Traversable<List<Integer>> actual = from(integers).batch(2);
+
+		assertThat(actual.count()).isEqualTo(3);
+		assertThat(actual).containsExactly(asList(1, 2), asList(3, 4), asList(5));
+		assertThat(actual.explain()).contains("view");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBatchOfIterable() {
+		Iterable<Integer> integers = new TreeSet<Integer>(asList(5, 4, 3, 2, 1));
+
+		Traversable<List<Integer>> actual = from(integers).batch(2);
+
+		assertThat(actual).containsExactly(asList(1, 2), asList(3, 4), asList(5));
+		assertThat(from(new TreeSet<Integer>()).batch(2).any()).isFalse();
+	}
+
+	@Test
+	public void testBatchReusingBuffer() {
+		Iterable<Integer> integers = new TreeSet<Integer>(asList(1, 2, 3, 4, 5));
+		List<List<Integer>> batches = new ArrayList<List<Integer>>();
+		List<Integer> sizes = new ArrayList<Integer>();
+
+		for (List<Integer> batch : from(integers).batchReusingBuffer(2)) {
+			batches.add(batch);
+			sizes.add(batch.size());
+		}
+
+		assertThat(sizes).containsExactly(2, 2, 1);
+		assertThat(batches.get(0)).isSameAs(batches.get(2));
+		assertThat(batches.get(2)).containsExactly(5);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBatchOfSizeZero() {
+		from(asList(1, 2)).batch(0);
+	}
+
+	@Test
+	public void testCollect() {
+		StringBuilder actual = from(asList("a", "b", "c")).collect(
+			new Func0<StringBuilder>() {
+				@Override
+				public StringBuilder invoke() {
+					return new StringBuilder();
+				}
+			},
+			new Action2<StringBuilder, String>() {
+				@Override
+				public void invoke(StringBuilder first, String second) {
+					first.append(second);
+				}
+			},
+			new Action2<StringBuilder, StringBuilder>() {
+				@Override
+				public void invoke(StringBuilder first, StringBuilder second) {
+					fail("sequential collect must not combine");
+				}
+			}
+		);
+
+		assertThat(actual.toString()).isEqualTo("abc");
+	}
+
+	@Test
+	public void testCollectPassesKnownSize() {
+		final List<Long> hints = new ArrayList<Long>();
+		final Collector<Integer, ArrayList<Integer>, ArrayList<Integer>> collector = Collectors.toArrayList();
+
+		Collector<Integer, ArrayList<Integer>, ArrayList<Integer>> recording = new Collector<Integer, ArrayList<Integer>, ArrayList<Integer>>() {
+			@Override
+			public ArrayList<Integer> supply(long sizeHint) {
+				hints.add(sizeHint);
+				return collector.supply(sizeHint);
+			}
+
+			@Override
+			public void accumulate(ArrayList<Integer> container, Integer element) {
+				collector.accumulate(container, element);
+			}
+
+			@Override
+			public ArrayList<Integer> combine(ArrayList<Integer> left, ArrayList<Integer> right) {
+				return collector.combine(left, right);
+			}
+
+			@Override
+			public ArrayList<Integer> finish(ArrayList<Integer> container) {
+				return collector.finish(container);
+			}
+		};
+
+		assertThat(from(asList(1, 2, 3)).collect(recording)).containsExactly(1, 2, 3);
+		assertThat(from(asList(1, 2, 3)).select(Predicates.notNull()).collect(recording)).containsExactly(1, 2, 3);
+		assertThat(hints).containsExactly(3L, -1L);
+	}
+
+	@Test
+	public void testCollectPrimitiveArray() {
+		assertThat(from(asList(1, 2, 3)).collect(Collectors.toIntArray())).isEqualTo(new int[] {1, 2, 3});
+	}
+
 	@Test
 	public void testConcatListOfSameType() {
 		List<Integer> first = asList(1, 2);
@@ -464,6 +816,39 @@ public class TraversableImplTest {
 		assertThat(actual).containsExactly(2, 3);
 	}
 
+	@Test
+	public void testDifferenceWhereSelfIsSmallerThanOtherKeepsOrderAndDuplicates() {
+		List<Integer> a = asList(3, 2, null, 3);
+		List<Integer> b = asList(4, 5, 2, 6, 1);
+
+		Iterable<Integer> actual = from(a).difference(b);
+
+		assertThat(actual).containsExactly(3, null, 3);
+	}
+
+	@Test
+	public void testDifferenceWithHashingEqualityComparator() {
+		List<Person> a = asList(
+			Person.withFirstAndLastName("leeloo", "dallas"), Person.withFirstName("korben"), Person.withFirstName("ruby"));
+		List<Person> b = asList(Person.withFirstName("leeloo"));
+
+		Iterable<Person> actual = from(a).difference(b,
+			new HashingEqualityComparator<Person>() {
+				@Override
+				public boolean equals(Person first, Person second) {
+					return first.firstName.equals(second.firstName);
+				}
+
+				@Override
+				public int hashCode(Person value) {
+					return value.firstName.hashCode();
+				}
+			}
+		);
+
+		assertThat(actual).containsExactly(Person.withFirstName("korben"), Person.withFirstName("ruby"));
+	}
+
 	@Test
 	public void testDistinct() {
 		List<Integer> integers = asList(1, 2, 1, 1);
@@ -492,6 +877,82 @@ public class TraversableImplTest {
 		assertThat(actual).containsExactly(Person.withFirstName("leeloo"), Person.withFirstName("korben"));
 	}
 
+	@Test
+	public void testDistinctWithNull() {
+		List<Integer> integers = asList(1, null, 1, null, 2);
+
+		Iterable<Integer> actual = from(integers).distinct();
+
+		assertThat(actual).containsExactly(1, null, 2);
+	}
+
+	@Test
+	public void testDistinctWithHashingEqualityComparator() {
+		final int[] comparisons = {0};
+
+		List<Person> persons = asList(
+			Person.withFirstName("leeloo"), Person.withFirstName("korben"), Person.withFirstName("leeloo"), Person.withFirstName("ruby"));
+
+		List<Person> actual = from(persons).distinct(
+			new HashingEqualityComparator<Person>() {
+				@Override
+				public boolean equals(Person first, Person second) {
+					comparisons[0]++;
+					return first.firstName.equals(second.firstName);
+				}
+
+				@Override
+				public int hashCode(Person value) {
+					return value.firstName.hashCode();
+				}
+			}
+		).asArrayList();
+
+		assertThat(actual).containsExactly(
+			Person.withFirstName("leeloo"), Person.withFirstName("korben"), Person.withFirstName("ruby"));
+		assertThat(comparisons[0]).isEqualTo(1);
+	}
+
+	@Test
+	public void testExplain() {
+		Predicate<Integer> even = new Predicate<Integer>() {
+			@Override
+			public boolean invoke(Integer arg) {
+				return arg % 2 == 0;
+			}
+		};
+
+		assertThat(from(new LinkedList<Integer>(asList(1, 2, 3))).select(even).skip(1).distinct().explain()).isEqualTo(
+			"source: list LinkedList, 3 elements\n" +
+			"select\n" +
+			"skip 1: fused into the loop of the previous stage\n" +
+			"distinct: buffers the distinct elements, hash lookup"
+		);
+
+		assertThat(from(new ArrayList<Integer>(asList(1, 2, 3))).reverse().concat(new Integer[] {4}).explain()).isEqualTo(
+			"source: list ArrayList, random access, 3 elements\n" +
+			"reverse: view, random access\n" +
+			"concat\n" +
+			"  source: array Integer[], 1 element"
+		);
+
+		assertThat(from(asList(3, 1, 2)).sortBy(Funcs.<Integer>self()).skip(1).take(1).explain()).isEqualTo(
+			"source: list ArrayList, random access, 3 elements\n" +
+			"sortBy: 1 key, top-k selection of the first 2, buffers at most 4, yields 1 from index 1"
+		);
+
+		assertThat(from(new HashSet<Integer>(asList(1, 2))).difference(asList(2), new EqualityComparator<Integer>() {
+			@Override
+			public boolean equals(Integer a, Integer b) {
+				return a.equals(b);
+			}
+		}).explain()).isEqualTo(
+			"source: set HashSet, 2 elements\n" +
+			"difference: buffers and hashes the other sequence, streams this one, linear lookup, the equality comparator does not hash\n" +
+			"  source: list ArrayList, random access, 1 element"
+		);
+	}
+
 	@Test
 	public void testFirstReturnsSome()  {
 		List<Integer> integers = asList(1, 2, 3, 4);
@@ -508,6 +969,24 @@ public class TraversableImplTest {
 		from(integers).first().get();
 	}
 
+	@Test
+	public void testFirstStopsAfterFirstElement() {
+		final List<Integer> visited = new ArrayList<Integer>();
+
+		Option<Integer> actual = from(new LinkedList<Integer>(asList(1, 2, 3, 4))).map(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					visited.add(arg);
+					return arg * 10;
+				}
+			}
+		).first();
+
+		assertThat(actual.get()).isEqualTo(10);
+		assertThat(visited).containsExactly(1);
+	}
+
 	@Test
 	public void testFirstWithPredicateReturnsSome() {
 		List<Integer> integers = asList(1, 2, 3, 4);
@@ -555,24 +1034,86 @@ public class TraversableImplTest {
 	}
 
 	@Test
-	public void testIntersect() {
-		List<Integer> a = asList(1, 2, 3, 4);
-		List<Integer> b = asList(4, 5, 6, 1);
+	public void testGroupBy() {
+		List<String> strings = asList("bb", "a", "ccc", "b", "aa", "c");
 
-		Iterable<Integer> actual = from(a).intersect(b);
+		List<Grouping<Integer, String>> actual = from(strings).groupBy(
+			new Func<String, Integer>() {
+				@Override
+				public Integer invoke(String arg) {
+					return arg.length();
+				}
+			}
+		).asArrayList();
 
-		assertThat(actual).containsExactly(1, 4);
+		assertThat(actual).hasSize(3);
+		assertThat(actual.get(0).getKey()).isEqualTo(2);
+		assertThat(actual.get(0)).containsExactly("bb", "aa");
+		assertThat(actual.get(1).getKey()).isEqualTo(1);
+		assertThat(actual.get(1)).containsExactly("a", "b", "c");
+		assertThat(actual.get(2).getKey()).isEqualTo(3);
+		assertThat(actual.get(2)).containsExactly("ccc");
 	}
 
 	@Test
-	public void testIntersectWhereSelfIsBiggerThanOther() {
-		List<Integer> a = asList(1, 2, 3, 4, 1, 8, 9);
-		List<Integer> b = asList(4, 5, 6, 1);
-
-		Iterable<Integer> actual = from(a).intersect(b);
-
-		assertThat(actual).containsExactly(1, 4);
-	}
+	public void testGroupByAccumulates() {
+		List<String> strings = asList("bb", "a", "ccc", "b", "aa", "c");
+
+		Iterable<Tuple<Integer, Integer>> actual = from(strings).groupBy(
+			new Func<String, Integer>() {
+				@Override
+				public Integer invoke(String arg) {
+					return arg.length();
+				}
+			},
+			0,
+			new Accumulator<Integer, String>() {
+				@Override
+				public Integer accumulate(Integer accumulate, String arg) {
+					return accumulate + 1;
+				}
+			}
+		);
+
+		List<Tuple<Integer, Integer>> expected = new ArrayList<Tuple<Integer, Integer>>();
+		expected.add(new Tuple<Integer, Integer>(2, 2));
+		expected.add(new Tuple<Integer, Integer>(1, 3));
+		expected.add(new Tuple<Integer, Integer>(3, 1));
+
+		assertThat(from(actual).asArrayList()).isEqualTo(expected);
+	}
+
+	@Test
+	public void testGroupByIsLazy() {
+		MockedArrayList<Integer> integers = new MockedArrayList<Integer>();
+		integers.add(1);
+		integers.add(2);
+
+		Traversable<Grouping<Integer, Integer>> actual = from(integers).groupBy(Funcs.<Integer>self());
+
+		assertThat(integers.getCallCount()).isZero();
+		assertThat(actual.count()).isEqualTo(2);
+	}
+
+	@Test
+	public void testIntersect() {
+		List<Integer> a = asList(1, 2, 3, 4);
+		List<Integer> b = asList(4, 5, 6, 1);
+
+		Iterable<Integer> actual = from(a).intersect(b);
+
+		assertThat(actual).containsExactly(1, 4);
+	}
+
+	@Test
+	public void testIntersectWhereSelfIsBiggerThanOther() {
+		List<Integer> a = asList(1, 2, 3, 4, 1, 8, 9);
+		List<Integer> b = asList(4, 5, 6, 1);
+
+		Iterable<Integer> actual = from(a).intersect(b);
+
+		assertThat(actual).containsExactly(1, 4);
+	}
 
 	@Test
 	public void testIntersectWhereSelfIsSmallerThanOther() {
@@ -584,6 +1125,104 @@ public class TraversableImplTest {
 		assertThat(actual).containsExactly(1, 4);
 	}
 
+	@Test
+	public void testIntersectWithHashingEqualityComparator() {
+		List<Person> a = asList(
+			Person.withFirstAndLastName("leeloo", "dallas"), Person.withFirstName("korben"), Person.withFirstName("ruby"));
+		List<Person> b = asList(
+			Person.withFirstName("ruby"), Person.withFirstName("leeloo"));
+
+		Iterable<Person> actual = from(a).intersect(b,
+			new HashingEqualityComparator<Person>() {
+				@Override
+				public boolean equals(Person first, Person second) {
+					return first.firstName.equals(second.firstName);
+				}
+
+				@Override
+				public int hashCode(Person value) {
+					return value.firstName.hashCode();
+				}
+			}
+		);
+
+		assertThat(actual).containsExactly(
+			Person.withFirstAndLastName("leeloo", "dallas"), Person.withFirstName("ruby"));
+	}
+
+	private static final Func<String, Character> INITIAL = new Func<String, Character>() {
+		@Override
+		public Character invoke(String arg) {
+			return arg.isEmpty() ? null : arg.charAt(0);
+		}
+	};
+
+	private static final Func2<String, String, String> PAIR = new Func2<String, String, String>() {
+		@Override
+		public String invoke(String first, String second) {
+			return first + "-" + second;
+		}
+	};
+
+	@Test
+	public void testJoin() {
+		List<String> outer = asList("apple", "banana", "cherry", "", "avocado");
+		List<String> inner = asList("almond", "brazil", "", "acorn", "date");
+
+		Iterable<String> actual = from(outer).join(inner, INITIAL, INITIAL, PAIR);
+
+		assertThat(actual).containsExactly(
+			"apple-almond", "apple-acorn", "banana-brazil", "avocado-almond", "avocado-acorn");
+	}
+
+	@Test
+	public void testJoinHashesInnerOncePerIteration() {
+		final int[] invocations = new int[1];
+		List<String> inner = asList("almond", "brazil", "acorn");
+
+		Traversable<String> actual = from(asList("apple", "banana", "avocado")).join(inner, INITIAL,
+			new Func<String, Character>() {
+				@Override
+				public Character invoke(String arg) {
+					invocations[0]++;
+					return arg.charAt(0);
+				}
+			},
+			PAIR
+		);
+
+		assertThat(invocations[0]).isZero();
+		assertThat(actual.count()).isEqualTo(5);
+		assertThat(invocations[0]).isEqualTo(3);
+	}
+
+	@Test
+	public void testLeftJoin() {
+		List<String> outer = asList("apple", "cherry", "", "banana");
+		List<String> inner = asList("almond", "brazil", "", "acorn");
+
+		Iterable<String> actual = from(outer).leftJoin(inner, INITIAL, INITIAL, PAIR);
+
+		assertThat(actual).containsExactly("apple-almond", "apple-acorn", "cherry-null", "-null", "banana-brazil");
+	}
+
+	@Test
+	public void testGroupJoin() {
+		List<String> outer = asList("apple", "cherry", "banana");
+		List<String> inner = asList("almond", "brazil", "acorn");
+
+		Iterable<String> actual = from(outer).groupJoin(inner, INITIAL, INITIAL,
+			new Func2<String, Traversable<String>, String>() {
+				@Override
+				public String invoke(String first, Traversable<String> second) {
+					return first + ":" + second.count();
+				}
+			}
+		);
+
+		assertThat(actual).containsExactly("apple:2", "cherry:0", "banana:1");
+	}
+
 	@Test
 	public void testLastReturnsSome()  {
 		List<Integer> integers = asList(1, 2, 3, 4);
@@ -746,6 +1385,102 @@ public class TraversableImplTest {
 		assertThat(integers.getCallCount()).isEqualTo(4);
 	}
 
+	@Test
+	public void testMemoize() {
+		final int[] invocations = new int[1];
+
+		Traversable<Integer> actual = from(asList(1, 2, 3, 4)).map(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					invocations[0]++;
+					return arg * 2;
+				}
+			}
+		).memoize();
+
+		assertThat(invocations[0]).isZero();
+		assertThat(actual.first().get()).isEqualTo(2);
+		assertThat(invocations[0]).isEqualTo(1);
+
+		Iterator<Integer> first = actual.iterator();
+		Iterator<Integer> second = actual.iterator();
+
+		assertThat(first.next()).isEqualTo(2);
+		assertThat(first.next()).isEqualTo(4);
+		assertThat(second.next()).isEqualTo(2);
+		assertThat(invocations[0]).isEqualTo(2);
+		assertThat(second.next()).isEqualTo(4);
+		assertThat(second.next()).isEqualTo(6);
+		assertThat(first.next()).isEqualTo(6);
+		assertThat(invocations[0]).isEqualTo(3);
+
+		assertThat(actual.count()).isEqualTo(4);
+		assertThat(actual).containsExactly(2, 4, 6, 8);
+		assertThat(actual.reverse()).containsExactly(8, 6, 4, 2);
+		assertThat(invocations[0]).isEqualTo(4);
+		assertThat(first.next()).isEqualTo(8);
+		assertThat(first.hasNext()).isFalse();
+	}
+
+	@Test(expected=NoSuchElementException.class)
+	public void testMemoizeNextOnExhausted() {
+		Iterator<Integer> iterator = from(asList(1)).memoize().iterator();
+
+		iterator.next();
+		iterator.next();
+	}
+
+	@Test
+	public void testMemoizeConcurrently() throws InterruptedException {
+		final int[] invocations = new int[1];
+		List<Integer> integers = new ArrayList<Integer>();
+
+		for (int i = 0; i < 10000; i++) {
+			integers.add(i);
+		}
+
+		final Traversable<Integer> memoized = from(integers).map(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					invocations[0]++;
+					return arg;
+				}
+			}
+		).memoize();
+		final List<List<Integer>> results = new ArrayList<List<Integer>>();
+		List<Thread> threads = new ArrayList<Thread>();
+
+		for (int i = 0; i < 4; i++) {
+			final List<Integer> result = new ArrayList<Integer>();
+
+			results.add(result);
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					for (Integer integer : memoized) {
+						result.add(integer);
+					}
+				}
+			});
+		}
+
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(invocations[0]).isEqualTo(integers.size());
+
+		for (List<Integer> result : results) {
+			assertThat(result).isEqualTo(integers);
+		}
+	}
+
 	@Test
 	public void testReverse() {
 		List<Integer> integers = asList(1, 2, 3, 4);
@@ -755,6 +1490,40 @@ public class TraversableImplTest {
 		assertThat(actual).containsExactly(4, 3, 2, 1);
 	}
 
+	@Test
+	public void testReverseIsLazy() {
+		MockedArrayList<Integer> integers = new MockedArrayList<Integer>();
+		integers.add(1);
+		integers.add(2);
+
+		Traversable<Integer> actual = from(integers).reverse();
+		integers.add(3);
+
+		assertThat(actual.first().get()).isEqualTo(3);
+		assertThat(actual.count()).isEqualTo(3);
+		assertThat(integers.getCallCount()).isZero();
+		assertThat(actual.reverse()).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void testReverseOfOtherSources() {
+		final List<Integer> integers = new ArrayList<Integer>(asList(1, 2, 3));
+
+		Iterable<Integer> iterable = new Iterable<Integer>() {
+			@Override
+			public Iterator<Integer> iterator() {
+				return integers.iterator();
+			}
+		};
+
+		Traversable<Integer> actual = from(iterable).reverse();
+		integers.add(4);
+
+		assertThat(actual).containsExactly(4, 3, 2, 1);
+		assertThat(from(new LinkedList<Integer>(integers)).reverse()).containsExactly(4, 3, 2, 1);
+		assertThat(from(new TreeSet<Integer>(integers)).reverse()).containsExactly(4, 3, 2, 1);
+	}
+
 	@Test
 	public void testSkip() {
 		List<Integer> integers = asList(1, 2, 3, 4);
@@ -829,6 +1598,143 @@ public class TraversableImplTest {
 		assertThat(actual).containsExactly(3, 4);
 	}
 
+	@Test
+	public void testFusedPipeline() {
+		final List<Integer> visited = new ArrayList<Integer>();
+
+		Traversable<String> actual = from(asList(1, 2, 3, 4, 5, 6, 7, 8)).skip(1).select(
+			new Predicate<Integer>() {
+				@Override
+				public boolean invoke(Integer arg) {
+					return arg % 2 == 0;
+				}
+			}
+		).each(
+			new Action<Integer>() {
+				@Override
+				public void invoke(Integer arg) {
+					visited.add(arg);
+				}
+			}
+		).map(
+			new Func<Integer, String>() {
+				@Override
+				public String invoke(Integer arg) {
+					return "#" + arg;
+				}
+			}
+		).take(2);
+
+		assertThat(((TraversableImpl<String>) actual).source instanceof FusedIterable).isTrue();
+		assertThat(actual.asArrayList()).containsExactly("#2", "#4");
+		assertThat(visited).containsExactly(2, 4);
+		assertThat(actual.asArrayList()).containsExactly("#2", "#4");
+		assertThat(visited).containsExactly(2, 4, 2, 4);
+	}
+
+	@Test
+	public void testTakeAfterSelectStopsPulling() {
+		MockedArrayList<Integer> integers = new MockedArrayList<Integer>();
+		integers.addAll(asList(1, 2, 3, 4, 5, 6));
+
+		Iterable<Integer> actual = from(integers).select(
+			new Predicate<Integer>() {
+				@Override
+				public boolean invoke(Integer arg) {
+					return arg > 1;
+				}
+			}
+		).take(2);
+
+		// iterate only once, the counter only sees pulls through the iterator
+		List<Integer> taken = new ArrayList<Integer>();
+		for (Integer element : actual) {
+			taken.add(element);
+		}
+
+		assertThat(integers.getCallCount()).isEqualTo(3);
+		assertThat(taken).containsExactly(2, 3);
+	}
+
+	@Test
+	public void testElementAt() {
+		List<Integer> integers = asList(1, 2, 3);
+
+		assertThat(from(integers).elementAt(1).get()).isEqualTo(2);
+		assertThat(from(integers).elementAt(3).hasValue()).isFalse();
+		assertThat(from(integers).elementAt(-1).hasValue()).isFalse();
+		assertThat(from(new LinkedList<Integer>(integers)).elementAt(2).get()).isEqualTo(3);
+		assertThat(from(new LinkedList<Integer>(integers)).elementAt(3).hasValue()).isFalse();
+	}
+
+	@Test
+	public void testSizeIsKnownThroughMapSkipTakeAndZip() {
+		List<Integer> integers = asList(1, 2, 3, 4, 5, 6);
+		final int[] invocations = new int[1];
+
+		Traversable<Tuple<String, Integer>> actual = from(integers).map(
+			new Func<Integer, String>() {
+				@Override
+				public String invoke(Integer arg) {
+					invocations[0]++;
+					return arg.toString();
+				}
+			}
+		).skip(1).take(4).zip(asList(10, 20, 30));
+
+		assertThat(actual.count()).isEqualTo(3);
+		assertThat(actual.elementAt(2).get()).isEqualTo(new Tuple<String, Integer>("4", 30));
+		assertThat(actual.last().get()).isEqualTo(new Tuple<String, Integer>("4", 30));
+		assertThat(invocations[0]).isEqualTo(2);
+
+		assertThat(from(integers).skip(4).take(5)).containsExactly(5, 6);
+		assertThat(from(integers).take(2).skip(1)).containsExactly(2);
+		assertThat(from(integers).skip(10).count()).isEqualTo(0);
+	}
+
+	@Test
+	public void testMapViewInvokesSelectorOnEveryAccess() {
+		final int[] invocations = new int[1];
+
+		Traversable<String> actual = from(asList(1, 2, 3)).map(
+			new Func<Integer, String>() {
+				@Override
+				public String invoke(Integer arg) {
+					invocations[0]++;
+					return arg.toString();
+				}
+			}
+		);
+
+		assertThat(actual.count()).isEqualTo(3);
+		assertThat(invocations[0]).isEqualTo(0);
+
+		assertThat(actual.elementAt(1).get()).isEqualTo("2");
+		assertThat(actual.elementAt(1).get()).isEqualTo("2");
+		assertThat(actual.last().get()).isEqualTo("3");
+		assertThat(invocations[0]).isEqualTo(3);
+
+		assertThat(actual.asArrayList()).containsExactly("1", "2", "3");
+		assertThat(invocations[0]).isEqualTo(6);
+	}
+
+	@Test
+	public void testTakeViewIteratesAndReadsTheSource() {
+		MockedArrayList<Integer> integers = new MockedArrayList<Integer>();
+		integers.addAll(asList(1, 2));
+
+		Traversable<Integer> actual = from(integers).take(3);
+
+		assertThat(actual.count()).isEqualTo(2);
+
+		integers.addAll(asList(3, 4));
+
+		assertThat(actual.count()).isEqualTo(3);
+		assertThat(integers.getCallCount()).isEqualTo(0);
+		assertThat(actual.asArrayList()).containsExactly(1, 2, 3);
+		assertThat(integers.getCallCount()).isEqualTo(3);
+	}
+
 	@Test
 	public void testSortBy() {
 		List<Integer> integers = asList(2, 4, 1, 3);
@@ -973,6 +1879,307 @@ public class TraversableImplTest {
 		);
 	}
 
+	@Test
+	public void testSortByInvokesKeySelectorOncePerElement() {
+		List<Integer> integers = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			integers.add((i * 37) % 100);
+		}
+
+		final int[] invocations = new int[1];
+
+		List<Integer> actual = from(integers).sortBy(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					invocations[0]++;
+					return arg;
+				}
+			}
+		).asArrayList();
+
+		assertThat(actual).hasSize(100);
+		assertThat(actual.get(0)).isEqualTo(0);
+		assertThat(actual.get(99)).isEqualTo(99);
+		assertThat(invocations[0]).isEqualTo(100);
+	}
+
+	@Test
+	public void testSortByIsStable() {
+		List<Person> persons = new ArrayList<Person>();
+		for (int i = 0; i < 50; i++) {
+			persons.add(Person.withFirstAndLastName(String.valueOf(i % 3), String.valueOf(i)));
+		}
+
+		List<Person> actual = from(persons).sortByDescending(
+			new Func<Person, String>() {
+				@Override
+				public String invoke(Person arg) {
+					return arg.firstName;
+				}
+			}
+		).asArrayList();
+
+		for (int i = 1; i < actual.size(); i++) {
+			Person previous = actual.get(i - 1);
+			Person current = actual.get(i);
+
+			if (previous.firstName.equals(current.firstName)) {
+				assertThat(Integer.parseInt(previous.lastName)).isLessThan(Integer.parseInt(current.lastName));
+			} else {
+				assertThat(previous.firstName.compareTo(current.firstName)).isGreaterThan(0);
+			}
+		}
+	}
+
+	@Test
+	public void testSortByWithNullAndMixedKeys() {
+		List<Object> objects = asList((Object) 3L, null, 1L, 2);
+
+		Iterable<Object> actual = from(objects).sortBy(
+			new Func<Object, Object>() {
+				@Override
+				public Object invoke(Object arg) {
+					return arg;
+				}
+			},
+			new Comparator<Object>() {
+				@Override
+				public int compare(Object a, Object b) {
+					long x = a == null ? Long.MIN_VALUE : ((Number) a).longValue();
+					long y = b == null ? Long.MIN_VALUE : ((Number) b).longValue();
+					return x < y ? -1 : (x == y ? 0 : 1);
+				}
+			}
+		);
+
+		assertThat(actual).containsExactly(null, 1L, 2, 3L);
+
+		Iterable<Integer> nullKeys = from(asList(2, null, 1)).sortBy(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					return arg;
+				}
+			}
+		);
+
+		assertThat(nullKeys).containsExactly(null, 1, 2);
+	}
+
+	@Test
+	public void testThenByDoesNotChangeOrigin() {
+		List<Person> persons = asList(
+			Person.withFirstAndLastName("Ruby", "Zorg"),
+			Person.withFirstAndLastName("Ruby", "Rhod"),
+			Person.withFirstAndLastName("Korben", "Dallas")
+		);
+
+		OrderedTraversable<Person, String> byFirstName = from(persons).sortBy(
+			new Func<Person, String>() {
+				@Override
+				public String invoke(Person arg) {
+					return arg.firstName;
+				}
+			}
+		);
+
+		Func<Person, String> lastName = new Func<Person, String>() {
+			@Override
+			public String invoke(Person arg) {
+				return arg.lastName;
+			}
+		};
+
+		Iterable<Person> ascending = byFirstName.thenBy(lastName);
+		Iterable<Person> descending = byFirstName.thenByDescending(lastName);
+
+		assertThat(byFirstName).containsExactly(
+			Person.withFirstAndLastName("Korben", "Dallas"),
+			Person.withFirstAndLastName("Ruby", "Zorg"),
+			Person.withFirstAndLastName("Ruby", "Rhod")
+		);
+		assertThat(ascending).containsExactly(
+			Person.withFirstAndLastName("Korben", "Dallas"),
+			Person.withFirstAndLastName("Ruby", "Rhod"),
+			Person.withFirstAndLastName("Ruby", "Zorg")
+		);
+		assertThat(descending).containsExactly(
+			Person.withFirstAndLastName("Korben", "Dallas"),
+			Person.withFirstAndLastName("Ruby", "Zorg"),
+			Person.withFirstAndLastName("Ruby", "Rhod")
+		);
+	}
+
+	@Test
+	public void testSortByTop() {
+		List<Person> persons = new ArrayList<Person>();
+		for (int i = 0; i < 200; i++) {
+			persons.add(Person.withFirstAndLastName(String.valueOf((i * 7919) % 13), String.valueOf(i)));
+		}
+
+		Func<Person, String> firstName = new Func<Person, String>() {
+			@Override
+			public String invoke(Person arg) {
+				return arg.firstName;
+			}
+		};
+
+		List<Person> sorted = from(persons).sortBy(firstName).asArrayList();
+
+		assertThat(from(persons).sortBy(firstName).top(25).asArrayList()).isEqualTo(sorted.subList(0, 25));
+		assertThat(from(persons).sortBy(firstName).take(3).asArrayList()).isEqualTo(sorted.subList(0, 3));
+		assertThat(from(persons).sortBy(firstName).top(500).asArrayList()).isEqualTo(sorted);
+		assertThat(from(persons).sortBy(firstName).top(0)).isEmpty();
+	}
+
+	@Test
+	public void testSortBySkipTake() {
+		List<Integer> integers = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			integers.add((i * 37) % 100);
+		}
+
+		Func<Integer, Integer> identity = new Func<Integer, Integer>() {
+			@Override
+			public Integer invoke(Integer arg) {
+				return arg;
+			}
+		};
+
+		assertThat(from(integers).sortBy(identity).skip(20).take(5)).containsExactly(20, 21, 22, 23, 24);
+		assertThat(from(integers).sortByDescending(identity).take(10).skip(7)).containsExactly(92, 91, 90);
+		assertThat(from(integers).sortBy(identity).skip(97)).containsExactly(97, 98, 99);
+		assertThat(from(integers).sortBy(identity).skip(98).take(5)).containsExactly(98, 99);
+		assertThat(from(integers).sortBy(identity).skip(120).take(5)).isEmpty();
+	}
+
+	@Test
+	public void testSortByCached() {
+		List<Integer> integers = new ArrayList<Integer>(asList(3, 1, 2));
+		final int[] invocations = new int[1];
+
+		CachePolicies.Invalidator invalidator = CachePolicies.invalidator();
+
+		OrderedTraversable<Integer, Integer> sorted = from(integers).sortBy(
+			new Func<Integer, Integer>() {
+				@Override
+				public Integer invoke(Integer arg) {
+					invocations[0]++;
+					return arg;
+				}
+			}
+		).cached(invalidator);
+
+		assertThat(sorted.first().get()).isEqualTo(1);
+		assertThat(sorted.last().get()).isEqualTo(3);
+		assertThat(sorted.count()).isEqualTo(3);
+		assertThat(sorted.skip(1).take(1)).containsExactly(2);
+		assertThat(sorted.asArrayList()).containsExactly(1, 2, 3);
+		assertThat(invocations[0]).isEqualTo(3);
+
+		integers.add(0);
+		assertThat(sorted.asArrayList()).containsExactly(1, 2, 3);
+
+		invalidator.invalidate();
+		assertThat(sorted.asArrayList()).containsExactly(0, 1, 2, 3);
+		assertThat(invocations[0]).isEqualTo(7);
+	}
+
+	@Test
+	public void testSortByMergesSetOperations() {
+		OrderedTraversable<String, Character> a = from(asList("cherry", "apple", "banana", "apple", "avocado", "")).sortBy(INITIAL);
+		OrderedTraversable<String, Character> b = from(asList("blueberry", "apple", "", "date", "avocado", "acorn")).sortBy(INITIAL);
+
+		Traversable<String> distinct = a.distinct();
+		Traversable<String> union = a.union(b);
+		Traversable<String> intersect = a.intersect(b);
+		Traversable<String> difference = a.difference(b);
+
+		assertThat(distinct).containsExactly("", "apple", "avocado", "banana", "cherry");
+		assertThat(union).containsExactly("", "apple", "avocado", "banana", "cherry", "acorn", "blueberry", "date");
+		assertThat(intersect).containsExactly("", "apple", "avocado");
+		assertThat(difference).containsExactly("banana", "cherry");
+
+		assertThat(distinct.explain()).contains("merges");
+		assertThat(union.explain().contains("merges")).isFalse();
+		assertThat(intersect.explain()).contains("merges");
+		assertThat(difference.explain()).contains("merges");
+	}
+
+	@Test
+	public void testSortByMergesJoins() {
+		OrderedTraversable<String, Character> outer = from(asList("cherry", "apple", "", "banana", "avocado")).sortBy(INITIAL);
+		OrderedTraversable<String, Character> inner = from(asList("brazil", "acorn", "", "almond", "date")).sortBy(INITIAL);
+
+		Traversable<String> join = outer.join(inner, INITIAL, INITIAL, PAIR);
+		Traversable<String> leftJoin = outer.leftJoin(inner, INITIAL, INITIAL, PAIR);
+
+		assertThat(join).containsExactly(
+			"apple-acorn", "apple-almond", "avocado-acorn", "avocado-almond", "banana-brazil");
+		assertThat(leftJoin).containsExactly(
+			"-null", "apple-acorn", "apple-almond", "avocado-acorn", "avocado-almond", "banana-brazil", "cherry-null");
+		assertThat(join.explain()).contains("merges");
+		assertThat(leftJoin.explain()).contains("merges");
+	}
+
+	@Test
+	public void testSortByMergesJoinsOnDifferentKeySelectors() {
+		Func<Character, Character> self = Funcs.self();
+		OrderedTraversable<String, Character> outer = from(asList("cherry", "apple", "banana", "avocado")).sortBy(INITIAL);
+		OrderedTraversable<Character, Character> inner = from(asList('c', 'a', 'd')).sortBy(self);
+
+		Traversable<String> join = outer.join(inner, INITIAL, self,
+			new Func2<String, Character, String>() {
+				@Override
+				public String invoke(String first, Character second) {
+					return first + "-" + second;
+				}
+			}
+		);
+
+		assertThat(join).containsExactly("apple-a", "avocado-a", "cherry-c");
+		assertThat(join.explain()).contains("merges");
+	}
+
+	@Test
+	public void testSortByMergeJoinMatchesEqualKeysOnly() {
+		Func<BigDecimal, BigDecimal> number = Funcs.self();
+		List<BigDecimal> numbers = asList(new BigDecimal("1.00"), new BigDecimal("2"), new BigDecimal("1.0"));
+		Func2<BigDecimal, BigDecimal, String> numberPair = new Func2<BigDecimal, BigDecimal, String>() {
+			@Override
+			public String invoke(BigDecimal first, BigDecimal second) {
+				return first + "-" + second;
+			}
+		};
+
+		Traversable<String> merged = from(numbers).sortBy(number).leftJoin(from(numbers).sortBy(number), number, number, numberPair);
+		Traversable<String> hashed = from(numbers).sortBy(number).leftJoin(numbers, number, number, numberPair);
+
+		assertThat(merged.explain()).contains("merges");
+		assertThat(merged).containsExactly("1.00-1.00", "1.0-1.0", "2-2");
+		assertThat(hashed).containsExactly("1.00-1.00", "1.0-1.0", "2-2");
+
+		Func<String, String> word = Funcs.self();
+		OrderedTraversable<String, String> outer = from(asList("b", "A", "a")).sortBy(word, String.CASE_INSENSITIVE_ORDER);
+		OrderedTraversable<String, String> inner = from(asList("a", "B")).sortBy(word, String.CASE_INSENSITIVE_ORDER);
+
+		assertThat(outer.join(inner, word, word, PAIR).explain()).contains("merges");
+		assertThat(outer.join(inner, word, word, PAIR)).containsExactly("a-a");
+		assertThat(outer.leftJoin(inner, word, word, PAIR)).containsExactly("A-null", "a-a", "b-null");
+	}
+
+	@Test
+	public void testSortByDoesNotMergeDifferentOrders() {
+		OrderedTraversable<String, Character> a = from(asList("cherry", "apple")).sortBy(INITIAL);
+		OrderedTraversable<String, Character> b = from(asList("apple", "banana")).sortByDescending(INITIAL);
+
+		Traversable<String> union = a.union(b);
+
+		assertThat(union).containsExactly("apple", "cherry", "banana");
+		assertThat(union.explain().contains("merges")).isFalse();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void testZipSameLength() {
@@ -57,6 +57,28 @@ public class AccumulatorsTest {
 		Accumulators.<T>sum().accumulate(input, input);
 	}
 
+	@Test
+	public void testPrimitive() {
+		assertThat(Accumulators.sumInt().accumulate(2, 3)).isEqualTo(5);
+		assertThat(Accumulators.sumLong().accumulate(2L, (Number) 3)).isEqualTo(5L);
+		assertThat(Accumulators.sumDouble().accumulate(2d, 0.5d)).isEqualTo(2.5d);
+		assertThat(Accumulators.productInt().accumulate(2, 3)).isEqualTo(6);
+		assertThat(Accumulators.productLong().accumulate(2L, 3L)).isEqualTo(6L);
+		assertThat(Accumulators.productDouble().accumulate(2d, 0.5d)).isEqualTo(1d);
+		assertThat(Accumulators.minInt().accumulate(2, 3)).isEqualTo(2);
+		assertThat(Accumulators.minLong().accumulate(2L, 3L)).isEqualTo(2L);
+		assertThat(Accumulators.minDouble().accumulate(2d, 3d)).isEqualTo(2d);
+		assertThat(Accumulators.maxInt().accumulate(2, 3)).isEqualTo(3);
+		assertThat(Accumulators.maxLong().accumulate(2L, 3L)).isEqualTo(3L);
+		assertThat(Accumulators.maxDouble().accumulate(2d, 3d)).isEqualTo(3d);
+	}
+
+	@Test
+	public void testCount() {
+		assertThat(Accumulators.count().accumulate(2L, 7L)).isEqualTo(3L);
+		assertThat(Accumulators.count().accumulate(2L, "a")).isEqualTo(3L);
+	}
+
 	@Test
 	public void testProduct() {
 		// test supported number types
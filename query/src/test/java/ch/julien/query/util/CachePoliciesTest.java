@@ -0,0 +1,38 @@
+package ch.julien.query.util;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import ch.julien.query.CachePolicy;
+
+public class CachePoliciesTest {
+
+	@Test
+	public void testNever() {
+		assertThat(CachePolicies.never().isStale(System.nanoTime() - TimeUnit.DAYS.toNanos(1))).isFalse();
+	}
+
+	@Test
+	public void testExpireAfter() {
+		CachePolicy policy = CachePolicies.expireAfter(1, TimeUnit.HOURS);
+
+		assertThat(policy.isStale(System.nanoTime())).isFalse();
+		assertThat(policy.isStale(System.nanoTime() - TimeUnit.HOURS.toNanos(2))).isTrue();
+	}
+
+	@Test
+	public void testInvalidator() {
+		CachePolicies.Invalidator invalidator = CachePolicies.invalidator();
+		long createdAt = System.nanoTime();
+
+		assertThat(invalidator.isStale(createdAt)).isFalse();
+
+		invalidator.invalidate();
+
+		assertThat(invalidator.isStale(createdAt)).isTrue();
+	}
+
+}
@@ -0,0 +1,117 @@
+package ch.julien.query.util;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.entry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+import ch.julien.common.delegate.Action2;
+import ch.julien.common.delegate.Func;
+import ch.julien.common.delegate.Func0;
+import ch.julien.query.Collector;
+
+public class CollectorsTest {
+	private static final Func<String, Integer> LENGTH = new Func<String, Integer>() {
+		@Override
+		public Integer invoke(String arg) {
+			return arg.length();
+		}
+	};
+
+	@SafeVarargs
+	private static <T, TContainer, TResult> TResult collect(Collector<T, TContainer, TResult> collector, long sizeHint, T... elements) {
+		TContainer container = collector.supply(sizeHint);
+
+		for (T element : elements) {
+			collector.accumulate(container, element);
+		}
+
+		return collector.finish(container);
+	}
+
+	/** Collects {@code left} and {@code right} separately and combines the containers. */
+	private static <T, TContainer, TResult> TResult combine(Collector<T, TContainer, TResult> collector, T[] left, T[] right) {
+		TContainer leftContainer = collector.supply(-1);
+		TContainer rightContainer = collector.supply(-1);
+
+		for (T element : left) {
+			collector.accumulate(leftContainer, element);
+		}
+
+		for (T element : right) {
+			collector.accumulate(rightContainer, element);
+		}
+
+		return collector.finish(collector.combine(leftContainer, rightContainer));
+	}
+
+	@Test
+	public void testOf() {
+		Collector<String, StringBuilder, StringBuilder> collector = Collectors.of(
+			new Func0<StringBuilder>() {
+				@Override
+				public StringBuilder invoke() {
+					return new StringBuilder();
+				}
+			},
+			new Action2<StringBuilder, String>() {
+				@Override
+				public void invoke(StringBuilder first, String second) {
+					first.append(second);
+				}
+			},
+			new Action2<StringBuilder, StringBuilder>() {
+				@Override
+				public void invoke(StringBuilder first, StringBuilder second) {
+					first.append(second);
+				}
+			}
+		);
+
+		assertThat(collect(collector, 2, "a", "b").toString()).isEqualTo("ab");
+		assertThat(combine(collector, new String[] {"a"}, new String[] {"b", "c"}).toString()).isEqualTo("abc");
+	}
+
+	@Test
+	public void testToArrayList() {
+		ArrayList<String> actual = collect(Collectors.<String>toArrayList(), 2, "a", "b");
+
+		assertThat(actual).containsExactly("a", "b");
+		assertThat(combine(Collectors.<String>toArrayList(), new String[] {"a"}, new String[] {"b"})).containsExactly("a", "b");
+	}
+
+	@Test
+	public void testToHashMap() {
+		HashMap<Integer, String> actual = collect(Collectors.toHashMap(LENGTH, Funcs.<String>self()), 3, "a", "bb", "c");
+
+		assertThat(actual).hasSize(2).contains(entry(1, "c"), entry(2, "bb"));
+	}
+
+	@Test
+	public void testCountBy() {
+		LinkedHashMap<Integer, Long> actual = combine(Collectors.countBy(LENGTH), new String[] {"aa", "b", "cc"}, new String[] {"d", "eee"});
+
+		assertThat(new ArrayList<Integer>(actual.keySet())).containsExactly(2, 1, 3);
+		assertThat(actual).contains(entry(2, 2L), entry(1, 2L), entry(3, 1L));
+	}
+
+	@Test
+	public void testToPrimitiveArray() {
+		assertThat(collect(Collectors.toIntArray(), -1, (Number) 1, 2.5, 3L)).isEqualTo(new int[] {1, 2, 3});
+		assertThat(collect(Collectors.toLongArray(), 3, (Number) 1, 2, 3)).isEqualTo(new long[] {1, 2, 3});
+		assertThat(collect(Collectors.toDoubleArray(), 0, (Number) 1, 2)).isEqualTo(new double[] {1, 2});
+
+		Integer[] many = new Integer[100];
+		Arrays.fill(many, 7);
+
+		int[] actual = combine(Collectors.toIntArray(), many, new Integer[] {8});
+
+		assertThat(actual.length).isEqualTo(101);
+		assertThat(actual[100]).isEqualTo(8);
+	}
+}